@@ -1,15 +1,61 @@
 package org.ChatGPT;
 
+import com.google.gson.JsonObject;
+import org.ChatGPT.builders.EmbeddingRequestBuilder;
+import org.ChatGPT.cache.SemanticCache;
+import org.ChatGPT.cascade.CascadeExecutor;
+import org.ChatGPT.enums.ImageResponseFormat;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.enums.TranscriptionFormat;
+import org.ChatGPT.exceptions.BudgetExceededException;
 import org.ChatGPT.exceptions.ChatGptGenerationException;
+import org.ChatGPT.exceptions.DeadlineExceededException;
+import org.ChatGPT.exceptions.HttpStatusException;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.handlers.JsonBodyHandler;
+import org.ChatGPT.handlers.MultipartBodyPublisher;
+import org.ChatGPT.handlers.StreamingBodyHandler;
+import org.ChatGPT.journal.ResponseJournal;
+import org.ChatGPT.interfaces.ImageSink;
+import org.ChatGPT.requests.EmbeddingRequest;
+import org.ChatGPT.requests.ImageRequest;
+import org.ChatGPT.requests.TranscriptionRequest;
+import org.ChatGPT.routing.Endpoint;
+import org.ChatGPT.routing.EndpointRouter;
 import org.ChatGPT.requests.TextRequest;
+import org.ChatGPT.streaming.CompletionStreamReader;
+import org.ChatGPT.streaming.IncrementalJsonParser;
+import org.ChatGPT.templates.PromptTemplate;
+import org.ChatGPT.usage.PredictionMetrics;
+import org.ChatGPT.usage.UsageTracker;
 import org.ChatGPT.builders.TextRequestBuilder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.Stack;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -17,13 +63,33 @@ import java.util.Stack;
  *
  * <p>
  *     To send the request use {@code sendRequestToTextEndPoint()} method. It takes 2 arguments: {@link String} ApiKey and {@link TextRequest} request.
+ *     Embeddings are requested with {@code sendRequestToEmbeddingEndPoint()} and an {@link EmbeddingRequest},
+ *     images with {@code sendRequestToImageEndPoint()} and an {@link ImageRequest}, transcripts of audio files with
+ *     {@code sendRequestToTranscriptionEndPoint()} and a {@link TranscriptionRequest}.
  * </p>
  *
  * <p>
  *     Class uses API-key to send requests. API-key can be set with {@code setApiKey()} method and deleted with {@@code dropApiKey()} method.
  * </p>
  * <p>
+ *     Every call can be bounded by a timeout ({@code setDefaultTimeout()} or per request), exceeding it cancels the in-flight
+ *     HTTP exchange and throws {@link DeadlineExceededException}. {@code sendRequestToTextEndPointAsync()} returns a future
+ *     whose cancellation cancels the in-flight exchange.
+ * </p>
+ * <p>
+ *     {@code streamRequestToTextEndPoint()} streams the response and hands content deltas to a consumer as they arrive.
+ * </p>
+ * <p>
+ *     Chat completions go to OpenAI's endpoint, or are spread across several endpoints by an {@link EndpointRouter}
+ *     (see {@code setEndpointRouter()}), which fails over between them.
+ * </p>
+ * <p>
+ *     {@code warmUp()} establishes the connection to each endpoint and preloads the parse paths before the first request, {@code isWarm()}
+ *     reports the result for readiness probes.
+ * </p>
+ * <p>
  *     Class saves responses in stack and can be got with {@code getLastResponse()} method.
+ *     Optionally, raw responses can be appended to an on-disk {@link ResponseJournal} (see {@code setResponseJournal()}).
  * </p>
  *
  * @see TextRequest
@@ -37,6 +103,11 @@ public class ChatGPTClient {
 	 */
 	private static ChatGPTClient instance;
 
+	/**
+	 * Reports failures that don't fail a call, e.g. a response that couldn't be journaled.
+	 */
+	private static final System.Logger LOGGER = System.getLogger(ChatGPTClient.class.getName());
+
 	/**
 	 * Stack that contains history of responses from ChatGPT.
 	 */
@@ -48,9 +119,93 @@ public class ChatGPTClient {
 	private String apiKey;
 
 	/**
-	 * The URI for the ChatGPT's chat completion endpoint.
+	 * Optional on-disk journal of raw responses.
+	 */
+	private volatile ResponseJournal responseJournal;
+
+	/**
+	 * Optional semantic cache of chat completions.
+	 */
+	private volatile SemanticCache semanticCache;
+
+	/**
+	 * Aggregates usage and enforces budgets, {@code null} if tracking is disabled.
+	 */
+	private volatile UsageTracker usageTracker;
+
+	/**
+	 * Routes chat completions across endpoints, {@code null} to use OpenAI's endpoint only.
+	 */
+	private volatile EndpointRouter endpointRouter;
+
+	/**
+	 * Measures acceptance and latency of predicted outputs, {@code null} if disabled.
 	 */
-	private final URI TEXT_ENDPOINT_URI = URI.create("https://api.openai.com/v1/chat/completions");
+	private volatile PredictionMetrics predictionMetrics;
+
+	/**
+	 * Timeout applied to calls whose request doesn't set one, {@code null} for no timeout.
+	 */
+	private volatile Duration defaultTimeout;
+
+	/**
+	 * OpenAI's own endpoint, used for chat completions when no {@link EndpointRouter} is set.
+	 */
+	private final Endpoint DEFAULT_ENDPOINT = Endpoint.openAi("openai", URI.create("https://api.openai.com/v1"));
+
+	/**
+	 * The URI for the ChatGPT's embeddings endpoint.
+	 */
+	private final URI EMBEDDING_ENDPOINT_URI = URI.create("https://api.openai.com/v1/embeddings");
+
+	/**
+	 * The URI for the ChatGPT's image generation endpoint.
+	 */
+	private final URI IMAGE_ENDPOINT_URI = URI.create("https://api.openai.com/v1/images/generations");
+
+	/**
+	 * The URI for the ChatGPT's audio transcription endpoint.
+	 */
+	private final URI TRANSCRIPTION_ENDPOINT_URI = URI.create("https://api.openai.com/v1/audio/transcriptions");
+
+	/**
+	 * Bytes per second of audio (128 kbit/s, a typical MP3 bitrate) assumed when a transcript doesn't report its duration.
+	 */
+	private static final int ESTIMATED_AUDIO_BYTES_PER_SECOND = 16_000;
+
+	/**
+	 * The longest a warm-up or keep-alive ping waits for its response, including the connection setup.
+	 */
+	private static final Duration PING_TIMEOUT = Duration.ofSeconds(5);
+
+	/**
+	 * HTTP client shared by all requests, so connections are reused instead of being opened for every call.
+	 */
+	private final HttpClient HTTP_CLIENT = HttpClient.newHttpClient();
+
+	/**
+	 * Runs asynchronous calls. Threads are daemons, so pending calls don't keep the JVM alive.
+	 */
+	private final ExecutorService ASYNC_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "chatgpt-client-async");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Whether the last warm-up or keep-alive ping succeeded.
+	 */
+	private volatile boolean warm;
+
+	/**
+	 * When the last request was sent, in {@link System#nanoTime()} units.
+	 */
+	private volatile long lastActivity = System.nanoTime();
+
+	/**
+	 * Sends keep-alive pings, {@code null} if they are stopped.
+	 */
+	private ScheduledExecutorService keepAlive;
 
 	/**
 	 * Retrieves the singleton instance of {@link ChatGPTClient}.
@@ -84,6 +239,85 @@ public class ChatGPTClient {
 		this.apiKey = null;
 	}
 
+	/**
+	 * Sets the timeout applied to calls whose request doesn't set its own (see {@link TextRequestBuilder#setTimeout(Duration)}).
+	 * Pass {@code null} to wait indefinitely.
+	 *
+	 * @param defaultTimeout The default timeout, or {@code null}.
+	 */
+	public void setDefaultTimeout(Duration defaultTimeout) {
+		if (defaultTimeout != null && (defaultTimeout.isZero() || defaultTimeout.isNegative()))
+			throw new IllegalArgumentException("Invalid timeout value: must be greater than 0");
+		this.defaultTimeout = defaultTimeout;
+	}
+
+	/**
+	 * Sets the journal that every successful response is appended to. Pass {@code null} to disable journaling.
+	 * <p>
+	 *     The journal is not closed by the client.
+	 * </p>
+	 *
+	 * @param responseJournal The journal to append responses to, or {@code null}.
+	 */
+	public void setResponseJournal(ResponseJournal responseJournal) {
+		this.responseJournal = responseJournal;
+	}
+
+	/**
+	 * Sets the semantic cache consulted before sending requests to the chat completion endpoint.
+	 * Pass {@code null} to disable caching.
+	 * <p>
+	 *     With a cache set, the user content of each request is embedded first (one call to the embeddings endpoint),
+	 *     and a cached response is returned if a similar request was answered before.
+	 * </p>
+	 *
+	 * @param semanticCache The cache to use, or {@code null}.
+	 */
+	public void setSemanticCache(SemanticCache semanticCache) {
+		this.semanticCache = semanticCache;
+	}
+
+	/**
+	 * Sets the tracker that aggregates token usage and cost of all calls and enforces its budgets.
+	 * Pass {@code null} to disable tracking.
+	 * <p>
+	 *     Before each call the tracker's budgets are checked: a call may be delayed (within its deadline) or rejected
+	 *     with {@link BudgetExceededException}. Calls answered from the semantic cache are free and not recorded.
+	 * </p>
+	 *
+	 * @param usageTracker The tracker to use, or {@code null}.
+	 */
+	public void setUsageTracker(UsageTracker usageTracker) {
+		this.usageTracker = usageTracker;
+	}
+
+	/**
+	 * Sets the router that spreads chat completion requests across several endpoints and fails over between them.
+	 * Pass {@code null} to send them to OpenAI's endpoint only.
+	 * <p>
+	 *     Failover happens on connection errors, rate limiting and server errors, within the request's deadline.
+	 *     A streamed request only fails over before its first content delta was delivered. Requests rendered from a
+	 *     {@link PromptTemplate} keep the model name they were compiled with. Embeddings, images and transcriptions
+	 *     are always sent to OpenAI.
+	 * </p>
+	 *
+	 * @param endpointRouter The router to use, or {@code null}.
+	 */
+	public void setEndpointRouter(EndpointRouter endpointRouter) {
+		this.endpointRouter = endpointRouter;
+	}
+
+	/**
+	 * Sets the metrics that chat completions are recorded in, to compare acceptance and latency per token of requests
+	 * with a prediction (see {@link TextRequestBuilder#setPrediction(String)}) against those without one.
+	 * Pass {@code null} to disable them. Calls answered from the semantic cache are not recorded.
+	 *
+	 * @param predictionMetrics The metrics to use, or {@code null}.
+	 */
+	public void setPredictionMetrics(PredictionMetrics predictionMetrics) {
+		this.predictionMetrics = predictionMetrics;
+	}
+
 	/**
 	 * Retrieves the most recent HTTP response from the response history.
 	 *
@@ -95,19 +329,309 @@ public class ChatGPTClient {
 	}
 
 	/**
-	 * Creates an HTTP request to the ChatGPT text completion endpoint.
+	 * Warms the client up before its first request, e.g. while a new deployment is not yet ready.
+	 * <p>
+	 *     Sends {@code connections} concurrent GET requests to the model list of each endpoint (OpenAI's, or those of the
+	 *     {@link EndpointRouter}), which resolves DNS and completes the TLS handshake and HTTP/2 setup. Meanwhile the
+	 *     serialization and parse paths run on canned data, so their classes are loaded and compiled by the JIT. Any HTTP
+	 *     response counts as success, the pings only need the connection. A ping times out after 5 seconds, or after the
+	 *     client's default timeout if that is shorter, so an unreachable endpoint fails the warm-up instead of stalling it.
+	 * </p>
+	 * <p>
+	 *     {@code connections} is the number of concurrent pings, not of connections opened. The shared {@link HttpClient}
+	 *     multiplexes concurrent HTTP/2 requests onto a single connection per endpoint, which is also the only connection
+	 *     later requests use, so for HTTP/2 endpoints (such as OpenAI's) 1 is enough. Only HTTP/1.1 endpoints get one pooled
+	 *     connection per concurrent ping.
+	 * </p>
 	 *
-	 * @param apiKey The API key for authentication.
-	 * @param prompt The {@link TextRequest} containing the prompt to be sent.
-	 * @return A configured {@link HttpRequest}.
+	 * @param apiKey      The API key sent with the pings, may be {@code null}.
+	 * @param connections The number of concurrent pings.
+	 * @return A future completed once the client is warm, or completed exceptionally if an endpoint is unreachable.
+	 * @throws IllegalArgumentException If {@code connections} is less than 1.
+	 * @see #isWarm()
 	 */
-	private HttpRequest createRequestToTextEndPoint(String apiKey, TextRequest prompt) {
-		return HttpRequest.newBuilder()
-				.uri(TEXT_ENDPOINT_URI)
-				.header("Authorization", "Bearer " + apiKey)
+	public CompletableFuture<Void> warmUp(String apiKey, int connections) {
+		if (connections < 1) throw new IllegalArgumentException("connections must be at least 1");
+		List<CompletableFuture<?>> steps = new ArrayList<>(connections + 1);
+		for (Endpoint endpoint : warmUpEndpoints()) {
+			for (int i = 0; i < connections; i++) steps.add(ping(endpoint, apiKey));
+		}
+		steps.add(CompletableFuture.runAsync(() -> WarmUp.exercise(WarmUp.ITERATIONS), ASYNC_EXECUTOR));
+		return CompletableFuture.allOf(steps.toArray(new CompletableFuture<?>[0]))
+				.whenComplete((result, e) -> warm = e == null);
+	}
+
+	/**
+	 * Warms the client up using the stored API key.
+	 *
+	 * @see #warmUp(String, int)
+	 */
+	public CompletableFuture<Void> warmUp(int connections) {
+		return warmUp(apiKey, connections);
+	}
+
+	/**
+	 * Returns whether the client is warm: the last warm-up, or keep-alive ping, reached the endpoint.
+	 * Suitable for readiness probes.
+	 *
+	 * @return {@code true} if the client is warm.
+	 */
+	public boolean isWarm() {
+		return warm;
+	}
+
+	/**
+	 * Keeps connections alive while the client is idle, so they are not closed by the server or by intermediaries.
+	 * <p>
+	 *     Whenever no request has been sent for {@code idleInterval}, a ping is sent. A failed ping marks the client as
+	 *     not warm, a successful one as warm again. Replaces keep-alive pings started before.
+	 * </p>
+	 *
+	 * @param apiKey       The API key sent with the pings, may be {@code null}.
+	 * @param idleInterval The idle time after which a ping is sent.
+	 * @throws IllegalArgumentException If the interval is zero or negative.
+	 */
+	public synchronized void startKeepAlive(String apiKey, Duration idleInterval) {
+		if (idleInterval.isZero() || idleInterval.isNegative()) throw new IllegalArgumentException("Invalid interval value: must be greater than 0");
+		stopKeepAlive();
+		long intervalNanos = idleInterval.toNanos();
+		keepAlive = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "chatgpt-client-keep-alive");
+			thread.setDaemon(true);
+			return thread;
+		});
+		keepAlive.scheduleWithFixedDelay(() -> {
+			if (System.nanoTime() - lastActivity < intervalNanos) return;
+			CompletableFuture.allOf(warmUpEndpoints().stream().map(endpoint -> ping(endpoint, apiKey)).toArray(CompletableFuture<?>[]::new))
+					.whenComplete((response, e) -> warm = e == null);
+		}, intervalNanos / 2, Math.max(1, intervalNanos / 2), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Keeps connections alive using the stored API key.
+	 *
+	 * @see #startKeepAlive(String, Duration)
+	 */
+	public void startKeepAlive(Duration idleInterval) {
+		startKeepAlive(apiKey, idleInterval);
+	}
+
+	/**
+	 * Stops keep-alive pings.
+	 */
+	public synchronized void stopKeepAlive() {
+		if (keepAlive == null) return;
+		keepAlive.shutdownNow();
+		keepAlive = null;
+	}
+
+	/**
+	 * Returns the endpoints to warm up: those of the router, or OpenAI's endpoint.
+	 */
+	private List<Endpoint> warmUpEndpoints() {
+		EndpointRouter router = endpointRouter;
+		return router != null ? router.getEndpoints() : List.of(DEFAULT_ENDPOINT);
+	}
+
+	/**
+	 * Sends a GET request to an endpoint's model list, discarding the response. Times out after {@link #PING_TIMEOUT},
+	 * or the default timeout if it is shorter.
+	 */
+	private CompletableFuture<HttpResponse<Void>> ping(Endpoint endpoint, String apiKey) {
+		Duration timeout = defaultTimeout;
+		if (timeout == null || timeout.compareTo(PING_TIMEOUT) > 0) timeout = PING_TIMEOUT;
+		HttpRequest.Builder request = endpoint.authorize(HttpRequest.newBuilder(), apiKey).uri(endpoint.getWarmUpUri()).timeout(timeout).GET();
+		lastActivity = System.nanoTime();
+		return HTTP_CLIENT.sendAsync(request.build(), HttpResponse.BodyHandlers.discarding());
+	}
+
+	/**
+	 * Creates an HTTP request to a chat completion endpoint.
+	 *
+	 * @param endpoint The endpoint to send the request to.
+	 * @param apiKey   The API key for authentication, unless the endpoint has its own.
+	 * @param prompt   The {@link TextRequest} containing the prompt to be sent.
+	 * @return A configured {@link HttpRequest.Builder}.
+	 */
+	private HttpRequest.Builder createRequestToTextEndPoint(Endpoint endpoint, String apiKey, TextRequest prompt) {
+		return endpoint.authorize(HttpRequest.newBuilder(), apiKey)
+				.uri(endpoint.getChatCompletionsUri(prompt.getModelType()))
 				.header("Content-Type", "application/json")
-				.POST(HttpRequest.BodyPublishers.ofString(prompt.getJson()))
+				.POST(HttpRequest.BodyPublishers.ofString(prompt.getJson(endpoint.getModelName(prompt.getModelType()))));
+	}
+
+	/**
+	 * Sends a chat completion to the endpoints of the router in turn, until one answers.
+	 * <p>
+	 *     An endpoint that fails with a connection error, a retryable status or the deadline is recorded as failed. One that
+	 *     rejects its API key or lacks the model's deployment (401, 403, 404) is also put in cooldown, as each endpoint has
+	 *     its own key and deployments. Other rejected requests (e.g. 400, 422) are passed to the caller, as another
+	 *     endpoint would reject them too.
+	 * </p>
+	 *
+	 * @param prompt   The request, for its model and conversation key.
+	 * @param context  The context of the call.
+	 * @param canRetry Whether a failed attempt may be repeated on another endpoint.
+	 * @param attempt  Sends the request to one endpoint.
+	 * @return The result of the first successful attempt.
+	 * @throws ChatGptGenerationException The failure of the last attempt, or if no endpoint serves the model.
+	 */
+	private <T> T route(TextRequest prompt, RequestContext context, BooleanSupplier canRetry, Function<Endpoint, T> attempt) {
+		EndpointRouter router = endpointRouter;
+		if (router == null) return attempt.apply(DEFAULT_ENDPOINT);
+		List<Endpoint> endpoints = router.route(prompt.getModelType(), prompt.getConversationKey());
+		if (endpoints.isEmpty()) throw new ChatGptGenerationException("No endpoint serves " + prompt.getModelType().getModel());
+		ChatGptGenerationException failure = null;
+		for (Endpoint endpoint : endpoints) {
+			if (failure != null) context.check();
+			long startNanos = System.nanoTime();
+			try {
+				T result = attempt.apply(endpoint);
+				router.record(endpoint, System.nanoTime() - startNanos, true);
+				return result;
+			} catch (ChatGptGenerationException e) {
+				boolean misconfigured = e instanceof HttpStatusException status && status.isEndpointFailure();
+				boolean rejected = e instanceof HttpStatusException status && !status.isRetryable() && !misconfigured;
+				router.record(endpoint, System.nanoTime() - startNanos, rejected);
+				if (misconfigured) router.markUnhealthy(endpoint);
+				if (rejected || e instanceof DeadlineExceededException || !canRetry.getAsBoolean()) throw e;
+				failure = e;
+			}
+		}
+		throw failure;
+	}
+
+	/**
+	 * Starts an HTTP exchange that is tracked by the call's context, so it is cancelled when the deadline passes
+	 * or the call is cancelled.
+	 *
+	 * @param request The request to send, its timeout is set to the time left until the deadline.
+	 * @param reader  The reader of a successful response body.
+	 * @param context The context of the call.
+	 * @return The in-flight exchange.
+	 */
+	private <T> CompletableFuture<HttpResponse<Supplier<T>>> start(HttpRequest.Builder request, Function<InputStream, T> reader, RequestContext context) {
+		context.check();
+		Duration remaining = context.remaining();
+		if (remaining != null) request.timeout(remaining);
+		lastActivity = System.nanoTime();
+		CompletableFuture<HttpResponse<Supplier<T>>> exchange = HTTP_CLIENT.sendAsync(request.build(), new StreamingBodyHandler<>(context.tracking(reader)));
+		context.track(exchange);
+		return exchange;
+	}
+
+	/**
+	 * Waits for an exchange started with {@link #start} and reads its body.
+	 *
+	 * @param exchange The in-flight exchange.
+	 * @param context  The context of the call.
+	 * @return The body produced by the exchange's reader.
+	 * @throws ChatGptGenerationException If the exchange fails or the response indicates a failure.
+	 * @throws DeadlineExceededException  If the deadline passes before the body is read.
+	 */
+	private <T> T await(CompletableFuture<HttpResponse<Supplier<T>>> exchange, RequestContext context) {
+		try {
+			return exchange.get().body().get();
+		} catch (ExecutionException e) {
+			throw context.failure(e.getCause());
+		} catch (CancellationException | UncheckedIOException e) {
+			throw context.failure(e);
+		} catch (InterruptedException e) {
+			context.cancel();
+			Thread.currentThread().interrupt();
+			throw new ChatGptGenerationException("Request error", e);
+		} finally {
+			context.untrack(exchange);
+		}
+	}
+
+	/**
+	 * Sends the HTTP request and parses the response body.
+	 * <p>
+	 *     Without a journal the body is parsed straight from the stream. With a journal the raw bytes are kept,
+	 *     parsed from memory and handed to the journal's writer thread. A journal that rejects the response (e.g.
+	 *     because it is closed) is logged and doesn't fail the call, the response has been generated and billed.
+	 * </p>
+	 *
+	 * @param request The HTTP request to send.
+	 * @param context The context of the call.
+	 * @return The parsed {@link ChatGPTResponse}.
+	 * @throws ChatGptGenerationException If the response indicates a failure.
+	 */
+	private ChatGPTResponse receive(HttpRequest.Builder request, RequestContext context) {
+		ResponseJournal journal = responseJournal;
+		if (journal == null) {
+			return new ChatGPTResponse(await(start(request, JsonBodyHandler::parse, context), context));
+		}
+		byte[] raw = await(start(request, ChatGPTClient::readAllBytes, context), context);
+		JsonObject body = JsonBodyHandler.parse(new ByteArrayInputStream(raw));
+		if (body.has("id")) {
+			String id = body.get("id").getAsString();
+			try {
+				journal.append(id, raw);
+			} catch (RuntimeException e) {
+				LOGGER.log(System.Logger.Level.WARNING, "Unable to journal response " + id, e);
+			}
+		}
+		return new ChatGPTResponse(body);
+	}
+
+	/**
+	 * Runs a chat completion call: semantic cache lookup (if enabled), then the request itself.
+	 */
+	private ChatGPTResponse complete(String apiKey, TextRequest prompt, RequestContext context) {
+		SemanticCache cache = semanticCache;
+		float[] embedding = null;
+		if (cache != null) {
+			embedding = embedUserContent(apiKey, cache, prompt, context);
+			Optional<ChatGPTResponse> cached = cache.lookup(prompt, embedding);
+			if (cached.isPresent()) {
+				RESPONSE_HISTORY.push(cached.get());
+				return cached.get();
+			}
+		}
+		UsageTracker tracker = admit(prompt.getModelType(), prompt.getTag(), context);
+		long startNanos = System.nanoTime();
+		ChatGPTResponse res = route(prompt, context, () -> true,
+				endpoint -> receive(createRequestToTextEndPoint(endpoint, apiKey, prompt), context));
+		recordPrediction(prompt, res, startNanos);
+		if (tracker != null) tracker.record(prompt.getModelType(), apiKey, prompt.getTag(), res);
+		if (cache != null) cache.put(prompt, embedding, res);
+		RESPONSE_HISTORY.push(res);
+		return res;
+	}
+
+	/**
+	 * Records a completed chat completion in the prediction metrics, if they are enabled.
+	 */
+	private void recordPrediction(TextRequest prompt, ChatGPTResponse res, long startNanos) {
+		PredictionMetrics metrics = predictionMetrics;
+		if (metrics != null) metrics.record(prompt.getModelType(), prompt.getPrediction() != null, res, System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Checks the usage budgets before a call and waits if they throttle it.
+	 *
+	 * @return The tracker to record the call's usage with, or {@code null} if tracking is disabled.
+	 * @throws BudgetExceededException If a budget is exhausted.
+	 */
+	private UsageTracker admit(ModelType model, String tag, RequestContext context) {
+		UsageTracker tracker = usageTracker;
+		if (tracker == null) return null;
+		long delay = tracker.admit(model, tag);
+		if (delay > 0) context.pause(delay);
+		return tracker;
+	}
+
+	/**
+	 * Embeds the user content of a request with the semantic cache's embedding model.
+	 */
+	private float[] embedUserContent(String apiKey, SemanticCache cache, TextRequest prompt, RequestContext context) {
+		EmbeddingRequest request = new EmbeddingRequestBuilder()
+				.setModel(cache.getEmbeddingModel())
+				.addInput(prompt.getUserContent())
 				.build();
+		return embed(apiKey, request, context).getEmbedding(0);
 	}
 
 	/**
@@ -117,19 +641,12 @@ public class ChatGPTClient {
 	 * @param prompt The {@link TextRequest} containing the prompt to be sent.
 	 * @return The {@link ChatGPTResponse} received from the API.
 	 * @throws ChatGptGenerationException If an error occurs during the request or the response indicates a failure.
+	 * @throws DeadlineExceededException If the request's timeout (or the client's default timeout) is exceeded.
+	 * @throws BudgetExceededException If a budget of the usage tracker is exhausted.
 	 */
 	public ChatGPTResponse sendRequestToTextEndPoint(String apiKey, TextRequest prompt) {
-		try {
-			HttpRequest request = createRequestToTextEndPoint(apiKey, prompt);
-			HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-			if (response.statusCode() != 200) {
-				throw new ChatGptGenerationException("Error Details: " + response.body());
-			}
-			ChatGPTResponse res = new ChatGPTResponse(response);
-			RESPONSE_HISTORY.push(res);
-			return res;
-		} catch (IOException | InterruptedException e) {
-			throw new ChatGptGenerationException("Request error", e);
+		try (RequestContext context = new RequestContext(timeoutOf(prompt))) {
+			return complete(apiKey, prompt, context);
 		}
 	}
 
@@ -139,6 +656,7 @@ public class ChatGPTClient {
 	 * @param prompt The {@link TextRequest} containing the prompt to be sent.
 	 * @return The {@link ChatGPTResponse} received from the API.
 	 * @throws ChatGptGenerationException If the API key is not set or an error occurs during the request.
+	 * @throws DeadlineExceededException If the request's timeout (or the client's default timeout) is exceeded.
 	 */
 	public ChatGPTResponse sendRequestToTextEndPoint(TextRequest prompt) {
 		if (apiKey == null)
@@ -146,4 +664,503 @@ public class ChatGPTClient {
 		return sendRequestToTextEndPoint(apiKey, prompt);
 	}
 
+	/**
+	 * Sends a request through the tiers of a {@link CascadeExecutor}: to its fastest model first, then to stronger ones
+	 * until a response passes its acceptance check.
+	 * <p>
+	 *     The request's timeout (or the client's default timeout) covers all tiers. Each tier is a regular chat completion:
+	 *     it is checked against the usage budgets, routed, recorded and consults the semantic cache.
+	 * </p>
+	 *
+	 * @param apiKey  The API key for authentication.
+	 * @param prompt  The {@link TextRequest} containing the prompt to be sent, its model is ignored.
+	 * @param cascade The cascade to run the request through.
+	 * @return The first accepted {@link ChatGPTResponse}, or the response of the last tier.
+	 * @throws ChatGptGenerationException If an error occurs during a request or a response indicates a failure.
+	 * @throws DeadlineExceededException If the request's timeout (or the client's default timeout) is exceeded.
+	 * @throws BudgetExceededException If a budget of the usage tracker is exhausted.
+	 */
+	public ChatGPTResponse sendRequestToTextEndPoint(String apiKey, TextRequest prompt, CascadeExecutor cascade) {
+		try (RequestContext context = new RequestContext(timeoutOf(prompt))) {
+			return cascade.execute(prompt, tier -> complete(apiKey, tier, context));
+		}
+	}
+
+	/**
+	 * Sends a request through the tiers of a {@link CascadeExecutor} using the stored API key.
+	 *
+	 * @see #sendRequestToTextEndPoint(String, TextRequest, CascadeExecutor)
+	 */
+	public ChatGPTResponse sendRequestToTextEndPoint(TextRequest prompt, CascadeExecutor cascade) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestToTextEndPoint(apiKey, prompt, cascade);
+	}
+
+	/**
+	 * Sends a request through the tiers of a {@link CascadeExecutor} asynchronously. Cancelling the returned future
+	 * cancels the tier in flight and stops the escalation.
+	 *
+	 * @see #sendRequestToTextEndPoint(String, TextRequest, CascadeExecutor)
+	 */
+	public CompletableFuture<ChatGPTResponse> sendRequestToTextEndPointAsync(String apiKey, TextRequest prompt, CascadeExecutor cascade) {
+		return runAsync(timeoutOf(prompt), context -> cascade.execute(prompt, tier -> complete(apiKey, tier, context)));
+	}
+
+	/**
+	 * Sends a request rendered from a precompiled {@link PromptTemplate}.
+	 * <p>
+	 *     The body is spliced from the template's pre-encoded fragments and the escaped values, without building a JSON tree.
+	 *     The template's timeout applies like a {@link TextRequest}'s. The semantic cache is not consulted for template requests.
+	 * </p>
+	 *
+	 * @param apiKey   The API key for authentication.
+	 * @param template The compiled template.
+	 * @param values   The values of the template's variables, in the order of {@link PromptTemplate#getVariables()}.
+	 * @return The {@link ChatGPTResponse} received from the API.
+	 * @throws IllegalArgumentException   If the values don't match the template's variables.
+	 * @throws ChatGptGenerationException If an error occurs during the request or the response indicates a failure.
+	 * @throws DeadlineExceededException  If the template's timeout (or the client's default timeout) is exceeded.
+	 */
+	public ChatGPTResponse sendRequestToTextEndPoint(String apiKey, PromptTemplate template, String... values) {
+		HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.ofByteArray(template.render(values));
+		TextRequest prompt = template.getRequest();
+		try (RequestContext context = new RequestContext(timeoutOf(prompt))) {
+			UsageTracker tracker = admit(prompt.getModelType(), prompt.getTag(), context);
+			long startNanos = System.nanoTime();
+			ChatGPTResponse res = route(prompt, context, () -> true, endpoint -> receive(endpoint.authorize(HttpRequest.newBuilder(), apiKey)
+					.uri(endpoint.getChatCompletionsUri(prompt.getModelType()))
+					.header("Content-Type", "application/json")
+					.POST(body), context));
+			recordPrediction(prompt, res, startNanos);
+			if (tracker != null) tracker.record(prompt.getModelType(), apiKey, prompt.getTag(), res);
+			RESPONSE_HISTORY.push(res);
+			return res;
+		}
+	}
+
+	/**
+	 * Sends a request rendered from a precompiled {@link PromptTemplate} using the stored API key.
+	 *
+	 * @see #sendRequestToTextEndPoint(String, PromptTemplate, String...)
+	 */
+	public ChatGPTResponse sendRequestToTextEndPoint(PromptTemplate template, String... values) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestToTextEndPoint(apiKey, template, values);
+	}
+
+	/**
+	 * Sends a request to the ChatGPT API asynchronously using the provided API key and prompt.
+	 * <p>
+	 *     Cancelling the returned future (e.g. because the user abandoned the request) cancels the in-flight HTTP exchange
+	 *     and resets its stream, so the generation stops consuming tokens. If the timeout is exceeded, the future completes
+	 *     exceptionally with {@link DeadlineExceededException}.
+	 * </p>
+	 *
+	 * @param apiKey The API key for authentication.
+	 * @param prompt The {@link TextRequest} containing the prompt to be sent.
+	 * @return A future of the {@link ChatGPTResponse} received from the API.
+	 */
+	public CompletableFuture<ChatGPTResponse> sendRequestToTextEndPointAsync(String apiKey, TextRequest prompt) {
+		return runAsync(timeoutOf(prompt), context -> complete(apiKey, prompt, context));
+	}
+
+	/**
+	 * Sends a request to the ChatGPT API asynchronously using the stored API key and the provided prompt.
+	 *
+	 * @param prompt The {@link TextRequest} containing the prompt to be sent.
+	 * @return A future of the {@link ChatGPTResponse} received from the API.
+	 * @throws ChatGptGenerationException If the API key is not set.
+	 * @see #sendRequestToTextEndPointAsync(String, TextRequest)
+	 */
+	public CompletableFuture<ChatGPTResponse> sendRequestToTextEndPointAsync(TextRequest prompt) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestToTextEndPointAsync(apiKey, prompt);
+	}
+
+	/**
+	 * Runs a call on the async executor. Cancelling the returned future cancels the call's in-flight exchanges.
+	 */
+	private <T> CompletableFuture<T> runAsync(Duration timeout, Function<RequestContext, T> call) {
+		RequestContext context = new RequestContext(timeout);
+		CompletableFuture<T> result = new CompletableFuture<>();
+		result.whenComplete((res, e) -> {
+			if (result.isCancelled()) context.cancel();
+			context.close();
+		});
+		ASYNC_EXECUTOR.execute(() -> {
+			try {
+				result.complete(call.apply(context));
+			} catch (Throwable e) {
+				result.completeExceptionally(e);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Runs a streamed chat completion call.
+	 */
+	private ChatGPTResponse stream(String apiKey, TextRequest prompt, Consumer<String> onContent, RequestContext context) {
+		UsageTracker tracker = admit(prompt.getModelType(), prompt.getTag(), context);
+		long startNanos = System.nanoTime();
+		AtomicBoolean delivered = new AtomicBoolean();
+		Consumer<String> tracking = text -> {
+			delivered.set(true);
+			onContent.accept(text);
+		};
+		JsonObject completion = route(prompt, context, () -> !delivered.get(), endpoint -> {
+			HttpRequest.Builder request = endpoint.authorize(HttpRequest.newBuilder(), apiKey)
+					.uri(endpoint.getChatCompletionsUri(prompt.getModelType()))
+					.header("Content-Type", "application/json")
+					.header("Accept", "text/event-stream")
+					.POST(HttpRequest.BodyPublishers.ofString(prompt.getStreamingJson(endpoint.getModelName(prompt.getModelType()))));
+			return await(start(request, body -> CompletionStreamReader.read(body, tracking), context), context);
+		});
+		ChatGPTResponse res = new ChatGPTResponse(completion);
+		recordPrediction(prompt, res, startNanos);
+		if (tracker != null) tracker.record(prompt.getModelType(), apiKey, prompt.getTag(), res);
+		ResponseJournal journal = responseJournal;
+		if (journal != null) journal.append(res);
+		RESPONSE_HISTORY.push(res);
+		return res;
+	}
+
+	/**
+	 * Sends a request to the ChatGPT API with a streamed response, using the provided API key and prompt.
+	 * <p>
+	 *     Content deltas of the first choice are handed to {@code onContent} as soon as they arrive, e.g. to an
+	 *     {@link IncrementalJsonParser} for structured outputs. The semantic cache is not consulted for streamed requests.
+	 * </p>
+	 *
+	 * @param apiKey    The API key for authentication.
+	 * @param prompt    The {@link TextRequest} containing the prompt to be sent.
+	 * @param onContent Receives content deltas on the calling thread.
+	 * @return The {@link ChatGPTResponse} assembled from the streamed chunks, including usage.
+	 * @throws ChatGptGenerationException If an error occurs during the request or the response indicates a failure.
+	 * @throws DeadlineExceededException If the request's timeout (or the client's default timeout) is exceeded.
+	 */
+	public ChatGPTResponse streamRequestToTextEndPoint(String apiKey, TextRequest prompt, Consumer<String> onContent) {
+		try (RequestContext context = new RequestContext(timeoutOf(prompt))) {
+			return stream(apiKey, prompt, onContent, context);
+		}
+	}
+
+	/**
+	 * Sends a request to the ChatGPT API with a streamed response, asynchronously.
+	 * <p>
+	 *     {@code onContent} is called on a client thread. Cancelling the returned future closes the stream,
+	 *     so the generation stops consuming tokens.
+	 * </p>
+	 *
+	 * @param apiKey    The API key for authentication.
+	 * @param prompt    The {@link TextRequest} containing the prompt to be sent.
+	 * @param onContent Receives content deltas.
+	 * @return A future of the {@link ChatGPTResponse} assembled from the streamed chunks.
+	 * @see #streamRequestToTextEndPoint(String, TextRequest, Consumer)
+	 */
+	public CompletableFuture<ChatGPTResponse> streamRequestToTextEndPointAsync(String apiKey, TextRequest prompt, Consumer<String> onContent) {
+		return runAsync(timeoutOf(prompt), context -> stream(apiKey, prompt, onContent, context));
+	}
+
+	/**
+	 * Sends the batches of an embedding request concurrently and merges the results in input order.
+	 */
+	private EmbeddingResponse embed(String apiKey, EmbeddingRequest embeddingRequest, RequestContext context) {
+		UsageTracker tracker = admit(embeddingRequest.getModelType(), null, context);
+		List<CompletableFuture<HttpResponse<Supplier<EmbeddingResponse>>>> calls = new ArrayList<>();
+		try {
+			for (EmbeddingRequest batch : embeddingRequest.getBatches()) {
+				HttpRequest.Builder request = HttpRequest.newBuilder()
+						.uri(EMBEDDING_ENDPOINT_URI)
+						.header("Authorization", "Bearer " + apiKey)
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString(batch.getJson()));
+				int size = batch.getInputs().size();
+				calls.add(start(request, stream -> EmbeddingResponse.read(
+						stream, size, batch.getEncodingFormat(), batch.isDirectBuffers()), context));
+			}
+			List<EmbeddingResponse> batches = new ArrayList<>(calls.size());
+			for (CompletableFuture<HttpResponse<Supplier<EmbeddingResponse>>> call : calls) {
+				batches.add(await(call, context));
+			}
+			EmbeddingResponse res = EmbeddingResponse.merge(batches);
+			if (tracker != null) tracker.record(embeddingRequest.getModelType(), apiKey, null, res.getPromptTokens(), 0, 0, 0);
+			return res;
+		} catch (RuntimeException e) {
+			calls.forEach(call -> call.cancel(true));
+			throw e;
+		}
+	}
+
+	/**
+	 * Sends a request to the ChatGPT embeddings endpoint using the provided API key.
+	 * <p>
+	 *     Requests with more inputs than fit in one call are split into batches (see {@link EmbeddingRequest#getBatches()}),
+	 *     which are sent concurrently. The returned vectors keep the original input order.
+	 * </p>
+	 *
+	 * @param apiKey The API key for authentication.
+	 * @param embeddingRequest The {@link EmbeddingRequest} containing the inputs to embed.
+	 * @return The {@link EmbeddingResponse} with one vector per input.
+	 * @throws ChatGptGenerationException If an error occurs during the request or a response indicates a failure.
+	 * @throws DeadlineExceededException If the client's default timeout is exceeded.
+	 */
+	public EmbeddingResponse sendRequestToEmbeddingEndPoint(String apiKey, EmbeddingRequest embeddingRequest) {
+		try (RequestContext context = new RequestContext(defaultTimeout)) {
+			return embed(apiKey, embeddingRequest, context);
+		}
+	}
+
+	/**
+	 * Sends a request to the ChatGPT embeddings endpoint using the stored API key.
+	 *
+	 * @param embeddingRequest The {@link EmbeddingRequest} containing the inputs to embed.
+	 * @return The {@link EmbeddingResponse} with one vector per input.
+	 * @throws ChatGptGenerationException If the API key is not set or an error occurs during the request.
+	 */
+	public EmbeddingResponse sendRequestToEmbeddingEndPoint(EmbeddingRequest embeddingRequest) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestToEmbeddingEndPoint(apiKey, embeddingRequest);
+	}
+
+	/**
+	 * Sends a request to the ChatGPT image generation endpoint using the provided API key.
+	 * <p>
+	 *     {@code b64_json} images are decoded while the response is read and written to the channels of {@code sink},
+	 *     on the calling thread, without holding whole images in memory.
+	 * </p>
+	 *
+	 * @param apiKey       The API key for authentication.
+	 * @param imageRequest The {@link ImageRequest} describing the images.
+	 * @param sink         The destination of the images, may be {@code null} if URLs are requested.
+	 * @return The {@link ImageResponse} with the metadata of each image.
+	 * @throws RequestException If {@code b64_json} images are requested without a sink, before anything is sent.
+	 * @throws ChatGptGenerationException If an error occurs during the request, the response indicates a failure or an image cannot be written.
+	 * @throws DeadlineExceededException If the client's default timeout is exceeded.
+	 * @throws BudgetExceededException If a budget of the usage tracker is exhausted.
+	 */
+	public ImageResponse sendRequestToImageEndPoint(String apiKey, ImageRequest imageRequest, ImageSink sink) {
+		if (imageRequest.getResponseFormat() == ImageResponseFormat.B64_JSON && sink == null)
+			throw new RequestException("Invalid request: b64_json images require a sink. Provide an ImageSink or request URLs");
+		HttpRequest.Builder request = HttpRequest.newBuilder()
+				.uri(IMAGE_ENDPOINT_URI)
+				.header("Authorization", "Bearer " + apiKey)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(imageRequest.getJson()));
+		try (RequestContext context = new RequestContext(defaultTimeout)) {
+			UsageTracker tracker = admit(imageRequest.getModelType(), null, context);
+			ImageResponse res = await(start(request, stream -> ImageResponse.read(stream, sink), context), context);
+			if (tracker != null)
+				tracker.recordImages(imageRequest.getModelType(), apiKey, null, imageRequest.getSize(), imageRequest.getQuality(), res.size());
+			return res;
+		}
+	}
+
+	/**
+	 * Sends a request to the ChatGPT image generation endpoint using the stored API key.
+	 *
+	 * @param imageRequest The {@link ImageRequest} describing the images.
+	 * @param sink         The destination of the images, may be {@code null} if URLs are requested.
+	 * @return The {@link ImageResponse} with the metadata of each image.
+	 * @throws ChatGptGenerationException If the API key is not set or an error occurs during the request.
+	 * @see #sendRequestToImageEndPoint(String, ImageRequest, ImageSink)
+	 */
+	public ImageResponse sendRequestToImageEndPoint(ImageRequest imageRequest, ImageSink sink) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestToImageEndPoint(apiKey, imageRequest, sink);
+	}
+
+	/**
+	 * Creates an HTTP request uploading the audio file of a transcription request as a streamed multipart body.
+	 */
+	private HttpRequest.Builder createRequestToTranscriptionEndPoint(String apiKey, TranscriptionRequest transcriptionRequest) {
+		MultipartBodyPublisher.Builder body = new MultipartBodyPublisher.Builder()
+				.addField("model", transcriptionRequest.getModelType().getModel())
+				.addField("temperature", String.valueOf(transcriptionRequest.getTemperature()))
+				.addField("response_format", transcriptionRequest.getResponseFormat().getFormat());
+		if (transcriptionRequest.getLanguage() != null) body.addField("language", transcriptionRequest.getLanguage());
+		if (transcriptionRequest.getPrompt() != null) body.addField("prompt", transcriptionRequest.getPrompt());
+		try {
+			body.addFile("file", transcriptionRequest.getFile(), "application/octet-stream");
+		} catch (IOException e) {
+			throw new ChatGptGenerationException("Request error", e);
+		}
+		MultipartBodyPublisher publisher = body.build();
+		return HttpRequest.newBuilder()
+				.uri(TRANSCRIPTION_ENDPOINT_URI)
+				.header("Authorization", "Bearer " + apiKey)
+				.header("Content-Type", publisher.getContentType())
+				.POST(publisher);
+	}
+
+	/**
+	 * Sends a request to the ChatGPT audio transcription endpoint using the provided API key.
+	 * <p>The audio file is streamed from disk in chunks while it is uploaded.</p>
+	 *
+	 * @param apiKey               The API key for authentication.
+	 * @param transcriptionRequest The {@link TranscriptionRequest} with the audio file.
+	 * @return The {@link TranscriptionResponse} with the transcript.
+	 * @throws ChatGptGenerationException If an error occurs during the request or the response indicates a failure.
+	 * @throws DeadlineExceededException If the request's timeout (or the client's default timeout) is exceeded.
+	 * @throws BudgetExceededException If a budget of the usage tracker is exhausted.
+	 */
+	public TranscriptionResponse sendRequestToTranscriptionEndPoint(String apiKey, TranscriptionRequest transcriptionRequest) {
+		return sendRequestsToTranscriptionEndPoint(apiKey, List.of(transcriptionRequest), 1).get(0);
+	}
+
+	/**
+	 * Sends a request to the ChatGPT audio transcription endpoint using the stored API key.
+	 *
+	 * @param transcriptionRequest The {@link TranscriptionRequest} with the audio file.
+	 * @return The {@link TranscriptionResponse} with the transcript.
+	 * @throws ChatGptGenerationException If the API key is not set or an error occurs during the request.
+	 * @see #sendRequestToTranscriptionEndPoint(String, TranscriptionRequest)
+	 */
+	public TranscriptionResponse sendRequestToTranscriptionEndPoint(TranscriptionRequest transcriptionRequest) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestToTranscriptionEndPoint(apiKey, transcriptionRequest);
+	}
+
+	/**
+	 * Transcribes several audio files in parallel, with at most {@code maxConcurrency} uploads in flight.
+	 * <p>
+	 *     A new upload starts as soon as a previous one has been answered. The limit bounds uploads only: a permit is
+	 *     returned when the response headers arrive, the transcripts themselves are read afterwards, in request order.
+	 *     Each request's timeout starts when its upload starts.
+	 * </p>
+	 * <p>
+	 *     The first failure (an error status, a connection error or an exhausted budget) stops the batch: no further
+	 *     upload is started and uploads still waiting for their response are cancelled. Requests that were answered
+	 *     before are still read and recorded, then the failure is thrown.
+	 * </p>
+	 * <p>
+	 *     Each request is checked against the usage budgets before its upload and recorded per minute of audio once
+	 *     answered. The duration comes from {@code verbose_json} transcripts; for other formats it is estimated from
+	 *     the file size.
+	 * </p>
+	 *
+	 * @param apiKey         The API key for authentication.
+	 * @param requests       The requests, one per audio file.
+	 * @param maxConcurrency The maximum number of concurrent uploads.
+	 * @return The responses, in the order of the requests.
+	 * @throws IllegalArgumentException   If {@code maxConcurrency} is less than 1.
+	 * @throws ChatGptGenerationException If an error occurs during a request or a response indicates a failure.
+	 * @throws DeadlineExceededException If a request's timeout (or the client's default timeout) is exceeded.
+	 * @throws BudgetExceededException If a budget of the usage tracker is exhausted.
+	 */
+	public List<TranscriptionResponse> sendRequestsToTranscriptionEndPoint(String apiKey, List<TranscriptionRequest> requests, int maxConcurrency) {
+		if (maxConcurrency < 1) throw new IllegalArgumentException("maxConcurrency must be at least 1");
+		Semaphore uploads = new Semaphore(maxConcurrency);
+		AtomicBoolean failed = new AtomicBoolean();
+		UsageTracker tracker = usageTracker;
+		List<RequestContext> contexts = new ArrayList<>(requests.size());
+		List<CompletableFuture<HttpResponse<Supplier<TranscriptionResponse>>>> calls = new ArrayList<>(requests.size());
+		RuntimeException failure = null;
+		try {
+			for (TranscriptionRequest transcriptionRequest : requests) {
+				if (failed.get()) break;
+				uploads.acquire();
+				if (failed.get()) {
+					uploads.release();
+					break;
+				}
+				RequestContext context = new RequestContext(transcriptionRequest.getTimeout() != null ? transcriptionRequest.getTimeout() : defaultTimeout);
+				contexts.add(context);
+				TranscriptionFormat format = transcriptionRequest.getResponseFormat();
+				CompletableFuture<HttpResponse<Supplier<TranscriptionResponse>>> call;
+				try {
+					admit(transcriptionRequest.getModelType(), null, context);
+					call = start(createRequestToTranscriptionEndPoint(apiKey, transcriptionRequest), stream -> TranscriptionResponse.read(stream, format), context);
+				} catch (RuntimeException e) {
+					uploads.release();
+					failure = e;
+					break;
+				}
+				call.whenComplete((response, e) -> {
+					if (e != null || response.statusCode() != 200) failed.set(true);
+					uploads.release();
+				});
+				calls.add(call);
+			}
+			if (failure != null) cancelPending(calls, contexts);
+			List<TranscriptionResponse> responses = new ArrayList<>(calls.size());
+			for (int i = 0; i < calls.size(); i++) {
+				try {
+					TranscriptionResponse response = await(calls.get(i), contexts.get(i));
+					if (tracker != null) tracker.recordAudio(requests.get(i).getModelType(), apiKey, null, audioSeconds(requests.get(i), response));
+					responses.add(response);
+				} catch (RuntimeException e) {
+					if (failure == null) {
+						failure = e;
+						cancelPending(calls, contexts);
+					}
+				}
+			}
+			if (failure != null) throw failure;
+			return responses;
+		} catch (InterruptedException e) {
+			contexts.forEach(RequestContext::cancel);
+			Thread.currentThread().interrupt();
+			throw new ChatGptGenerationException("Request error", e);
+		} catch (RuntimeException e) {
+			contexts.forEach(RequestContext::cancel);
+			throw e;
+		} finally {
+			contexts.forEach(RequestContext::close);
+		}
+	}
+
+	/**
+	 * Cancels the uploads of a batch that are still waiting for their response. Answered ones are left to be read.
+	 */
+	private static void cancelPending(List<? extends CompletableFuture<?>> calls, List<RequestContext> contexts) {
+		for (int i = 0; i < calls.size(); i++) {
+			if (!calls.get(i).isDone()) contexts.get(i).cancel();
+		}
+	}
+
+	/**
+	 * Returns the billed duration of a transcribed file: the duration reported with {@code verbose_json}, otherwise an
+	 * estimate from the file size at {@value #ESTIMATED_AUDIO_BYTES_PER_SECOND} bytes per second.
+	 */
+	private static double audioSeconds(TranscriptionRequest request, TranscriptionResponse response) {
+		double duration = response.getDuration();
+		return Double.isNaN(duration) ? (double) request.getFileSize() / ESTIMATED_AUDIO_BYTES_PER_SECOND : duration;
+	}
+
+	/**
+	 * Transcribes several audio files in parallel using the stored API key.
+	 *
+	 * @see #sendRequestsToTranscriptionEndPoint(String, List, int)
+	 */
+	public List<TranscriptionResponse> sendRequestsToTranscriptionEndPoint(List<TranscriptionRequest> requests, int maxConcurrency) {
+		if (apiKey == null)
+			throw new ChatGptGenerationException("API Key is not found: Please provide APIKey (use setApiKey() method)");
+		return sendRequestsToTranscriptionEndPoint(apiKey, requests, maxConcurrency);
+	}
+
+	/**
+	 * Returns the timeout of a request, or the client's default timeout if the request doesn't set one.
+	 */
+	private Duration timeoutOf(TextRequest prompt) {
+		return prompt.getTimeout() != null ? prompt.getTimeout() : defaultTimeout;
+	}
+
+	/**
+	 * Reads a response body into memory and closes the stream.
+	 */
+	private static byte[] readAllBytes(InputStream stream) {
+		try (stream) {
+			return stream.readAllBytes();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
 }
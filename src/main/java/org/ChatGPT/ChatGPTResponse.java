@@ -2,6 +2,7 @@ package org.ChatGPT;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import org.ChatGPT.exceptions.ResponseException;
 
@@ -28,6 +29,17 @@ public class ChatGPTResponse {
 		this.response = element.getAsJsonObject();
 	}
 
+	/**
+	 * Constructs a ChatGPTResponse object from an already parsed JSON body.
+	 * @param response the JSON body of the response.
+	 * @throws NullPointerException if the response is null.
+	 * @see org.ChatGPT.handlers.JsonBodyHandler
+	 */
+	public ChatGPTResponse(JsonObject response) {
+		if (response == null) throw new NullPointerException("JsonObject is null");
+		this.response = response;
+	}
+
 	/**
 	 * Returns the full JSON response as a string.
 	 * @return the full response JSON as a string.
@@ -46,6 +58,41 @@ public class ChatGPTResponse {
 		return content.toString();
 	}
 
+	/**
+	 * Extracts the content message from the response as plain text.
+	 * Unlike {@link #getContent()}, the text is not quoted or escaped.
+	 * @return the content message, or {@code null} if the message has no content (e.g. a refusal).
+	 */
+	public String getContentAsString() {
+		JsonObject choices = response.getAsJsonArray("choices").get(0).getAsJsonObject();
+		JsonElement content = choices.getAsJsonObject("message").get("content");
+		return content != null && content.isJsonPrimitive() ? content.getAsString() : null;
+	}
+
+	/**
+	 * Retrieves the reason the model stopped generating the first choice, e.g. {@code stop} or {@code length}.
+	 * @return the finish reason, or {@code null} if the response has none.
+	 */
+	public String getFinishReason() {
+		JsonElement reason = response.getAsJsonArray("choices").get(0).getAsJsonObject().get("finish_reason");
+		return reason != null && reason.isJsonPrimitive() ? reason.getAsString() : null;
+	}
+
+	/**
+	 * Parses the content message of the response as JSON, e.g. for structured outputs.
+	 * @return the content message parsed as a {@link JsonElement}.
+	 * @throws ResponseException if the content is not valid JSON.
+	 */
+	public JsonElement getParsedContent() {
+		JsonObject choices = response.getAsJsonArray("choices").get(0).getAsJsonObject();
+		JsonElement content = choices.getAsJsonObject("message").get("content");
+		try {
+			return JsonParser.parseString(content.getAsString());
+		} catch (JsonParseException | UnsupportedOperationException e) {
+			throw new ResponseException("Content is not valid JSON", e);
+		}
+	}
+
 	/**
 	 * Retrieves the choices array from the response.
 	 * @return the choices JSON array as a string.
@@ -92,6 +139,21 @@ public class ChatGPTResponse {
 		return tokens.toString();
 	}
 
+	/**
+	 * Retrieves a token count from the usage object of the response as a number.
+	 * <p>For example {@code getTokenCount("prompt_tokens")} or {@code getTokenCount("prompt_tokens_details", "cached_tokens")}.</p>
+	 * @param path the field names leading to the count, relative to {@code usage}.
+	 * @return the token count, or 0 if the response has no such count.
+	 */
+	public long getTokenCount(String... path) {
+		JsonElement element = response.get("usage");
+		for (String field : path) {
+			if (element == null || !element.isJsonObject()) return 0;
+			element = element.getAsJsonObject().get(field);
+		}
+		return element != null && element.isJsonPrimitive() ? element.getAsLong() : 0;
+	}
+
 	/**
 	 * Retrieves the number of audio tokens used in the response.
 	 * @return the number of audio tokens as a string.
@@ -147,6 +209,24 @@ public class ChatGPTResponse {
 		return tokens.toString();
 	}
 
+	/**
+	 * Retrieves the number of accepted prediction tokens as a number.
+	 * @return the number of prediction tokens that appeared in the completion, or 0 if the response reports none.
+	 * @see #getTokenCount(String...)
+	 */
+	public long getAcceptedPredictionTokenCount() {
+		return getTokenCount("completion_tokens_details", "accepted_prediction_tokens");
+	}
+
+	/**
+	 * Retrieves the number of rejected prediction tokens as a number.
+	 * @return the number of prediction tokens that didn't appear in the completion, or 0 if the response reports none.
+	 * @see #getTokenCount(String...)
+	 */
+	public long getRejectedPredictionTokenCount() {
+		return getTokenCount("completion_tokens_details", "rejected_prediction_tokens");
+	}
+
 	/**
 	 * Retrieves the system fingerprint associated with the response.
 	 * @return the system fingerprint as a string.
@@ -0,0 +1,253 @@
+package org.ChatGPT;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.ChatGPT.enums.EncodingFormat;
+import org.ChatGPT.exceptions.ResponseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Represents a response from the ChatGPT embeddings endpoint.
+ * <p>
+ *     The body is read with a streaming {@link JsonReader}: vectors are decoded straight into {@code float[]}
+ *     (or direct {@link FloatBuffer}s) without building a JSON tree or boxing values into {@code List<Double>}.
+ *     Base64-encoded vectors are decoded from their little-endian float32 bytes.
+ * </p>
+ * <p>
+ *     Vectors are ordered by input: {@code getEmbedding(i)} is the vector of the i-th input of the
+ *     {@link org.ChatGPT.requests.EmbeddingRequest}, even if the request was sent in several batches.
+ * </p>
+ */
+public class EmbeddingResponse {
+
+	/**
+	 * The vectors, indexed by input position. Heap buffers wrap a {@code float[]}.
+	 */
+	private final FloatBuffer[] embeddings;
+
+	private final String model;
+
+	private final long promptTokens;
+
+	private final long totalTokens;
+
+	private EmbeddingResponse(FloatBuffer[] embeddings, String model, long promptTokens, long totalTokens) {
+		this.embeddings = embeddings;
+		this.model = model;
+		this.promptTokens = promptTokens;
+		this.totalTokens = totalTokens;
+	}
+
+	/**
+	 * Reads the response of a single call from the body stream and closes it.
+	 *
+	 * @param stream         The body stream.
+	 * @param size           The number of inputs sent in the call.
+	 * @param encodingFormat The format in which vectors were requested.
+	 * @param directBuffers  Whether vectors are decoded into direct buffers.
+	 * @return The parsed response.
+	 * @throws ResponseException    If the body is malformed or does not contain a vector for every input.
+	 * @throws UncheckedIOException If the stream cannot be read.
+	 */
+	static EmbeddingResponse read(InputStream stream, int size, EncodingFormat encodingFormat, boolean directBuffers) {
+		FloatBuffer[] embeddings = new FloatBuffer[size];
+		String model = null;
+		long promptTokens = 0;
+		long totalTokens = 0;
+		try (JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			reader.beginObject();
+			while (reader.hasNext()) {
+				switch (reader.nextName()) {
+					case "data" -> {
+						reader.beginArray();
+						while (reader.hasNext()) readItem(reader, embeddings, encodingFormat, directBuffers);
+						reader.endArray();
+					}
+					case "model" -> model = reader.nextString();
+					case "usage" -> {
+						reader.beginObject();
+						while (reader.hasNext()) {
+							switch (reader.nextName()) {
+								case "prompt_tokens" -> promptTokens = reader.nextLong();
+								case "total_tokens" -> totalTokens = reader.nextLong();
+								default -> reader.skipValue();
+							}
+						}
+						reader.endObject();
+					}
+					default -> reader.skipValue();
+				}
+			}
+			reader.endObject();
+		} catch (IllegalStateException | NumberFormatException e) {
+			throw new ResponseException("Body of HttpResponse is not a valid embeddings response", e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (int i = 0; i < size; i++) {
+			if (embeddings[i] == null) throw new ResponseException("Embeddings response has no vector for input " + i);
+		}
+		return new EmbeddingResponse(embeddings, model, promptTokens, totalTokens);
+	}
+
+	/**
+	 * Concatenates the responses of consecutive batches, preserving input order.
+	 *
+	 * @param batches The responses, in the order of their batches.
+	 * @return A single response holding the vectors of all batches.
+	 */
+	static EmbeddingResponse merge(List<EmbeddingResponse> batches) {
+		if (batches.size() == 1) return batches.get(0);
+		int size = 0;
+		for (EmbeddingResponse batch : batches) size += batch.embeddings.length;
+		FloatBuffer[] embeddings = new FloatBuffer[size];
+		int offset = 0;
+		long promptTokens = 0;
+		long totalTokens = 0;
+		for (EmbeddingResponse batch : batches) {
+			System.arraycopy(batch.embeddings, 0, embeddings, offset, batch.embeddings.length);
+			offset += batch.embeddings.length;
+			promptTokens += batch.promptTokens;
+			totalTokens += batch.totalTokens;
+		}
+		return new EmbeddingResponse(embeddings, batches.get(0).model, promptTokens, totalTokens);
+	}
+
+	/**
+	 * Reads one element of the {@code data} array and stores its vector at its {@code index}.
+	 */
+	private static void readItem(JsonReader reader, FloatBuffer[] embeddings, EncodingFormat encodingFormat, boolean directBuffers) throws IOException {
+		int index = -1;
+		FloatBuffer embedding = null;
+		reader.beginObject();
+		while (reader.hasNext()) {
+			switch (reader.nextName()) {
+				case "index" -> index = reader.nextInt();
+				case "embedding" -> embedding = reader.peek() == JsonToken.STRING
+						? decodeBase64(reader.nextString(), directBuffers)
+						: decodeArray(reader, directBuffers, dimensionsHint(embeddings));
+				default -> reader.skipValue();
+			}
+		}
+		reader.endObject();
+		if (index < 0 || index >= embeddings.length || embedding == null) {
+			throw new ResponseException("Embeddings response contains an invalid item at index " + index + " (" + encodingFormat.getFormat() + ")");
+		}
+		embeddings[index] = embedding;
+	}
+
+	/**
+	 * Decodes a JSON array of numbers into floats.
+	 */
+	private static FloatBuffer decodeArray(JsonReader reader, boolean directBuffers, int capacity) throws IOException {
+		float[] values = new float[capacity];
+		int length = 0;
+		reader.beginArray();
+		while (reader.hasNext()) {
+			if (length == values.length) values = Arrays.copyOf(values, values.length * 2);
+			values[length++] = (float) reader.nextDouble();
+		}
+		reader.endArray();
+		if (directBuffers) return allocateDirect(length).put(values, 0, length).flip();
+		return FloatBuffer.wrap(length == values.length ? values : Arrays.copyOf(values, length));
+	}
+
+	/**
+	 * Decodes a base64 string of little-endian float32 values.
+	 */
+	private static FloatBuffer decodeBase64(String encoded, boolean directBuffers) {
+		FloatBuffer source = ByteBuffer.wrap(Base64.getDecoder().decode(encoded)).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+		if (directBuffers) return allocateDirect(source.remaining()).put(source).flip();
+		float[] values = new float[source.remaining()];
+		source.get(values);
+		return FloatBuffer.wrap(values);
+	}
+
+	private static FloatBuffer allocateDirect(int length) {
+		return ByteBuffer.allocateDirect(length * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+	}
+
+	/**
+	 * Uses the length of an already decoded vector as the initial capacity, all vectors of a response have the same size.
+	 */
+	private static int dimensionsHint(FloatBuffer[] embeddings) {
+		for (FloatBuffer embedding : embeddings) {
+			if (embedding != null) return Math.max(embedding.capacity(), 1);
+		}
+		return 256;
+	}
+
+	/**
+	 * Returns the number of vectors in the response.
+	 * @return the number of vectors, equal to the number of inputs.
+	 */
+	public int size() {
+		return embeddings.length;
+	}
+
+	/**
+	 * Returns the vector of the input at the given position.
+	 * <p>For heap vectors the backing array is returned without copying, for direct vectors a copy is made.</p>
+	 * @param index the position of the input in the request.
+	 * @return the vector as a {@code float[]}.
+	 */
+	public float[] getEmbedding(int index) {
+		FloatBuffer embedding = embeddings[index];
+		if (embedding.hasArray()) return embedding.array();
+		float[] values = new float[embedding.capacity()];
+		embedding.get(0, values);
+		return values;
+	}
+
+	/**
+	 * Returns a read-only view of the vector of the input at the given position.
+	 * @param index the position of the input in the request.
+	 * @return the vector as a {@link FloatBuffer}, direct if the request asked for direct buffers.
+	 */
+	public FloatBuffer getEmbeddingBuffer(int index) {
+		return embeddings[index].asReadOnlyBuffer();
+	}
+
+	/**
+	 * Retrieves the number of dimensions of the vectors.
+	 * @return the length of each vector.
+	 */
+	public int getDimensions() {
+		return embeddings[0].capacity();
+	}
+
+	/**
+	 * Retrieves the model used for generating the vectors.
+	 * @return the model name.
+	 */
+	public String getModel() {
+		return model;
+	}
+
+	/**
+	 * Retrieves the number of tokens in the inputs, summed over all batches.
+	 * @return the number of prompt tokens.
+	 */
+	public long getPromptTokens() {
+		return promptTokens;
+	}
+
+	/**
+	 * Retrieves the total number of tokens used, summed over all batches.
+	 * @return the total number of tokens.
+	 */
+	public long getTotalTokens() {
+		return totalTokens;
+	}
+}
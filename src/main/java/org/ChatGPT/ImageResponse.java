@@ -0,0 +1,253 @@
+package org.ChatGPT;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.ChatGPT.exceptions.ResponseException;
+import org.ChatGPT.handlers.JsonBodyHandler;
+import org.ChatGPT.interfaces.ImageSink;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Represents a response from the ChatGPT image generation endpoint.
+ * <p>
+ *     The body is scanned byte by byte in a single pass. The values of {@code b64_json} fields, several megabytes each,
+ *     are base64-decoded on the fly through a small buffer into the channels of an {@link ImageSink}, and are left out
+ *     of the JSON that is kept. The rest of the body (creation time, revised prompts, URLs) is parsed as usual, so memory
+ *     use does not depend on the size or number of images.
+ * </p>
+ */
+public class ImageResponse {
+
+	private static final byte[] B64_KEY = "b64_json".getBytes(StandardCharsets.US_ASCII);
+
+	private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+	private static final byte[] BASE64 = new byte[256];
+
+	static {
+		Arrays.fill(BASE64, (byte) -1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) BASE64[alphabet.charAt(i)] = (byte) i;
+	}
+
+	private enum State {OUTSIDE, STRING, STRING_ESCAPE, AFTER_B64_KEY, B64, B64_ESCAPE}
+
+	private final JsonObject response;
+
+	private final long[] bytesWritten;
+
+	private ImageResponse(JsonObject response, long[] bytesWritten) {
+		this.response = response;
+		this.bytesWritten = bytesWritten;
+	}
+
+	/**
+	 * Reads the response from the body stream, writing {@code b64_json} images to the sink, and closes the stream.
+	 *
+	 * @param stream The body stream.
+	 * @param sink   The destination of the images, or {@code null} if URLs were requested.
+	 * @return The parsed response, without the {@code b64_json} values.
+	 * @throws ResponseException    If the body is malformed, or contains images but no sink was given.
+	 * @throws UncheckedIOException If the stream cannot be read or an image cannot be written.
+	 */
+	static ImageResponse read(InputStream stream, ImageSink sink) {
+		ByteArrayOutputStream skeleton = new ByteArrayOutputStream(1024);
+		long[] written = new long[0];
+		byte[] input = new byte[8192];
+		ByteBuffer output = null;
+		WritableByteChannel channel = null;
+		State state = State.OUTSIDE;
+		int keyLength = 0;
+		boolean keyMatches = false;
+		boolean afterKey = false;
+		int bits = 0;
+		int accumulator = 0;
+		try (stream) {
+			int read;
+			while ((read = stream.read(input)) != -1) {
+				int copyFrom = 0;
+				for (int i = 0; i < read; i++) {
+					byte b = input[i];
+					switch (state) {
+						case OUTSIDE -> {
+							if (b == '"') {
+								state = State.STRING;
+								keyLength = 0;
+								keyMatches = true;
+								afterKey = false;
+							} else if (afterKey && b == ':') {
+								state = State.AFTER_B64_KEY;
+							} else if (!isWhitespace(b)) {
+								afterKey = false;
+							}
+						}
+						case STRING -> {
+							if (b == '"') {
+								state = State.OUTSIDE;
+								afterKey = keyMatches && keyLength == B64_KEY.length;
+							} else {
+								if (b == '\\') state = State.STRING_ESCAPE;
+								keyMatches = keyMatches && keyLength < B64_KEY.length && b == B64_KEY[keyLength];
+								keyLength++;
+							}
+						}
+						case STRING_ESCAPE -> {
+							state = State.STRING;
+							keyMatches = false;
+						}
+						case AFTER_B64_KEY -> {
+							if (b == '"') {
+								if (sink == null) throw new ResponseException("Response contains b64_json images, but no ImageSink was given");
+								skeleton.write(input, copyFrom, i + 1 - copyFrom);
+								copyFrom = i + 1;
+								if (output == null) output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+								channel = sink.open(written.length);
+								written = Arrays.copyOf(written, written.length + 1);
+								bits = 0;
+								state = State.B64;
+							} else if (!isWhitespace(b)) {
+								state = State.OUTSIDE;
+								afterKey = false;
+							}
+						}
+						case B64 -> {
+							if (b == '"') {
+								drain(output, channel);
+								channel.close();
+								channel = null;
+								copyFrom = i;
+								state = State.OUTSIDE;
+								afterKey = false;
+							} else if (b == '\\') {
+								state = State.B64_ESCAPE;
+							} else if (b != '=') {
+								int value = BASE64[b & 0xFF];
+								if (value < 0) throw new ResponseException("Body of HttpResponse contains invalid base64 image data");
+								accumulator = accumulator << 6 | value;
+								bits += 6;
+								if (bits >= 8) {
+									bits -= 8;
+									output.put((byte) (accumulator >> bits));
+									written[written.length - 1]++;
+									if (!output.hasRemaining()) drain(output, channel);
+								}
+							}
+						}
+						case B64_ESCAPE -> {
+							// Only an escaped '/' is part of the data, other escapes are line breaks.
+							if (b == '/') {
+								accumulator = accumulator << 6 | BASE64['/'];
+								bits += 6;
+								if (bits >= 8) {
+									bits -= 8;
+									output.put((byte) (accumulator >> bits));
+									written[written.length - 1]++;
+									if (!output.hasRemaining()) drain(output, channel);
+								}
+							}
+							state = State.B64;
+						}
+					}
+				}
+				if (state != State.B64 && state != State.B64_ESCAPE) skeleton.write(input, copyFrom, read - copyFrom);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (channel != null) {
+				try {
+					channel.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+		if (state != State.OUTSIDE) throw new ResponseException("Body of HttpResponse is not valid JSON");
+		return new ImageResponse(JsonBodyHandler.parse(new ByteArrayInputStream(skeleton.toByteArray())), written);
+	}
+
+	private static boolean isWhitespace(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+	}
+
+	private static void drain(ByteBuffer output, WritableByteChannel channel) throws IOException {
+		output.flip();
+		while (output.hasRemaining()) channel.write(output);
+		output.clear();
+	}
+
+	/**
+	 * Returns the number of generated images.
+	 *
+	 * @return The number of images.
+	 */
+	public int size() {
+		return data().size();
+	}
+
+	/**
+	 * Returns the URL of an image, if URLs were requested. URLs are valid for an hour.
+	 *
+	 * @param index The position of the image.
+	 * @return The URL, or {@code null} if the image was returned as {@code b64_json}.
+	 */
+	public String getUrl(int index) {
+		return field(index, "url");
+	}
+
+	/**
+	 * Returns the prompt dall-e-3 actually used for an image.
+	 *
+	 * @param index The position of the image.
+	 * @return The revised prompt, or {@code null} if the model did not revise it.
+	 */
+	public String getRevisedPrompt(int index) {
+		return field(index, "revised_prompt");
+	}
+
+	/**
+	 * Returns the number of decoded bytes written to the sink for an image.
+	 *
+	 * @param index The position of the image.
+	 * @return The size of the image in bytes, or 0 if it was returned as a URL.
+	 */
+	public long getBytesWritten(int index) {
+		return index < bytesWritten.length ? bytesWritten[index] : 0;
+	}
+
+	/**
+	 * Retrieves the timestamp of when the response was created.
+	 *
+	 * @return the creation timestamp in seconds.
+	 */
+	public long getCreated() {
+		return response.get("created").getAsLong();
+	}
+
+	/**
+	 * Returns the JSON response as a string, with {@code b64_json} values left empty.
+	 *
+	 * @return the response JSON as a string.
+	 */
+	public String getFullResponse() {
+		return response.toString();
+	}
+
+	private JsonArray data() {
+		return response.getAsJsonArray("data");
+	}
+
+	private String field(int index, String name) {
+		JsonElement value = data().get(index).getAsJsonObject().get(name);
+		return value == null || value.isJsonNull() ? null : value.getAsString();
+	}
+}
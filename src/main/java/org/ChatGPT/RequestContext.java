@@ -0,0 +1,224 @@
+package org.ChatGPT;
+
+import org.ChatGPT.exceptions.ChatGptGenerationException;
+import org.ChatGPT.exceptions.DeadlineExceededException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Deadline and cancellation state of a single client call.
+ * <p>
+ *     One context is shared by every HTTP exchange made on behalf of a call (e.g. the embedding lookup of the semantic
+ *     cache and the completion itself), so they all draw from the same time budget. The context tracks in-flight
+ *     exchange futures and body streams: when the deadline passes or the call is cancelled, the futures are cancelled
+ *     and the streams are closed, which resets the underlying HTTP/2 stream instead of letting the generation run on.
+ * </p>
+ */
+class RequestContext implements AutoCloseable {
+
+	/**
+	 * Fires deadlines of all contexts.
+	 */
+	private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "chatgpt-client-deadlines");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * The deadline in {@link System#nanoTime()} units, meaningful only if {@code bounded}.
+	 */
+	private final long deadline;
+
+	private final boolean bounded;
+
+	/**
+	 * In-flight exchange futures and body streams.
+	 */
+	private final Set<Object> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final ScheduledFuture<?> timer;
+
+	private volatile boolean cancelled;
+
+	private volatile boolean expired;
+
+	/**
+	 * The thread waiting in {@link #pause(long)}, if any.
+	 */
+	private volatile Thread pausing;
+
+	/**
+	 * Creates a context for a call.
+	 *
+	 * @param timeout The time budget of the call, or {@code null} for no deadline.
+	 */
+	RequestContext(Duration timeout) {
+		this.bounded = timeout != null;
+		this.deadline = bounded ? System.nanoTime() + timeout.toNanos() : 0;
+		this.timer = bounded ? TIMER.schedule(this::expire, timeout.toNanos(), TimeUnit.NANOSECONDS) : null;
+	}
+
+	/**
+	 * Returns the time left until the deadline.
+	 *
+	 * @return The remaining time (at least one millisecond), or {@code null} if the call has no deadline.
+	 */
+	Duration remaining() {
+		if (!bounded) return null;
+		return Duration.ofNanos(Math.max(deadline - System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(1)));
+	}
+
+	/**
+	 * Returns whether the deadline has passed.
+	 *
+	 * @return {@code true} if the call has a deadline and it has passed.
+	 */
+	boolean isExpired() {
+		return expired || (bounded && System.nanoTime() - deadline >= 0);
+	}
+
+	/**
+	 * Fails fast before starting more work for an expired or cancelled call.
+	 *
+	 * @throws DeadlineExceededException If the deadline has passed.
+	 * @throws CancellationException     If the call was cancelled.
+	 */
+	void check() {
+		if (isExpired()) throw new DeadlineExceededException("Deadline exceeded before the request was sent");
+		if (cancelled) throw new CancellationException("Request cancelled");
+	}
+
+	/**
+	 * Waits before sending, e.g. when a usage budget throttles the call. The wait ends early if the call is cancelled.
+	 *
+	 * @param nanos The delay in nanoseconds.
+	 * @throws DeadlineExceededException  If the delay would outlast the deadline.
+	 * @throws CancellationException      If the call is cancelled.
+	 * @throws ChatGptGenerationException If the thread is interrupted.
+	 */
+	void pause(long nanos) {
+		if (bounded && deadline - System.nanoTime() <= nanos) throw new DeadlineExceededException("Throttling delay exceeds the deadline");
+		long end = System.nanoTime() + nanos;
+		pausing = Thread.currentThread();
+		try {
+			for (long left = nanos; left > 0 && !cancelled; left = end - System.nanoTime()) {
+				LockSupport.parkNanos(this, left);
+				if (Thread.currentThread().isInterrupted()) {
+					cancel();
+					throw new ChatGptGenerationException("Request error", new InterruptedException());
+				}
+			}
+		} finally {
+			pausing = null;
+		}
+		check();
+	}
+
+	/**
+	 * Registers an in-flight exchange future or body stream, aborting it right away if the call is already over.
+	 *
+	 * @param exchange A {@link Future} or an {@link InputStream}.
+	 */
+	void track(Object exchange) {
+		inFlight.add(exchange);
+		if (cancelled || expired) abort(exchange);
+	}
+
+	/**
+	 * Unregisters a finished exchange.
+	 *
+	 * @param exchange The future or stream passed to {@link #track(Object)}.
+	 */
+	void untrack(Object exchange) {
+		inFlight.remove(exchange);
+	}
+
+	/**
+	 * Wraps a body reader so that the body stream is tracked (and closed on cancellation) while it is read.
+	 *
+	 * @param reader The body reader.
+	 * @param <T>    The type produced by the reader.
+	 * @return The tracking reader.
+	 */
+	<T> Function<InputStream, T> tracking(Function<InputStream, T> reader) {
+		return stream -> {
+			track(stream);
+			try {
+				return reader.apply(stream);
+			} finally {
+				untrack(stream);
+			}
+		};
+	}
+
+	/**
+	 * Cancels the call, aborting all in-flight exchanges.
+	 */
+	void cancel() {
+		cancelled = true;
+		inFlight.forEach(RequestContext::abort);
+		Thread paused = pausing;
+		if (paused != null) LockSupport.unpark(paused);
+	}
+
+	/**
+	 * Translates the failure of an exchange into the exception reported to the caller.
+	 *
+	 * @param cause The failure.
+	 * @return {@link DeadlineExceededException} if the deadline has passed, {@link CancellationException} if the call
+	 * was cancelled, otherwise a {@link ChatGptGenerationException}.
+	 */
+	RuntimeException failure(Throwable cause) {
+		if (isExpired() || cause instanceof HttpTimeoutException) {
+			return new DeadlineExceededException("Deadline exceeded while waiting for the response", cause);
+		}
+		if (cancelled) {
+			CancellationException cancellation = new CancellationException("Request cancelled");
+			cancellation.initCause(cause);
+			return cancellation;
+		}
+		if (cause instanceof ChatGptGenerationException) return (ChatGptGenerationException) cause;
+		if (cause instanceof UncheckedIOException) return new ChatGptGenerationException("Request error", cause.getCause());
+		return new ChatGptGenerationException("Request error", cause);
+	}
+
+	/**
+	 * Stops the deadline timer once the call is complete.
+	 */
+	@Override
+	public void close() {
+		if (timer != null) timer.cancel(false);
+	}
+
+	private void expire() {
+		expired = true;
+		inFlight.forEach(RequestContext::abort);
+	}
+
+	private static void abort(Object exchange) {
+		if (exchange instanceof Future) {
+			((Future<?>) exchange).cancel(true);
+		} else if (exchange instanceof InputStream) {
+			try {
+				((InputStream) exchange).close();
+			} catch (IOException ignored) {
+				// the stream is abandoned anyway
+			}
+		}
+	}
+}
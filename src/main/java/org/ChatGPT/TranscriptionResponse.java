@@ -0,0 +1,134 @@
+package org.ChatGPT;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.ChatGPT.enums.TranscriptionFormat;
+import org.ChatGPT.exceptions.ResponseException;
+import org.ChatGPT.handlers.JsonBodyHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a response from the ChatGPT audio transcription endpoint.
+ * <p>
+ *     {@code json} and {@code verbose_json} transcripts are parsed, the language, duration and segments are only
+ *     available with {@code verbose_json}. {@code text}, {@code srt} and {@code vtt} transcripts are kept as returned.
+ * </p>
+ */
+public class TranscriptionResponse {
+
+	/**
+	 * A timed segment of a {@code verbose_json} transcript.
+	 *
+	 * @param start The start of the segment in seconds.
+	 * @param end   The end of the segment in seconds.
+	 * @param text  The text of the segment.
+	 */
+	public record Segment(double start, double end, String text) {
+	}
+
+	private final TranscriptionFormat format;
+
+	private final String text;
+
+	/**
+	 * The parsed body, {@code null} for non-JSON formats.
+	 */
+	private final JsonObject response;
+
+	private TranscriptionResponse(TranscriptionFormat format, String text, JsonObject response) {
+		this.format = format;
+		this.text = text;
+		this.response = response;
+	}
+
+	/**
+	 * Reads the response from the body stream and closes it.
+	 *
+	 * @param stream The body stream.
+	 * @param format The format the transcript was requested in.
+	 * @return The parsed response.
+	 * @throws ResponseException    If a JSON body is malformed.
+	 * @throws UncheckedIOException If the stream cannot be read.
+	 */
+	static TranscriptionResponse read(InputStream stream, TranscriptionFormat format) {
+		if (format.isJson()) {
+			JsonObject response = JsonBodyHandler.parse(stream);
+			JsonElement text = response.get("text");
+			if (text == null || !text.isJsonPrimitive()) throw new ResponseException("Body of HttpResponse has no transcript text");
+			return new TranscriptionResponse(format, text.getAsString(), response);
+		}
+		try (stream) {
+			return new TranscriptionResponse(format, new String(stream.readAllBytes(), StandardCharsets.UTF_8), null);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the transcript.
+	 *
+	 * @return The text, or the subtitles for {@code srt} and {@code vtt}.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * Returns the format of the transcript.
+	 *
+	 * @return The format.
+	 */
+	public TranscriptionFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Returns the detected language of the audio. Only available with {@code verbose_json}.
+	 *
+	 * @return The language name, or {@code null}.
+	 */
+	public String getLanguage() {
+		JsonElement language = response != null ? response.get("language") : null;
+		return language != null && !language.isJsonNull() ? language.getAsString() : null;
+	}
+
+	/**
+	 * Returns the duration of the audio. Only available with {@code verbose_json}.
+	 *
+	 * @return The duration in seconds, or {@code NaN}.
+	 */
+	public double getDuration() {
+		JsonElement duration = response != null ? response.get("duration") : null;
+		return duration != null && !duration.isJsonNull() ? duration.getAsDouble() : Double.NaN;
+	}
+
+	/**
+	 * Returns the timed segments of the transcript. Only available with {@code verbose_json}.
+	 *
+	 * @return The segments, empty for other formats.
+	 */
+	public List<Segment> getSegments() {
+		List<Segment> segments = new ArrayList<>();
+		if (response == null || !response.has("segments")) return segments;
+		for (JsonElement element : response.getAsJsonArray("segments")) {
+			JsonObject segment = element.getAsJsonObject();
+			segments.add(new Segment(segment.get("start").getAsDouble(), segment.get("end").getAsDouble(), segment.get("text").getAsString()));
+		}
+		return segments;
+	}
+
+	/**
+	 * Returns the full response as returned by the endpoint.
+	 *
+	 * @return the response JSON, or the transcript for non-JSON formats.
+	 */
+	public String getFullResponse() {
+		return response != null ? response.toString() : text;
+	}
+}
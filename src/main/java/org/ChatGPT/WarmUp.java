@@ -0,0 +1,69 @@
+package org.ChatGPT;
+
+import org.ChatGPT.builders.EmbeddingRequestBuilder;
+import org.ChatGPT.builders.TextRequestBuilder;
+import org.ChatGPT.enums.EncodingFormat;
+import org.ChatGPT.handlers.JsonBodyHandler;
+import org.ChatGPT.requests.TextRequest;
+import org.ChatGPT.streaming.CompletionStreamReader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Runs the client's serialization and parse paths on canned data, so their classes are loaded and their hot methods
+ * are compiled by the JIT before the first real request.
+ *
+ * @see ChatGPTClient#warmUp(String, int)
+ */
+final class WarmUp {
+
+	/**
+	 * Number of iterations, enough for the JIT's first compilation tiers.
+	 */
+	static final int ITERATIONS = 2_000;
+
+	private static final byte[] COMPLETION = ("{\"id\":\"chatcmpl-warmup\",\"object\":\"chat.completion\",\"created\":1700000000,"
+			+ "\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"{\\\"ok\\\":true}\","
+			+ "\"refusal\":null},\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":5,\"total_tokens\":17,"
+			+ "\"prompt_tokens_details\":{\"cached_tokens\":0},\"completion_tokens_details\":{\"reasoning_tokens\":0}}}")
+			.getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] STREAM = ("data: {\"id\":\"chatcmpl-warmup\",\"created\":1700000000,\"model\":\"gpt-4o-mini\","
+			+ "\"choices\":[{\"index\":0,\"delta\":{\"role\":\"assistant\",\"content\":\"Hel\"}}]}\n\n"
+			+ "data: {\"id\":\"chatcmpl-warmup\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"lo\"},\"finish_reason\":\"stop\"}]}\n\n"
+			+ "data: {\"id\":\"chatcmpl-warmup\",\"choices\":[],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":2,\"total_tokens\":14}}\n\n"
+			+ "data: [DONE]\n\n").getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] EMBEDDING = ("{\"object\":\"list\",\"data\":[{\"object\":\"embedding\",\"index\":0,"
+			+ "\"embedding\":\"AACAPwAAAEAAAEBAAACAQA==\"}],\"model\":\"text-embedding-3-small\",\"usage\":{\"prompt_tokens\":1,\"total_tokens\":1}}")
+			.getBytes(StandardCharsets.UTF_8);
+
+	private WarmUp() {
+	}
+
+	/**
+	 * Serializes requests and parses responses {@code iterations} times.
+	 *
+	 * @param iterations The number of iterations.
+	 * @return A checksum of the results, returned so the work cannot be optimized away.
+	 */
+	static long exercise(int iterations) {
+		long sink = 0;
+		for (int i = 0; i < iterations; i++) {
+			TextRequest request = new TextRequestBuilder()
+					.setSystemContent("You are a warm-up.")
+					.setUserContent("Warm-up " + i)
+					.build();
+			sink += request.getJson().length() + request.getStreamingJson().length();
+			sink += new EmbeddingRequestBuilder().addInput("warm-up").build().getJson().length();
+
+			ChatGPTResponse response = new ChatGPTResponse(JsonBodyHandler.parse(new ByteArrayInputStream(COMPLETION)));
+			sink += response.getContent().length() + response.getParsedContent().hashCode() + response.getTokenCount("total_tokens");
+			sink += CompletionStreamReader.read(new ByteArrayInputStream(STREAM), text -> {
+			}).size();
+			sink += EmbeddingResponse.read(new ByteArrayInputStream(EMBEDDING), 1, EncodingFormat.BASE64, false).getDimensions();
+		}
+		return sink;
+	}
+}
@@ -0,0 +1,254 @@
+package org.ChatGPT.builders;
+
+
+import org.ChatGPT.enums.EncodingFormat;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.RequestBuildException;
+import org.ChatGPT.interfaces.Builder;
+import org.ChatGPT.requests.EmbeddingRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A builder class to facilitate the construction of {@link EmbeddingRequest} objects.
+ * <p>
+ * Class allows setting the inputs to embed, the embedding model, the number of dimensions, the encoding format
+ * of the returned vectors and the limits used to split the inputs into batches. It provides a fluent API for chaining
+ * method calls and validates the inputs before constructing the final {@link EmbeddingRequest} object.
+ * </p>
+ * <p>
+ * The builder ensures that the parameters are valid by throwing {@link RequestBuildException} for any invalid values.
+ * </p>
+ *
+ * @see org.ChatGPT.interfaces.Builder
+ * @see EmbeddingRequest
+ * @see RequestBuildException
+ * @see ModelType
+ */
+public class EmbeddingRequestBuilder implements Builder {
+
+	/**
+	 * The maximum number of inputs accepted by the embeddings endpoint in a single call.
+	 */
+	public static final int MAX_INPUTS_PER_CALL = 2048;
+
+	/**
+	 * The model type to use for embeddings. Optional, by default - {@code ModelType.TextEmbedding3Small}
+	 * @see ModelType
+	 */
+	private ModelType modelType;
+
+	/**
+	 * The texts to embed. necessary param.
+	 */
+	private final List<String> inputs = new ArrayList<>();
+
+	/**
+	 * The number of dimensions of the returned vectors. Optional, by default - the model's native size
+	 */
+	private Integer dimensions;
+
+	/**
+	 * The format in which vectors are transferred. Optional, by default - {@code EncodingFormat.BASE64}
+	 */
+	private EncodingFormat encodingFormat;
+
+	/**
+	 * The maximum number of inputs sent in a single call. Optional, by default - {@value #MAX_INPUTS_PER_CALL}
+	 */
+	private Integer maxInputsPerBatch;
+
+	/**
+	 * The maximum total length of the inputs sent in a single call. Optional, by default - 600 000 characters
+	 */
+	private Integer maxCharactersPerBatch;
+
+	/**
+	 * Whether vectors are decoded into direct {@link java.nio.FloatBuffer}s. Optional, by default - false
+	 */
+	private boolean directBuffers;
+
+	/**
+	 * Gets the model type set for the request.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the inputs added to the request.
+	 *
+	 * @return The inputs, in the order they were added.
+	 */
+	public List<String> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * Gets the number of dimensions set for the request.
+	 *
+	 * @return The number of dimensions.
+	 */
+	public Integer getDimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * Gets the encoding format set for the request.
+	 *
+	 * @return The encoding format.
+	 */
+	public EncodingFormat getEncodingFormat() {
+		return encodingFormat;
+	}
+
+	/**
+	 * Gets the maximum number of inputs per batch set for the request.
+	 *
+	 * @return The maximum number of inputs per batch.
+	 */
+	public Integer getMaxInputsPerBatch() {
+		return maxInputsPerBatch;
+	}
+
+	/**
+	 * Gets the maximum number of characters per batch set for the request.
+	 *
+	 * @return The maximum number of characters per batch.
+	 */
+	public Integer getMaxCharactersPerBatch() {
+		return maxCharactersPerBatch;
+	}
+
+	/**
+	 * Gets whether vectors are decoded into direct buffers.
+	 *
+	 * @return {@code true} if direct buffers are used.
+	 */
+	public boolean isDirectBuffers() {
+		return directBuffers;
+	}
+
+	/**
+	 * Default constructor for creating a new instance of the builder.
+	 */
+	public EmbeddingRequestBuilder() {
+	}
+
+	/**
+	 * Sets the embedding model.
+	 *
+	 * @param modelType The model type (e.g., TextEmbedding3Small, TextEmbedding3Large).
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException if inserted model is not an embedding model.
+	 */
+	public EmbeddingRequestBuilder setModel(ModelType modelType) {
+		if (!modelType.isEmbeddingModel()) {
+			throw new RequestBuildException(modelType.getModel() + " model is not compatible with EmbeddingRequest. Please, change model to TextEmbedding3Small or another");
+		}
+		this.modelType = modelType;
+		return this;
+	}
+
+	/**
+	 * Adds a text to embed. The text must not be blank.
+	 *
+	 * @param input The text to embed.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the input is blank.
+	 */
+	public EmbeddingRequestBuilder addInput(String input) {
+		if (input.isBlank() || input.isEmpty())
+			throw new RequestBuildException("Embedding input cannot be blank. Please provide a valid text");
+		this.inputs.add(input);
+		return this;
+	}
+
+	/**
+	 * Adds texts to embed, preserving their order. The texts must not be blank.
+	 *
+	 * @param inputs The texts to embed.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If any of the inputs is blank.
+	 */
+	public EmbeddingRequestBuilder addInputs(List<String> inputs) {
+		for (String input : inputs) addInput(input);
+		return this;
+	}
+
+	/**
+	 * Sets the number of dimensions of the returned vectors. Only supported by {@code text-embedding-3} models.
+	 *
+	 * @param dimensions The number of dimensions.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the number of dimensions is less than 1.
+	 */
+	public EmbeddingRequestBuilder setDimensions(Integer dimensions) {
+		if (dimensions < 1) throw new RequestBuildException("Invalid 'dimensions' value: must be at least 1");
+		this.dimensions = dimensions;
+		return this;
+	}
+
+	/**
+	 * Sets the format in which vectors are transferred. {@code BASE64} is several times smaller on the wire
+	 * and is decoded straight into floats.
+	 *
+	 * @param encodingFormat The encoding format.
+	 * @return The current builder instance for chaining.
+	 */
+	public EmbeddingRequestBuilder setEncodingFormat(EncodingFormat encodingFormat) {
+		this.encodingFormat = encodingFormat;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum number of inputs sent in a single call. Larger requests are split into several calls.
+	 *
+	 * @param maxInputsPerBatch The maximum number of inputs per call.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the value is less than 1 or exceeds {@value #MAX_INPUTS_PER_CALL}.
+	 */
+	public EmbeddingRequestBuilder setMaxInputsPerBatch(Integer maxInputsPerBatch) {
+		if (maxInputsPerBatch < 1) throw new RequestBuildException("Invalid batch size: must be at least 1");
+		else if (maxInputsPerBatch > MAX_INPUTS_PER_CALL) throw new RequestBuildException("Invalid batch size: must not exceed " + MAX_INPUTS_PER_CALL);
+		this.maxInputsPerBatch = maxInputsPerBatch;
+		return this;
+	}
+
+	/**
+	 * Sets the maximum total length of the inputs sent in a single call, used as an estimate of the per-call token limit.
+	 *
+	 * @param maxCharactersPerBatch The maximum number of characters per call.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the value is less than 1.
+	 */
+	public EmbeddingRequestBuilder setMaxCharactersPerBatch(Integer maxCharactersPerBatch) {
+		if (maxCharactersPerBatch < 1) throw new RequestBuildException("Invalid batch length: must be at least 1");
+		this.maxCharactersPerBatch = maxCharactersPerBatch;
+		return this;
+	}
+
+	/**
+	 * Sets whether vectors are decoded into direct (off-heap) {@link java.nio.FloatBuffer}s instead of {@code float[]}.
+	 *
+	 * @param directBuffers {@code true} to use direct buffers.
+	 * @return The current builder instance for chaining.
+	 */
+	public EmbeddingRequestBuilder setDirectBuffers(boolean directBuffers) {
+		this.directBuffers = directBuffers;
+		return this;
+	}
+
+	/**
+	 * Builds and returns a new {@link EmbeddingRequest} instance with the current configuration.
+	 *
+	 * @return A new {@link EmbeddingRequest} object.
+	 */
+	@Override
+	public EmbeddingRequest build() {
+		return new EmbeddingRequest(this);
+	}
+}
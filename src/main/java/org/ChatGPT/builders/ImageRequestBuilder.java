@@ -0,0 +1,233 @@
+package org.ChatGPT.builders;
+
+
+import org.ChatGPT.enums.ImageQuality;
+import org.ChatGPT.enums.ImageResponseFormat;
+import org.ChatGPT.enums.ImageSize;
+import org.ChatGPT.enums.ImageStyle;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.RequestBuildException;
+import org.ChatGPT.interfaces.Builder;
+import org.ChatGPT.requests.ImageRequest;
+
+/**
+ * A builder class to facilitate the construction of {@link ImageRequest} objects.
+ * <p>
+ * Class allows setting the prompt, the image model, the number of images, their size, quality and style, and the format
+ * in which they are returned. It provides a fluent API for chaining method calls and validates the inputs before
+ * constructing the final {@link ImageRequest} object.
+ * </p>
+ * <p>
+ * The builder ensures that the parameters are valid by throwing {@link RequestBuildException} for any invalid values.
+ * </p>
+ *
+ * @see org.ChatGPT.interfaces.Builder
+ * @see ImageRequest
+ * @see RequestBuildException
+ * @see ModelType
+ */
+public class ImageRequestBuilder implements Builder {
+
+	/**
+	 * The model type to use for generating images. Optional, by default - {@code ModelType.Dalle3}
+	 * @see ModelType
+	 */
+	private ModelType modelType;
+
+	/**
+	 * The description of the desired images. necessary param.
+	 */
+	private String prompt;
+
+	/**
+	 * The number of images to generate. Optional, by default - 1
+	 */
+	private Integer numOfImages;
+
+	/**
+	 * The size of the generated images. Optional, by default - {@code ImageSize.S1024x1024}
+	 */
+	private ImageSize size;
+
+	/**
+	 * The quality of the generated images, dall-e-3 only. Optional, by default - {@code ImageQuality.STANDARD}
+	 */
+	private ImageQuality quality;
+
+	/**
+	 * The style of the generated images, dall-e-3 only. Optional, by default - {@code ImageStyle.VIVID}
+	 */
+	private ImageStyle style;
+
+	/**
+	 * The format in which images are returned. Optional, by default - {@code ImageResponseFormat.B64_JSON}
+	 */
+	private ImageResponseFormat responseFormat;
+
+	/**
+	 * Gets the model type set for the request.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the prompt set for the request.
+	 *
+	 * @return The prompt.
+	 */
+	public String getPrompt() {
+		return prompt;
+	}
+
+	/**
+	 * Gets the number of images set for the request.
+	 *
+	 * @return The number of images.
+	 */
+	public Integer getNumOfImages() {
+		return numOfImages;
+	}
+
+	/**
+	 * Gets the image size set for the request.
+	 *
+	 * @return The image size.
+	 */
+	public ImageSize getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets the image quality set for the request.
+	 *
+	 * @return The image quality.
+	 */
+	public ImageQuality getQuality() {
+		return quality;
+	}
+
+	/**
+	 * Gets the image style set for the request.
+	 *
+	 * @return The image style.
+	 */
+	public ImageStyle getStyle() {
+		return style;
+	}
+
+	/**
+	 * Gets the response format set for the request.
+	 *
+	 * @return The response format.
+	 */
+	public ImageResponseFormat getResponseFormat() {
+		return responseFormat;
+	}
+
+	/**
+	 * Default constructor for creating a new instance of the builder.
+	 */
+	public ImageRequestBuilder() {
+	}
+
+	/**
+	 * Sets the image model.
+	 *
+	 * @param modelType The model type (Dalle2 or Dalle3).
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException if inserted model is not an image model.
+	 */
+	public ImageRequestBuilder setModel(ModelType modelType) {
+		if (!modelType.isImageModel()) {
+			throw new RequestBuildException(modelType.getModel() + " model is not compatible with ImageRequest. Please, change model to Dalle3 or Dalle2");
+		}
+		this.modelType = modelType;
+		return this;
+	}
+
+	/**
+	 * Sets the description of the desired images.
+	 *
+	 * @param prompt The prompt.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the prompt is empty or blank.
+	 */
+	public ImageRequestBuilder setPrompt(String prompt) {
+		if (prompt.isBlank() || prompt.isEmpty())
+			throw new RequestBuildException("Prompt cannot be blank. Please provide a valid prompt");
+		this.prompt = prompt;
+		return this;
+	}
+
+	/**
+	 * Sets the number of images to generate. dall-e-3 only supports 1.
+	 *
+	 * @param numOfImages The number of images, from 1 to 10.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the number is out of range.
+	 */
+	public ImageRequestBuilder setNumOfImages(Integer numOfImages) {
+		if (numOfImages < 1 || numOfImages > 10) throw new RequestBuildException("Invalid number of images: must be between 1 and 10");
+		this.numOfImages = numOfImages;
+		return this;
+	}
+
+	/**
+	 * Sets the size of the generated images.
+	 *
+	 * @param size The size.
+	 * @return The current builder instance for chaining.
+	 */
+	public ImageRequestBuilder setSize(ImageSize size) {
+		this.size = size;
+		return this;
+	}
+
+	/**
+	 * Sets the quality of the generated images. Only supported by dall-e-3.
+	 *
+	 * @param quality The quality.
+	 * @return The current builder instance for chaining.
+	 */
+	public ImageRequestBuilder setQuality(ImageQuality quality) {
+		this.quality = quality;
+		return this;
+	}
+
+	/**
+	 * Sets the style of the generated images. Only supported by dall-e-3.
+	 *
+	 * @param style The style.
+	 * @return The current builder instance for chaining.
+	 */
+	public ImageRequestBuilder setStyle(ImageStyle style) {
+		this.style = style;
+		return this;
+	}
+
+	/**
+	 * Sets the format in which images are returned. {@code B64_JSON} images are decoded while the response is read and
+	 * written to an {@link org.ChatGPT.interfaces.ImageSink}, {@code URL} images have to be downloaded separately
+	 * within an hour.
+	 *
+	 * @param responseFormat The response format.
+	 * @return The current builder instance for chaining.
+	 */
+	public ImageRequestBuilder setResponseFormat(ImageResponseFormat responseFormat) {
+		this.responseFormat = responseFormat;
+		return this;
+	}
+
+	/**
+	 * Builds and returns a new {@link ImageRequest} instance with the current configuration.
+	 *
+	 * @return A new {@link ImageRequest} object.
+	 */
+	@Override
+	public ImageRequest build() {
+		return new ImageRequest(this);
+	}
+}
@@ -1,11 +1,14 @@
 package org.ChatGPT.builders;
 
 
+import com.google.gson.JsonObject;
 import org.ChatGPT.requests.TextRequest;
 import org.ChatGPT.enums.ModelType;
 import org.ChatGPT.exceptions.RequestBuildException;
 import org.ChatGPT.interfaces.Builder;
 
+import java.time.Duration;
+
 /**
  * A builder class to facilitate the construction of {@link TextRequest} objects.
  * <p>
@@ -55,6 +58,36 @@ public class TextRequestBuilder implements Builder {
 	 */
 	private Integer numOfResponsesPerRequest;
 
+	/**
+	 * The time budget of the request, including queuing and all HTTP calls made for it. Optional, by default - the client's default timeout
+	 */
+	private Duration timeout;
+
+	/**
+	 * The name of the JSON schema the response must follow. Optional, by default - null (free-form text)
+	 */
+	private String responseSchemaName;
+
+	/**
+	 * The JSON schema the response must follow. Optional, by default - null (free-form text)
+	 */
+	private JsonObject responseSchema;
+
+	/**
+	 * The caller-supplied tag usage is accounted under. Optional, by default - null (untagged)
+	 */
+	private String tag;
+
+	/**
+	 * The key of the conversation the request belongs to, for endpoint affinity. Optional, by default - null
+	 */
+	private String conversationKey;
+
+	/**
+	 * The expected content of the response, for predicted outputs. Optional, by default - null
+	 */
+	private String prediction;
+
 	/**
 	 * Gets the model type set for the request.
 	 *
@@ -109,6 +142,60 @@ public class TextRequestBuilder implements Builder {
 		return numOfResponsesPerRequest;
 	}
 
+	/**
+	 * Gets the timeout set for the request.
+	 *
+	 * @return The timeout.
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Gets the name of the response JSON schema set for the request.
+	 *
+	 * @return The schema name.
+	 */
+	public String getResponseSchemaName() {
+		return responseSchemaName;
+	}
+
+	/**
+	 * Gets the usage tag set for the request.
+	 *
+	 * @return The tag.
+	 */
+	public String getTag() {
+		return tag;
+	}
+
+	/**
+	 * Gets the conversation key set for the request.
+	 *
+	 * @return The conversation key.
+	 */
+	public String getConversationKey() {
+		return conversationKey;
+	}
+
+	/**
+	 * Gets the prediction set for the request.
+	 *
+	 * @return The predicted content.
+	 */
+	public String getPrediction() {
+		return prediction;
+	}
+
+	/**
+	 * Gets the response JSON schema set for the request.
+	 *
+	 * @return The schema.
+	 */
+	public JsonObject getResponseSchema() {
+		return responseSchema;
+	}
+
 	/**
 	 * Default constructor for creating a new instance of the builder.
 	 */
@@ -123,7 +210,7 @@ public class TextRequestBuilder implements Builder {
 	 * @throws RequestBuildException if inserted model is not compatible for chat generation endpoint.
 	 */
 	public TextRequestBuilder setModel(ModelType modelType) {
-		if (modelType.equals(ModelType.Dalle2) || modelType.equals(ModelType.Dalle3)) {
+		if (modelType.equals(ModelType.Dalle2) || modelType.equals(ModelType.Dalle3) || modelType.isEmbeddingModel() || modelType.isAudioModel()) {
 			throw new RequestBuildException(modelType.getModel() + " model is not compatible with TextRequest. Please, change model to GPT4 or another");
 		}
 		this.modelType = modelType;
@@ -204,6 +291,87 @@ public class TextRequestBuilder implements Builder {
 		return this;
 	}
 
+	/**
+	 * Sets the time budget of the request. Once it is spent, the in-flight HTTP exchange is cancelled and the call fails with
+	 * {@link org.ChatGPT.exceptions.DeadlineExceededException}. The timeout is not sent to ChatGPT.
+	 *
+	 * @param timeout The timeout.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the timeout is zero or negative.
+	 */
+	public TextRequestBuilder setTimeout(Duration timeout) {
+		if (timeout.isZero() || timeout.isNegative()) throw new RequestBuildException("Invalid timeout value: must be greater than 0");
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Sets a JSON schema the response must follow (structured outputs, sent as a strict {@code json_schema} response format).
+	 * The content of the response is then a JSON document, which can be parsed with
+	 * {@link org.ChatGPT.ChatGPTResponse#getParsedContent()} or, while streaming, with
+	 * {@link org.ChatGPT.streaming.IncrementalJsonParser}.
+	 *
+	 * @param name   The name of the schema, a-z, A-Z, 0-9, underscores and dashes, up to 64 characters.
+	 * @param schema The JSON schema.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the name is invalid.
+	 */
+	public TextRequestBuilder setResponseSchema(String name, JsonObject schema) {
+		if (!name.matches("[a-zA-Z0-9_-]{1,64}"))
+			throw new RequestBuildException("Invalid schema name: must contain only a-z, A-Z, 0-9, underscores and dashes, up to 64 characters");
+		this.responseSchemaName = name;
+		this.responseSchema = schema;
+		return this;
+	}
+
+	/**
+	 * Sets the tag the request's token usage and cost are accounted under by {@link org.ChatGPT.usage.UsageTracker},
+	 * e.g. the name of the calling service or batch job. The tag is not sent to ChatGPT.
+	 *
+	 * @param tag The tag.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the tag is empty or blank.
+	 */
+	public TextRequestBuilder setTag(String tag) {
+		if (tag.isBlank()) throw new RequestBuildException("Invalid tag: must not be empty or blank");
+		this.tag = tag;
+		return this;
+	}
+
+	/**
+	 * Sets the key of the conversation the request belongs to, e.g. a chat session id. With an
+	 * {@link org.ChatGPT.routing.EndpointRouter}, requests with the same key go to the same endpoint while it is healthy,
+	 * so they benefit from its prompt cache. The key is not sent to ChatGPT.
+	 *
+	 * @param conversationKey The conversation key.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the key is empty or blank.
+	 */
+	public TextRequestBuilder setConversationKey(String conversationKey) {
+		if (conversationKey.isBlank()) throw new RequestBuildException("Invalid conversation key: must not be empty or blank");
+		this.conversationKey = conversationKey;
+		return this;
+	}
+
+	/**
+	 * Sets the predicted content of the response (predicted outputs), e.g. the current version of a file or document
+	 * the request asks to edit. Tokens of the response that match the prediction are generated much faster; tokens of the
+	 * prediction that don't appear in the response are billed as completion tokens.
+	 * <p>
+	 *     Predictions are supported by GPT-4o and GPT-4o mini only, with 1 response per request. This is checked when the
+	 *     request is built.
+	 * </p>
+	 *
+	 * @param prediction The predicted content.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the prediction is empty.
+	 */
+	public TextRequestBuilder setPrediction(String prediction) {
+		if (prediction.isEmpty()) throw new RequestBuildException("Invalid prediction: must not be empty");
+		this.prediction = prediction;
+		return this;
+	}
+
 	/**
 	 * Builds and returns a new {@link TextRequest} instance with the current configuration.
 	 *
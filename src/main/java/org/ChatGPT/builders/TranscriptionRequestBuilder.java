@@ -0,0 +1,235 @@
+package org.ChatGPT.builders;
+
+
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.enums.TranscriptionFormat;
+import org.ChatGPT.exceptions.RequestBuildException;
+import org.ChatGPT.interfaces.Builder;
+import org.ChatGPT.requests.TranscriptionRequest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * A builder class to facilitate the construction of {@link TranscriptionRequest} objects.
+ * <p>
+ * Class allows setting the audio file, the transcription model, the language of the audio, a prompt guiding the style
+ * of the transcript, the temperature and the response format. It provides a fluent API for chaining method calls and
+ * validates the inputs before constructing the final {@link TranscriptionRequest} object.
+ * </p>
+ * <p>
+ * The builder ensures that the parameters are valid by throwing {@link RequestBuildException} for any invalid values.
+ * </p>
+ *
+ * @see org.ChatGPT.interfaces.Builder
+ * @see TranscriptionRequest
+ * @see RequestBuildException
+ * @see ModelType
+ */
+public class TranscriptionRequestBuilder implements Builder {
+
+	/**
+	 * The model type to use for transcription. Optional, by default - {@code ModelType.Whisper1}
+	 * @see ModelType
+	 */
+	private ModelType modelType;
+
+	/**
+	 * The audio file to transcribe (flac, mp3, mp4, mpeg, mpga, m4a, ogg, wav or webm). necessary param.
+	 */
+	private Path file;
+
+	/**
+	 * The ISO-639-1 language of the audio. Optional, by default - null (detected by the model)
+	 */
+	private String language;
+
+	/**
+	 * A text guiding the style of the transcript or continuing a previous segment. Optional, by default - null
+	 */
+	private String prompt;
+
+	/**
+	 * The sampling temperature. Optional, by default - 0
+	 */
+	private Double temperature;
+
+	/**
+	 * The format of the transcript. Optional, by default - {@code TranscriptionFormat.JSON}
+	 */
+	private TranscriptionFormat responseFormat;
+
+	/**
+	 * The time budget of the request, including the upload. Optional, by default - the client's default timeout
+	 */
+	private Duration timeout;
+
+	/**
+	 * Gets the model type set for the request.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the audio file set for the request.
+	 *
+	 * @return The path of the audio file.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Gets the language set for the request.
+	 *
+	 * @return The language code.
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
+	/**
+	 * Gets the prompt set for the request.
+	 *
+	 * @return The prompt.
+	 */
+	public String getPrompt() {
+		return prompt;
+	}
+
+	/**
+	 * Gets the temperature set for the request.
+	 *
+	 * @return The temperature value.
+	 */
+	public Double getTemperature() {
+		return temperature;
+	}
+
+	/**
+	 * Gets the response format set for the request.
+	 *
+	 * @return The response format.
+	 */
+	public TranscriptionFormat getResponseFormat() {
+		return responseFormat;
+	}
+
+	/**
+	 * Gets the timeout set for the request.
+	 *
+	 * @return The timeout.
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Default constructor for creating a new instance of the builder.
+	 */
+	public TranscriptionRequestBuilder() {
+	}
+
+	/**
+	 * Sets the transcription model.
+	 *
+	 * @param modelType The model type (Whisper1).
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException if inserted model is not an audio model.
+	 */
+	public TranscriptionRequestBuilder setModel(ModelType modelType) {
+		if (!modelType.isAudioModel()) {
+			throw new RequestBuildException(modelType.getModel() + " model is not compatible with TranscriptionRequest. Please, change model to Whisper1");
+		}
+		this.modelType = modelType;
+		return this;
+	}
+
+	/**
+	 * Sets the audio file to transcribe. The file is streamed from disk when the request is sent.
+	 *
+	 * @param file The path of the audio file.
+	 * @return The current builder instance for chaining.
+	 */
+	public TranscriptionRequestBuilder setFile(Path file) {
+		this.file = file;
+		return this;
+	}
+
+	/**
+	 * Sets the language of the audio, which improves accuracy and latency.
+	 *
+	 * @param language The ISO-639-1 code of the language, e.g. {@code "en"}.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the code is not two lowercase letters.
+	 */
+	public TranscriptionRequestBuilder setLanguage(String language) {
+		if (!language.matches("[a-z]{2}")) throw new RequestBuildException("Invalid language: must be an ISO-639-1 code, e.g. 'en'");
+		this.language = language;
+		return this;
+	}
+
+	/**
+	 * Sets a text guiding the style of the transcript, or the transcript of the previous segment of the audio.
+	 *
+	 * @param prompt The prompt.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the prompt is empty or blank.
+	 */
+	public TranscriptionRequestBuilder setPrompt(String prompt) {
+		if (prompt.isBlank() || prompt.isEmpty())
+			throw new RequestBuildException("Prompt cannot be blank. Please provide a valid prompt");
+		this.prompt = prompt;
+		return this;
+	}
+
+	/**
+	 * Sets the sampling temperature. The temperature must be between 0 and 1.
+	 *
+	 * @param temperature The temperature value.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the temperature is out of range.
+	 */
+	public TranscriptionRequestBuilder setTemperature(Double temperature) {
+		if (temperature < 0 || temperature > 1) throw new RequestBuildException("Invalid temperature value: must be between 0 and 1");
+		this.temperature = temperature;
+		return this;
+	}
+
+	/**
+	 * Sets the format of the transcript. {@code VERBOSE_JSON} adds the detected language, the duration and timed segments.
+	 *
+	 * @param responseFormat The response format.
+	 * @return The current builder instance for chaining.
+	 */
+	public TranscriptionRequestBuilder setResponseFormat(TranscriptionFormat responseFormat) {
+		this.responseFormat = responseFormat;
+		return this;
+	}
+
+	/**
+	 * Sets the time budget of the request, including the upload. The timeout is not sent to ChatGPT.
+	 *
+	 * @param timeout The timeout.
+	 * @return The current builder instance for chaining.
+	 * @throws RequestBuildException If the timeout is zero or negative.
+	 */
+	public TranscriptionRequestBuilder setTimeout(Duration timeout) {
+		if (timeout.isZero() || timeout.isNegative()) throw new RequestBuildException("Invalid timeout value: must be greater than 0");
+		this.timeout = timeout;
+		return this;
+	}
+
+	/**
+	 * Builds and returns a new {@link TranscriptionRequest} instance with the current configuration.
+	 *
+	 * @return A new {@link TranscriptionRequest} object.
+	 */
+	@Override
+	public TranscriptionRequest build() {
+		return new TranscriptionRequest(this);
+	}
+}
@@ -0,0 +1,470 @@
+package org.ChatGPT.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * An in-memory Hierarchical Navigable Small World (HNSW) graph for approximate nearest neighbour search
+ * over {@code float[]} vectors by cosine similarity.
+ * <p>
+ *     The index has a fixed capacity, so its memory is bounded up front. Vectors are normalized on insertion and
+ *     compared with a dot product. Nodes are never removed from the graph, {@link #delete(int)} only marks them
+ *     so that they are skipped in results; callers rebuild the index once too many nodes are deleted.
+ * </p>
+ * <p>
+ *     Insertions are serialized, searches are lock-free and may run concurrently with an insertion: neighbour lists
+ *     are immutable arrays that are replaced (copy-on-write) through an {@link AtomicReferenceArray}.
+ * </p>
+ *
+ * @see SemanticCache
+ */
+public class HnswIndex {
+
+	/**
+	 * The maximum number of layers of the graph.
+	 */
+	private static final int MAX_LEVEL = 16;
+
+	private static final int[] NO_LINKS = new int[0];
+
+	private final int dimensions;
+
+	private final int capacity;
+
+	/**
+	 * The maximum number of neighbours of a node on the upper layers, twice as many are kept on layer 0.
+	 */
+	private final int maxConnections;
+
+	/**
+	 * The size of the candidate list used while inserting.
+	 */
+	private final int efConstruction;
+
+	private final double levelMultiplier;
+
+	private final AtomicReferenceArray<float[]> vectors;
+
+	/**
+	 * Neighbour lists, stored at {@code node * MAX_LEVEL + level}. A {@code null} entry means the node has no such layer (yet).
+	 */
+	private final AtomicReferenceArray<int[]> links;
+
+	private final AtomicIntegerArray deleted;
+
+	private final Random random = new Random();
+
+	private volatile EntryPoint entryPoint;
+
+	private volatile int size;
+
+	private volatile int deletedCount;
+
+	/**
+	 * Constructs an empty index.
+	 *
+	 * @param dimensions     The length of the vectors.
+	 * @param capacity       The maximum number of vectors.
+	 * @param maxConnections The maximum number of neighbours per node on the upper layers (commonly 16).
+	 * @param efConstruction The size of the candidate list used while inserting (commonly 100-200).
+	 * @throws IllegalArgumentException If a parameter is not positive.
+	 */
+	public HnswIndex(int dimensions, int capacity, int maxConnections, int efConstruction) {
+		if (dimensions < 1 || capacity < 1 || maxConnections < 2 || efConstruction < 1) {
+			throw new IllegalArgumentException("Invalid index parameters: dimensions, capacity and efConstruction must be positive, maxConnections at least 2");
+		}
+		this.dimensions = dimensions;
+		this.capacity = capacity;
+		this.maxConnections = maxConnections;
+		this.efConstruction = efConstruction;
+		this.levelMultiplier = 1 / Math.log(maxConnections);
+		this.vectors = new AtomicReferenceArray<>(capacity);
+		this.links = new AtomicReferenceArray<>(capacity * MAX_LEVEL);
+		this.deleted = new AtomicIntegerArray(capacity);
+	}
+
+	/**
+	 * Adds a vector to the index.
+	 *
+	 * @param vector The vector, it is not modified.
+	 * @return The node id of the vector, or {@code -1} if the index is full.
+	 * @throws IllegalArgumentException If the vector has a different length than the index.
+	 */
+	public synchronized int add(float[] vector) {
+		if (vector.length != dimensions) throw new IllegalArgumentException("Invalid vector length: expected " + dimensions + " but was " + vector.length);
+		if (size == capacity) return -1;
+		int node = size;
+		float[] normalized = normalize(vector);
+		int level = Math.min((int) (-Math.log(1 - random.nextDouble()) * levelMultiplier), MAX_LEVEL - 1);
+		vectors.set(node, normalized);
+		for (int l = 0; l <= level; l++) links.set(node * MAX_LEVEL + l, NO_LINKS);
+
+		EntryPoint entry = entryPoint;
+		if (entry != null) {
+			int current = entry.node;
+			float currentSimilarity = similarity(normalized, current);
+			for (int l = entry.level; l > level; l--) {
+				boolean improved = true;
+				while (improved) {
+					improved = false;
+					for (int neighbour : linksOf(current, l)) {
+						float s = similarity(normalized, neighbour);
+						if (s > currentSimilarity) {
+							current = neighbour;
+							currentSimilarity = s;
+							improved = true;
+						}
+					}
+				}
+			}
+			for (int l = Math.min(level, entry.level); l >= 0; l--) {
+				NodeHeap candidates = searchLayer(normalized, current, currentSimilarity, efConstruction, l);
+				int[] neighbours = candidates.closest(l == 0 ? 2 * maxConnections : maxConnections);
+				links.set(node * MAX_LEVEL + l, neighbours);
+				for (int neighbour : neighbours) connect(neighbour, node, l);
+				current = neighbours[0];
+				currentSimilarity = similarity(normalized, current);
+			}
+		}
+		size = node + 1;
+		if (entry == null || level > entry.level) entryPoint = new EntryPoint(node, level);
+		return node;
+	}
+
+	/**
+	 * Marks a node as deleted. Deleted nodes still route searches but are not returned.
+	 *
+	 * @param node The node id.
+	 */
+	public void delete(int node) {
+		if (deleted.compareAndSet(node, 0, 1)) {
+			synchronized (this) {
+				deletedCount++;
+			}
+		}
+	}
+
+	/**
+	 * Finds the nearest non-deleted neighbours of a query vector.
+	 *
+	 * @param query The query vector, it is not modified.
+	 * @param k     The maximum number of results.
+	 * @param ef    The size of the candidate list, larger values improve recall at the cost of speed.
+	 * @return Up to {@code k} neighbours, most similar first.
+	 */
+	public List<Neighbour> search(float[] query, int k, int ef) {
+		if (query.length != dimensions) throw new IllegalArgumentException("Invalid vector length: expected " + dimensions + " but was " + query.length);
+		EntryPoint entry = entryPoint;
+		if (entry == null) return List.of();
+		float[] normalized = normalize(query);
+		int current = entry.node;
+		float currentSimilarity = similarity(normalized, current);
+		for (int l = entry.level; l > 0; l--) {
+			boolean improved = true;
+			while (improved) {
+				improved = false;
+				for (int neighbour : linksOf(current, l)) {
+					float s = similarity(normalized, neighbour);
+					if (s > currentSimilarity) {
+						current = neighbour;
+						currentSimilarity = s;
+						improved = true;
+					}
+				}
+			}
+		}
+		NodeHeap results = searchLayer(normalized, current, currentSimilarity, Math.max(ef, k), 0);
+		List<Neighbour> neighbours = new ArrayList<>(k);
+		for (int node : results.closest(results.size())) {
+			if (deleted.get(node) == 0) neighbours.add(new Neighbour(node, similarity(normalized, node)));
+			if (neighbours.size() == k) break;
+		}
+		return neighbours;
+	}
+
+	/**
+	 * Returns the (normalized) vector of a node.
+	 *
+	 * @param node The node id.
+	 * @return The stored vector, must not be modified.
+	 */
+	public float[] getVector(int node) {
+		return vectors.get(node);
+	}
+
+	/**
+	 * Returns whether a node is marked as deleted.
+	 *
+	 * @param node The node id.
+	 * @return {@code true} if the node is deleted.
+	 */
+	public boolean isDeleted(int node) {
+		return deleted.get(node) != 0;
+	}
+
+	/**
+	 * Returns the number of nodes in the graph, including deleted ones.
+	 *
+	 * @return The number of nodes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of nodes marked as deleted.
+	 *
+	 * @return The number of deleted nodes.
+	 */
+	public int deletedCount() {
+		return deletedCount;
+	}
+
+	/**
+	 * Returns the maximum number of nodes.
+	 *
+	 * @return The capacity of the index.
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the length of the vectors.
+	 *
+	 * @return The number of dimensions.
+	 */
+	public int dimensions() {
+		return dimensions;
+	}
+
+	/**
+	 * Writes the graph (vectors, layers and deletion marks) so that it can be restored without being rebuilt.
+	 *
+	 * @param out The stream to write to.
+	 * @throws IOException If the stream cannot be written.
+	 */
+	public synchronized void writeTo(DataOutputStream out) throws IOException {
+		EntryPoint entry = entryPoint;
+		out.writeInt(dimensions);
+		out.writeInt(capacity);
+		out.writeInt(maxConnections);
+		out.writeInt(efConstruction);
+		out.writeInt(size);
+		out.writeInt(entry == null ? -1 : entry.node);
+		out.writeInt(entry == null ? -1 : entry.level);
+		for (int node = 0; node < size; node++) {
+			out.writeBoolean(deleted.get(node) != 0);
+			for (float value : vectors.get(node)) out.writeFloat(value);
+			int levels = 0;
+			while (levels < MAX_LEVEL && links.get(node * MAX_LEVEL + levels) != null) levels++;
+			out.writeByte(levels);
+			for (int l = 0; l < levels; l++) {
+				int[] neighbours = links.get(node * MAX_LEVEL + l);
+				out.writeShort(neighbours.length);
+				for (int neighbour : neighbours) out.writeInt(neighbour);
+			}
+		}
+	}
+
+	/**
+	 * Reads a graph written by {@link #writeTo(DataOutputStream)}.
+	 *
+	 * @param in The stream to read from.
+	 * @return The restored index.
+	 * @throws IOException If the stream cannot be read.
+	 */
+	public static HnswIndex readFrom(DataInputStream in) throws IOException {
+		HnswIndex index = new HnswIndex(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		int size = in.readInt();
+		int entryNode = in.readInt();
+		int entryLevel = in.readInt();
+		int deletedCount = 0;
+		for (int node = 0; node < size; node++) {
+			if (in.readBoolean()) {
+				index.deleted.set(node, 1);
+				deletedCount++;
+			}
+			float[] vector = new float[index.dimensions];
+			for (int i = 0; i < vector.length; i++) vector[i] = in.readFloat();
+			index.vectors.set(node, vector);
+			int levels = in.readByte();
+			for (int l = 0; l < levels; l++) {
+				int[] neighbours = new int[in.readShort()];
+				for (int i = 0; i < neighbours.length; i++) neighbours[i] = in.readInt();
+				index.links.set(node * MAX_LEVEL + l, neighbours);
+			}
+		}
+		index.deletedCount = deletedCount;
+		index.size = size;
+		if (entryNode >= 0) index.entryPoint = new EntryPoint(entryNode, entryLevel);
+		return index;
+	}
+
+	/**
+	 * Greedy best-first search of one layer, returning up to {@code ef} closest nodes found.
+	 */
+	private NodeHeap searchLayer(float[] query, int entry, float entrySimilarity, int ef, int level) {
+		BitSet visited = new BitSet(size + 1);
+		NodeHeap candidates = new NodeHeap(ef, true);
+		NodeHeap results = new NodeHeap(ef + 1, false);
+		visited.set(entry);
+		candidates.push(entry, entrySimilarity);
+		results.push(entry, entrySimilarity);
+		while (candidates.size() > 0) {
+			float candidateSimilarity = candidates.topScore();
+			int candidate = candidates.pop();
+			if (results.size() >= ef && candidateSimilarity < results.topScore()) break;
+			for (int neighbour : linksOf(candidate, level)) {
+				if (visited.get(neighbour)) continue;
+				visited.set(neighbour);
+				float s = similarity(query, neighbour);
+				if (results.size() < ef || s > results.topScore()) {
+					candidates.push(neighbour, s);
+					results.push(neighbour, s);
+					if (results.size() > ef) results.pop();
+				}
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Adds a link from {@code node} to {@code neighbour}, keeping only the closest links if the list is full.
+	 */
+	private void connect(int node, int neighbour, int level) {
+		int[] current = linksOf(node, level);
+		int limit = level == 0 ? 2 * maxConnections : maxConnections;
+		int[] updated;
+		if (current.length < limit) {
+			updated = Arrays.copyOf(current, current.length + 1);
+			updated[current.length] = neighbour;
+		} else {
+			float[] vector = vectors.get(node);
+			NodeHeap heap = new NodeHeap(current.length + 1, false);
+			for (int n : current) heap.push(n, similarity(vector, n));
+			heap.push(neighbour, similarity(vector, neighbour));
+			updated = heap.closest(limit);
+		}
+		links.set(node * MAX_LEVEL + level, updated);
+	}
+
+	private int[] linksOf(int node, int level) {
+		int[] neighbours = links.get(node * MAX_LEVEL + level);
+		return neighbours == null ? NO_LINKS : neighbours;
+	}
+
+	private float similarity(float[] query, int node) {
+		float[] vector = vectors.get(node);
+		float dot = 0;
+		for (int i = 0; i < query.length; i++) dot += query[i] * vector[i];
+		return dot;
+	}
+
+	private static float[] normalize(float[] vector) {
+		double norm = 0;
+		for (float value : vector) norm += value * value;
+		float[] normalized = new float[vector.length];
+		if (norm == 0) return normalized;
+		float scale = (float) (1 / Math.sqrt(norm));
+		for (int i = 0; i < vector.length; i++) normalized[i] = vector[i] * scale;
+		return normalized;
+	}
+
+	/**
+	 * A search result: a node id and its cosine similarity to the query.
+	 *
+	 * @param node       The node id.
+	 * @param similarity The cosine similarity, from -1 to 1.
+	 */
+	public record Neighbour(int node, float similarity) {
+	}
+
+	private record EntryPoint(int node, int level) {
+	}
+
+	/**
+	 * A binary heap of node ids ordered by score, backed by primitive arrays.
+	 */
+	private static class NodeHeap {
+
+		private final boolean maxHeap;
+
+		private int[] nodes;
+
+		private float[] scores;
+
+		private int size;
+
+		private NodeHeap(int capacity, boolean maxHeap) {
+			this.nodes = new int[Math.max(capacity, 1)];
+			this.scores = new float[Math.max(capacity, 1)];
+			this.maxHeap = maxHeap;
+		}
+
+		private int size() {
+			return size;
+		}
+
+		private float topScore() {
+			return scores[0];
+		}
+
+		private void push(int node, float score) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, size * 2);
+				scores = Arrays.copyOf(scores, size * 2);
+			}
+			int i = size++;
+			while (i > 0) {
+				int parent = (i - 1) / 2;
+				if (!before(score, scores[parent])) break;
+				nodes[i] = nodes[parent];
+				scores[i] = scores[parent];
+				i = parent;
+			}
+			nodes[i] = node;
+			scores[i] = score;
+		}
+
+		private int pop() {
+			int top = nodes[0];
+			int lastNode = nodes[--size];
+			float lastScore = scores[size];
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= size) break;
+				if (child + 1 < size && before(scores[child + 1], scores[child])) child++;
+				if (!before(scores[child], lastScore)) break;
+				nodes[i] = nodes[child];
+				scores[i] = scores[child];
+				i = child;
+			}
+			nodes[i] = lastNode;
+			scores[i] = lastScore;
+			return top;
+		}
+
+		/**
+		 * Drains a min-heap and returns up to {@code count} nodes with the highest scores, highest first.
+		 */
+		private int[] closest(int count) {
+			int[] ordered = new int[size];
+			for (int i = ordered.length - 1; i >= 0; i--) ordered[i] = pop();
+			return ordered.length <= count ? ordered : Arrays.copyOf(ordered, count);
+		}
+
+		private boolean before(float a, float b) {
+			return maxHeap ? a > b : a < b;
+		}
+	}
+}
@@ -0,0 +1,397 @@
+package org.ChatGPT.cache;
+
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.handlers.JsonBodyHandler;
+import org.ChatGPT.requests.TextRequest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An opt-in semantic cache of chat completions, keyed by the embedding of the user content.
+ * <p>
+ *     A request is answered from the cache when a previously seen request has a user content embedding with a cosine
+ *     similarity of at least {@code similarityThreshold}, and the same model, temperature, number of responses, system
+ *     content, assistant content and response schema. This lets paraphrased questions hit the cache, where an exact-match
+ *     cache would miss. Requests with different temperatures never share responses, so a request at a low temperature is
+ *     not answered with a response sampled at a high one, and the reverse.
+ * </p>
+ * <p>
+ *     Embeddings are kept in an {@link HnswIndex}. The cache holds at most {@code capacity} responses: once full,
+ *     an approximately least recently used entry is evicted (sampled among a few random entries). Lookups are
+ *     lock-free and run concurrently with insertions. {@link #snapshot(Path)} and {@link #load(Path)} persist the
+ *     index graph together with the responses, so a restarted process starts warm without re-embedding anything.
+ * </p>
+ *
+ * @see org.ChatGPT.ChatGPTClient#setSemanticCache(SemanticCache)
+ */
+public class SemanticCache {
+
+	/**
+	 * Default minimal cosine similarity for a cache hit.
+	 */
+	public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.95;
+
+	private static final int SNAPSHOT_MAGIC = 0x53434348;
+
+	private static final int SNAPSHOT_VERSION = 1;
+
+	private static final int MAX_CONNECTIONS = 16;
+
+	private static final int EF_CONSTRUCTION = 100;
+
+	private static final int EF_SEARCH = 64;
+
+	/**
+	 * Number of nearest neighbours checked for a matching request.
+	 */
+	private static final int CANDIDATES = 8;
+
+	/**
+	 * Number of random entries compared when choosing an entry to evict.
+	 */
+	private static final int EVICTION_SAMPLES = 16;
+
+	/**
+	 * The maximum number of cached responses.
+	 */
+	private final int capacity;
+
+	/**
+	 * The model used to embed user content.
+	 */
+	private final ModelType embeddingModel;
+
+	/**
+	 * How long a response stays valid, or {@code null} if responses never expire.
+	 */
+	private final Duration timeToLive;
+
+	private volatile double similarityThreshold;
+
+	/**
+	 * The index and the entries of its nodes, created with the first insertion (when the vector length is known).
+	 */
+	private volatile State state;
+
+	/**
+	 * Number of cached responses. Only modified while holding the cache's lock.
+	 */
+	private int liveEntries;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Constructs a cache that embeds user content with {@code ModelType.TextEmbedding3Small} and never expires entries.
+	 *
+	 * @param capacity            The maximum number of cached responses.
+	 * @param similarityThreshold The minimal cosine similarity for a cache hit, from -1 to 1.
+	 */
+	public SemanticCache(int capacity, double similarityThreshold) {
+		this(capacity, similarityThreshold, ModelType.TextEmbedding3Small, null);
+	}
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param capacity            The maximum number of cached responses.
+	 * @param similarityThreshold The minimal cosine similarity for a cache hit, from -1 to 1.
+	 * @param embeddingModel      The model used to embed user content.
+	 * @param timeToLive          How long a response stays valid, or {@code null} if responses never expire.
+	 * @throws IllegalArgumentException If the capacity is not positive, the threshold is out of range or the model is not an embedding model.
+	 */
+	public SemanticCache(int capacity, double similarityThreshold, ModelType embeddingModel, Duration timeToLive) {
+		if (capacity < 1) throw new IllegalArgumentException("Invalid cache capacity: must be at least 1");
+		if (!embeddingModel.isEmbeddingModel()) throw new IllegalArgumentException(embeddingModel.getModel() + " is not an embedding model");
+		this.capacity = capacity;
+		this.embeddingModel = embeddingModel;
+		this.timeToLive = timeToLive;
+		setSimilarityThreshold(similarityThreshold);
+	}
+
+	/**
+	 * Sets the minimal cosine similarity for a cache hit.
+	 *
+	 * @param similarityThreshold The threshold, from -1 to 1.
+	 * @throws IllegalArgumentException If the threshold is out of range.
+	 */
+	public void setSimilarityThreshold(double similarityThreshold) {
+		if (similarityThreshold < -1 || similarityThreshold > 1) throw new IllegalArgumentException("Invalid similarity threshold: must be between -1 and 1");
+		this.similarityThreshold = similarityThreshold;
+	}
+
+	/**
+	 * Gets the model used to embed user content.
+	 *
+	 * @return The embedding model.
+	 */
+	public ModelType getEmbeddingModel() {
+		return embeddingModel;
+	}
+
+	/**
+	 * Finds a cached response for a request.
+	 *
+	 * @param request   The request.
+	 * @param embedding The embedding of the request's user content.
+	 * @return The cached response, or an empty {@link Optional} on a miss.
+	 */
+	public Optional<ChatGPTResponse> lookup(TextRequest request, float[] embedding) {
+		State current = state;
+		if (current != null && current.index.dimensions() == embedding.length) {
+			String partition = partitionOf(request);
+			double threshold = similarityThreshold;
+			long now = System.currentTimeMillis();
+			for (HnswIndex.Neighbour neighbour : current.index.search(embedding, CANDIDATES, EF_SEARCH)) {
+				if (neighbour.similarity() < threshold) break;
+				Entry entry = current.entries.get(neighbour.node());
+				if (entry == null || isExpired(entry, now) || !entry.partition.equals(partition)) continue;
+				entry.lastAccess = now;
+				hits.increment();
+				return Optional.of(entry.response);
+			}
+		}
+		misses.increment();
+		return Optional.empty();
+	}
+
+	/**
+	 * Caches a response, evicting an entry if the cache is full.
+	 *
+	 * @param request   The request the response was generated for.
+	 * @param embedding The embedding of the request's user content.
+	 * @param response  The response to cache.
+	 * @throws IllegalArgumentException If the embedding has a different length than previously cached embeddings.
+	 */
+	public synchronized void put(TextRequest request, float[] embedding, ChatGPTResponse response) {
+		State current = state;
+		if (current == null) current = state = new State(embedding.length, 2 * capacity);
+		while (liveEntries >= capacity) evict(current);
+		if (current.index.size() == current.index.capacity()) current = state = rebuild(current);
+		long now = System.currentTimeMillis();
+		int node = current.index.add(embedding);
+		current.entries.set(node, new Entry(partitionOf(request), response, now, now));
+		liveEntries++;
+	}
+
+	/**
+	 * Removes all cached responses.
+	 */
+	public synchronized void clear() {
+		state = null;
+		liveEntries = 0;
+	}
+
+	/**
+	 * Returns the number of cached responses.
+	 *
+	 * @return The number of entries.
+	 */
+	public synchronized int size() {
+		return liveEntries;
+	}
+
+	/**
+	 * Returns the number of lookups that returned a cached response.
+	 *
+	 * @return The number of hits.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of lookups that found no cached response.
+	 *
+	 * @return The number of misses.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Writes the cache (settings, index graph and responses) to a file. The file is replaced atomically.
+	 *
+	 * @param file The file to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public synchronized void snapshot(Path file) throws IOException {
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			out.writeInt(capacity);
+			out.writeDouble(similarityThreshold);
+			out.writeUTF(embeddingModel.name());
+			out.writeLong(timeToLive == null ? -1 : timeToLive.toMillis());
+			State current = state;
+			out.writeBoolean(current != null);
+			if (current != null) {
+				current.index.writeTo(out);
+				for (int node = 0; node < current.index.size(); node++) {
+					Entry entry = current.entries.get(node);
+					out.writeBoolean(entry != null);
+					if (entry == null) continue;
+					writeBytes(out, entry.partition.getBytes(StandardCharsets.UTF_8));
+					out.writeLong(entry.created);
+					out.writeLong(entry.lastAccess);
+					writeBytes(out, entry.response.getFullResponse().getBytes(StandardCharsets.UTF_8));
+				}
+			}
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Reads a cache written by {@link #snapshot(Path)}.
+	 *
+	 * @param file The snapshot file.
+	 * @return The restored cache, with the settings it was saved with.
+	 * @throws IOException If the file cannot be read or is not a cache snapshot.
+	 */
+	public static SemanticCache load(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) throw new IOException(file + " is not a semantic cache snapshot");
+			int capacity = in.readInt();
+			double threshold = in.readDouble();
+			ModelType model = ModelType.valueOf(in.readUTF());
+			long ttl = in.readLong();
+			SemanticCache cache = new SemanticCache(capacity, threshold, model, ttl < 0 ? null : Duration.ofMillis(ttl));
+			if (in.readBoolean()) {
+				HnswIndex index = HnswIndex.readFrom(in);
+				State state = new State(index);
+				for (int node = 0; node < index.size(); node++) {
+					if (!in.readBoolean()) continue;
+					String partition = new String(readBytes(in), StandardCharsets.UTF_8);
+					long created = in.readLong();
+					long lastAccess = in.readLong();
+					ChatGPTResponse response = new ChatGPTResponse(JsonBodyHandler.parse(new ByteArrayInputStream(readBytes(in))));
+					state.entries.set(node, new Entry(partition, response, created, lastAccess));
+					cache.liveEntries++;
+				}
+				cache.state = state;
+			}
+			return cache;
+		}
+	}
+
+	/**
+	 * Evicts the least recently used entry among a few random ones, preferring expired entries.
+	 */
+	private void evict(State current) {
+		long now = System.currentTimeMillis();
+		int size = current.index.size();
+		int victim = -1;
+		long victimAccess = Long.MAX_VALUE;
+		for (int i = 0; i < EVICTION_SAMPLES; i++) {
+			int node = ThreadLocalRandom.current().nextInt(size);
+			Entry entry = current.entries.get(node);
+			if (entry == null) continue;
+			long access = isExpired(entry, now) ? Long.MIN_VALUE : entry.lastAccess;
+			if (access < victimAccess) {
+				victim = node;
+				victimAccess = access;
+			}
+		}
+		for (int node = 0; victim < 0 && node < size; node++) {
+			if (current.entries.get(node) != null) victim = node;
+		}
+		current.entries.set(victim, null);
+		current.index.delete(victim);
+		liveEntries--;
+	}
+
+	/**
+	 * Builds a new index from the live entries, dropping deleted nodes.
+	 */
+	private State rebuild(State current) {
+		State rebuilt = new State(current.index.dimensions(), current.index.capacity());
+		for (int node = 0; node < current.index.size(); node++) {
+			Entry entry = current.entries.get(node);
+			if (entry == null) continue;
+			rebuilt.entries.set(rebuilt.index.add(current.index.getVector(node)), entry);
+		}
+		return rebuilt;
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		return timeToLive != null && now - entry.created > timeToLive.toMillis();
+	}
+
+	/**
+	 * Requests only share cached responses if everything except the user content is the same.
+	 */
+	private static String partitionOf(TextRequest request) {
+		return request.getModelType().getModel() + '\u0000' + request.getTemperature() + '\u0000' + request.getNumOfResponses()
+				+ '\u0000' + (request.getSystemContent() == null ? "" : request.getSystemContent())
+				+ '\u0000' + (request.getAssistantContent() == null ? "" : request.getAssistantContent())
+				+ '\u0000' + (request.getResponseSchema() == null ? "" : request.getResponseSchema().toString());
+	}
+
+	private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * An index together with the cache entries of its nodes.
+	 */
+	private static class State {
+
+		private final HnswIndex index;
+
+		private final AtomicReferenceArray<Entry> entries;
+
+		private State(int dimensions, int capacity) {
+			this(new HnswIndex(dimensions, capacity, MAX_CONNECTIONS, EF_CONSTRUCTION));
+		}
+
+		private State(HnswIndex index) {
+			this.index = index;
+			this.entries = new AtomicReferenceArray<>(index.capacity());
+		}
+	}
+
+	/**
+	 * A cached response.
+	 */
+	private static class Entry {
+
+		private final String partition;
+
+		private final ChatGPTResponse response;
+
+		private final long created;
+
+		private volatile long lastAccess;
+
+		private Entry(String partition, ChatGPTResponse response, long created, long lastAccess) {
+			this.partition = partition;
+			this.response = response;
+			this.created = created;
+			this.lastAccess = lastAccess;
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package org.ChatGPT.cascade;
+
+import com.google.gson.JsonElement;
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.exceptions.ResponseException;
+
+import java.util.Set;
+
+/**
+ * Decides whether a response of a {@link CascadeExecutor} tier is good enough to return,
+ * or the request has to be escalated to the next tier.
+ * <p>
+ *     Checks should be cheap: they run on the calling thread between tiers.
+ * </p>
+ */
+@FunctionalInterface
+public interface AcceptanceCheck {
+
+	/**
+	 * Checks a response.
+	 *
+	 * @param response The response of a tier.
+	 * @return {@code true} to return the response, {@code false} to escalate.
+	 */
+	boolean accept(ChatGPTResponse response);
+
+	/**
+	 * Returns a check that passes only if both this check and the other one pass.
+	 *
+	 * @param other The other check, evaluated only if this one passes.
+	 * @return The combined check.
+	 */
+	default AcceptanceCheck and(AcceptanceCheck other) {
+		return response -> accept(response) && other.accept(response);
+	}
+
+	/**
+	 * Accepts responses whose content has at least the given number of characters, ignoring surrounding whitespace.
+	 *
+	 * @param minLength The minimum length.
+	 * @return The check.
+	 */
+	static AcceptanceCheck minLength(int minLength) {
+		return response -> {
+			String content = response.getContentAsString();
+			return content != null && content.strip().length() >= minLength;
+		};
+	}
+
+	/**
+	 * Accepts responses whose content is a JSON object or array.
+	 *
+	 * @return The check.
+	 */
+	static AcceptanceCheck validJson() {
+		return response -> {
+			if (response.getContentAsString() == null) return false;
+			try {
+				JsonElement content = response.getParsedContent();
+				return content.isJsonObject() || content.isJsonArray();
+			} catch (ResponseException e) {
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Accepts responses that finished for one of the given reasons, e.g. {@code finishReason("stop")} rejects responses
+	 * cut off by the token limit or the content filter.
+	 *
+	 * @param reasons The accepted finish reasons.
+	 * @return The check.
+	 */
+	static AcceptanceCheck finishReason(String... reasons) {
+		Set<String> accepted = Set.of(reasons);
+		return response -> {
+			String reason = response.getFinishReason();
+			return reason != null && accepted.contains(reason);
+		};
+	}
+}
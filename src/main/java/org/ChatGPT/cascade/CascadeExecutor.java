@@ -0,0 +1,186 @@
+package org.ChatGPT.cascade;
+
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.requests.TextRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Sends a request to a fast, cheap model first and escalates it to stronger models only when needed.
+ * <p>
+ *     The request is sent to each tier in turn, e.g. {@code GPT4omini}, then {@code GPT4o}, then {@code o1}, until the
+ *     {@link AcceptanceCheck} accepts a response. The response of the last tier is returned even if the check rejects
+ *     it. The model set on the request itself is ignored.
+ * </p>
+ * <p>
+ *     A request with a prediction (see {@link org.ChatGPT.builders.TextRequestBuilder#setPrediction(String)}) is rejected
+ *     before any tier is called unless every tier supports predictions, as dropping the prediction on escalation would
+ *     silently change the request.
+ * </p>
+ * <p>
+ *     Per tier, the executor counts attempts, accepted responses and the end-to-end latency of the requests it answered,
+ *     including the time spent on lower tiers. Counters are {@link LongAdder}s, so one executor can be shared by many
+ *     threads. Use {@link #getStats()} to tune the tiers and the check: a tier with a low hit rate mostly adds latency.
+ * </p>
+ *
+ * @see org.ChatGPT.ChatGPTClient#sendRequestToTextEndPoint(String, TextRequest, CascadeExecutor)
+ */
+public class CascadeExecutor {
+
+	/**
+	 * Aggregated metrics of one tier.
+	 *
+	 * @param model        The model of the tier.
+	 * @param attempts     The number of requests sent to the tier.
+	 * @param accepts      The number of its responses the check accepted.
+	 * @param answered     The number of requests answered by the tier, including rejected responses of the last tier.
+	 * @param latencyNanos The total end-to-end time of the requests answered by the tier, in nanoseconds.
+	 */
+	public record TierStats(ModelType model, long attempts, long accepts, long answered, long latencyNanos) {
+
+		/**
+		 * Returns the share of attempts whose response was accepted.
+		 *
+		 * @return The ratio from 0 to 1, or 0 if the tier was not tried.
+		 */
+		public double getHitRate() {
+			return attempts == 0 ? 0 : (double) accepts / attempts;
+		}
+
+		/**
+		 * Returns the mean end-to-end latency of the requests answered by the tier.
+		 *
+		 * @return The mean latency, or {@link Duration#ZERO} if the tier answered no request.
+		 */
+		public Duration getMeanLatency() {
+			return answered == 0 ? Duration.ZERO : Duration.ofNanos(latencyNanos / answered);
+		}
+	}
+
+	private static final class Counters {
+		final LongAdder attempts = new LongAdder();
+		final LongAdder accepts = new LongAdder();
+		final LongAdder answered = new LongAdder();
+		final LongAdder latencyNanos = new LongAdder();
+	}
+
+	private final List<ModelType> tiers;
+
+	private final AcceptanceCheck check;
+
+	private final Counters[] counters;
+
+	/**
+	 * Constructs an executor.
+	 *
+	 * @param check The check responses of all but the last tier must pass.
+	 * @param tiers The models to try, fastest first.
+	 * @throws IllegalArgumentException If there is no tier, a model repeats or is not a chat model.
+	 */
+	public CascadeExecutor(AcceptanceCheck check, ModelType... tiers) {
+		if (tiers.length == 0) throw new IllegalArgumentException("At least one tier is required");
+		if (List.of(tiers).stream().distinct().count() != tiers.length) throw new IllegalArgumentException("Tiers must be distinct");
+		for (ModelType tier : tiers) {
+			if (tier.isImageModel() || tier.isEmbeddingModel() || tier.isAudioModel())
+				throw new IllegalArgumentException(tier.getModel() + " model is not compatible with TextRequest");
+		}
+		this.check = check;
+		this.tiers = List.of(tiers);
+		this.counters = new Counters[tiers.length];
+		for (int i = 0; i < counters.length; i++) counters[i] = new Counters();
+	}
+
+	/**
+	 * Returns the models tried, in order.
+	 *
+	 * @return The tiers.
+	 */
+	public List<ModelType> getTiers() {
+		return tiers;
+	}
+
+	/**
+	 * Returns the check responses must pass.
+	 *
+	 * @return The check.
+	 */
+	public AcceptanceCheck getCheck() {
+		return check;
+	}
+
+	/**
+	 * Runs a request through the tiers.
+	 * <p>
+	 *     Exceptions of a call are not retried on the next tier, they are rethrown.
+	 * </p>
+	 *
+	 * @param prompt The request.
+	 * @param call   Sends a request to ChatGPT, e.g. {@code r -> client.sendRequestToTextEndPoint(apiKey, r)}.
+	 * @return The first accepted response, or the response of the last tier.
+	 * @throws RequestException If the request has a prediction that a tier doesn't support.
+	 */
+	public ChatGPTResponse execute(TextRequest prompt, Function<TextRequest, ChatGPTResponse> call) {
+		List<TextRequest> requests = new ArrayList<>(tiers.size());
+		for (ModelType tier : tiers) requests.add(prompt.withModel(tier));
+		long startNanos = System.nanoTime();
+		for (int i = 0; ; i++) {
+			Counters c = counters[i];
+			c.attempts.increment();
+			ChatGPTResponse response = call.apply(requests.get(i));
+			boolean accepted = check.accept(response);
+			if (accepted) c.accepts.increment();
+			if (accepted || i == counters.length - 1) {
+				c.answered.increment();
+				c.latencyNanos.add(System.nanoTime() - startNanos);
+				return response;
+			}
+		}
+	}
+
+	/**
+	 * Returns the metrics recorded so far, one entry per tier in order.
+	 *
+	 * @return The metrics.
+	 */
+	public List<TierStats> getStats() {
+		List<TierStats> stats = new ArrayList<>(tiers.size());
+		for (int i = 0; i < counters.length; i++) {
+			Counters c = counters[i];
+			stats.add(new TierStats(tiers.get(i), c.attempts.sum(), c.accepts.sum(), c.answered.sum(), c.latencyNanos.sum()));
+		}
+		return stats;
+	}
+
+	/**
+	 * Returns the mean end-to-end latency of all requests run through the tiers.
+	 *
+	 * @return The mean latency, or {@link Duration#ZERO} if no request completed.
+	 */
+	public Duration getMeanLatency() {
+		long answered = 0;
+		long latencyNanos = 0;
+		for (Counters c : counters) {
+			answered += c.answered.sum();
+			latencyNanos += c.latencyNanos.sum();
+		}
+		return answered == 0 ? Duration.ZERO : Duration.ofNanos(latencyNanos / answered);
+	}
+
+	/**
+	 * Clears all recorded metrics.
+	 */
+	public void reset() {
+		for (Counters c : counters) {
+			c.attempts.reset();
+			c.accepts.reset();
+			c.answered.reset();
+			c.latencyNanos.reset();
+		}
+	}
+}
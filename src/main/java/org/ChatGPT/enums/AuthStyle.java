@@ -0,0 +1,25 @@
+package org.ChatGPT.enums;
+
+
+//https://learn.microsoft.com/en-us/azure/ai-services/openai/reference#authentication
+public enum AuthStyle {
+
+	BEARER("Authorization", "Bearer "),
+	API_KEY("api-key", "");
+
+	private final String header;
+
+	private final String prefix;
+
+	AuthStyle(String header, String prefix) {
+		this.header = header;
+		this.prefix = prefix;
+	}
+	public String getHeader() {
+		return header;
+	}
+
+	public String getPrefix() {
+		return prefix;
+	}
+}
@@ -0,0 +1,18 @@
+package org.ChatGPT.enums;
+
+
+//https://platform.openai.com/docs/api-reference/embeddings/create#embeddings-create-encoding_format
+public enum EncodingFormat {
+
+	FLOAT("float"),
+	BASE64("base64");
+
+	private final String format;
+
+	EncodingFormat(String format) {
+		this.format = format;
+	}
+	public String getFormat() {
+		return format;
+	}
+}
@@ -0,0 +1,18 @@
+package org.ChatGPT.enums;
+
+
+//https://platform.openai.com/docs/api-reference/images/create#images-create-quality
+public enum ImageQuality {
+
+	STANDARD("standard"),
+	HD("hd");
+
+	private final String quality;
+
+	ImageQuality(String quality) {
+		this.quality = quality;
+	}
+	public String getQuality() {
+		return quality;
+	}
+}
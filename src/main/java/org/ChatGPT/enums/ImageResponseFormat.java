@@ -0,0 +1,18 @@
+package org.ChatGPT.enums;
+
+
+//https://platform.openai.com/docs/api-reference/images/create#images-create-response_format
+public enum ImageResponseFormat {
+
+	URL("url"),
+	B64_JSON("b64_json");
+
+	private final String format;
+
+	ImageResponseFormat(String format) {
+		this.format = format;
+	}
+	public String getFormat() {
+		return format;
+	}
+}
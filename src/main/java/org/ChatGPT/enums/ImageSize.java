@@ -0,0 +1,21 @@
+package org.ChatGPT.enums;
+
+
+//https://platform.openai.com/docs/api-reference/images/create#images-create-size
+public enum ImageSize {
+
+	S256x256("256x256"),
+	S512x512("512x512"),
+	S1024x1024("1024x1024"),
+	S1792x1024("1792x1024"),
+	S1024x1792("1024x1792");
+
+	private final String size;
+
+	ImageSize(String size) {
+		this.size = size;
+	}
+	public String getSize() {
+		return size;
+	}
+}
@@ -0,0 +1,18 @@
+package org.ChatGPT.enums;
+
+
+//https://platform.openai.com/docs/api-reference/images/create#images-create-style
+public enum ImageStyle {
+
+	VIVID("vivid"),
+	NATURAL("natural");
+
+	private final String style;
+
+	ImageStyle(String style) {
+		this.style = style;
+	}
+	public String getStyle() {
+		return style;
+	}
+}
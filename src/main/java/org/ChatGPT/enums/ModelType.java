@@ -9,7 +9,11 @@ public enum ModelType {
 	o1("o1"),
 	o1mini("o1-mini"),
 	Dalle3("dall-e-3"),
-	Dalle2("dall-e-2");
+	Dalle2("dall-e-2"),
+	TextEmbedding3Small("text-embedding-3-small"),
+	TextEmbedding3Large("text-embedding-3-large"),
+	TextEmbeddingAda002("text-embedding-ada-002"),
+	Whisper1("whisper-1");
 
 	private final String model;
 
@@ -19,4 +23,20 @@ public enum ModelType {
 	public String getModel() {
 		return model;
 	}
+
+	public boolean isEmbeddingModel() {
+		return this == TextEmbedding3Small || this == TextEmbedding3Large || this == TextEmbeddingAda002;
+	}
+
+	public boolean isImageModel() {
+		return this == Dalle2 || this == Dalle3;
+	}
+
+	public boolean isAudioModel() {
+		return this == Whisper1;
+	}
+
+	public boolean supportsPredictions() {
+		return this == GPT4o || this == GPT4omini;
+	}
 }
@@ -0,0 +1,25 @@
+package org.ChatGPT.enums;
+
+
+//https://platform.openai.com/docs/api-reference/audio/createTranscription#audio-createtranscription-response_format
+public enum TranscriptionFormat {
+
+	JSON("json"),
+	VERBOSE_JSON("verbose_json"),
+	TEXT("text"),
+	SRT("srt"),
+	VTT("vtt");
+
+	private final String format;
+
+	TranscriptionFormat(String format) {
+		this.format = format;
+	}
+	public String getFormat() {
+		return format;
+	}
+
+	public boolean isJson() {
+		return this == JSON || this == VERBOSE_JSON;
+	}
+}
@@ -0,0 +1,22 @@
+package org.ChatGPT.exceptions;
+
+public class BudgetExceededException extends ChatGptGenerationException {
+	public BudgetExceededException() {
+	}
+
+	public BudgetExceededException(String message) {
+		super(message);
+	}
+
+	public BudgetExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	public BudgetExceededException(Throwable cause) {
+		super(cause);
+	}
+
+	public BudgetExceededException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+	}
+}
@@ -0,0 +1,22 @@
+package org.ChatGPT.exceptions;
+
+public class DeadlineExceededException extends ChatGptGenerationException {
+	public DeadlineExceededException() {
+	}
+
+	public DeadlineExceededException(String message) {
+		super(message);
+	}
+
+	public DeadlineExceededException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	public DeadlineExceededException(Throwable cause) {
+		super(cause);
+	}
+
+	public DeadlineExceededException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+	}
+}
@@ -0,0 +1,39 @@
+package org.ChatGPT.exceptions;
+
+/**
+ * Thrown when an endpoint answers with a status other than 200. The message holds the error details from the body.
+ */
+public class HttpStatusException extends ChatGptGenerationException {
+
+	private final int statusCode;
+
+	public HttpStatusException(int statusCode, String message) {
+		super(message);
+		this.statusCode = statusCode;
+	}
+
+	public int getStatusCode() {
+		return statusCode;
+	}
+
+	/**
+	 * Returns whether the failure is likely transient or specific to the endpoint, so the request may succeed when
+	 * retried or sent elsewhere: timeouts (408), rate limits (429) and server errors (5xx).
+	 *
+	 * @return {@code true} if the request may be retried.
+	 */
+	public boolean isRetryable() {
+		return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+	}
+
+	/**
+	 * Returns whether the failure is caused by the configuration of the endpoint rather than by the request: a rejected
+	 * API key (401, 403) or a missing model or deployment (404). Another endpoint, with its own key and deployments,
+	 * may serve the request.
+	 *
+	 * @return {@code true} if the endpoint is misconfigured.
+	 */
+	public boolean isEndpointFailure() {
+		return statusCode == 401 || statusCode == 403 || statusCode == 404;
+	}
+}
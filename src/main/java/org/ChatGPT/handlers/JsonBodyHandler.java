@@ -0,0 +1,59 @@
+package org.ChatGPT.handlers;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.ChatGPT.exceptions.ResponseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link HttpResponse.BodyHandler} that parses the JSON body of a response straight from the body stream.
+ * <p>
+ *     The body is never accumulated into a {@link String}: bytes received from the socket are decoded and fed
+ *     to the Gson parser chunk by chunk, so a response goes from the wire to a {@link JsonObject} in one pass.
+ * </p>
+ *
+ * @see StreamingBodyHandler
+ * @see org.ChatGPT.ChatGPTResponse
+ */
+public class JsonBodyHandler extends StreamingBodyHandler<JsonObject> {
+
+	/**
+	 * Default constructor for creating a new instance of the handler.
+	 */
+	public JsonBodyHandler() {
+		super(JsonBodyHandler::parse);
+	}
+
+	/**
+	 * Parses a JSON object from the given stream and closes it.
+	 *
+	 * @param stream The stream containing UTF-8 encoded JSON.
+	 * @return The parsed {@link JsonObject}.
+	 * @throws ResponseException If the stream is empty, blank or does not contain a JSON object.
+	 * @throws UncheckedIOException If the stream cannot be read.
+	 */
+	public static JsonObject parse(InputStream stream) {
+		try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+			JsonElement element = JsonParser.parseReader(reader);
+			if (element.isJsonNull()) throw new ResponseException("Body of HttpResponse is empty or blank");
+			if (!element.isJsonObject()) throw new ResponseException("Body of HttpResponse is not a JSON object");
+			return element.getAsJsonObject();
+		} catch (JsonIOException e) {
+			throw new UncheckedIOException(e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e));
+		} catch (JsonParseException e) {
+			throw new ResponseException("Body of HttpResponse is not valid JSON", e);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,260 @@
+package org.ChatGPT.handlers;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link HttpRequest.BodyPublisher} of a {@code multipart/form-data} body whose file parts are streamed from disk.
+ * <p>
+ *     Text fields and part headers are encoded up front, files are read from a {@link FileChannel} in chunks of
+ *     {@value #CHUNK_SIZE} bytes only as the HTTP client requests them, so the upload of a large file never holds more
+ *     than a few chunks in memory. The content length is known in advance, so the body is sent with a
+ *     {@code Content-Length} header. Each subscription opens its own channels, so the publisher can be resent.
+ * </p>
+ *
+ * @see Builder
+ */
+public class MultipartBodyPublisher implements HttpRequest.BodyPublisher {
+
+	static final int CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * A file part's content.
+	 */
+	private record FilePart(Path path, long size) {
+	}
+
+	/**
+	 * The body, in order: {@code byte[]} for encoded text and {@link FilePart}s.
+	 */
+	private final List<Object> parts;
+
+	private final String boundary;
+
+	private final long contentLength;
+
+	private MultipartBodyPublisher(List<Object> parts, String boundary, long contentLength) {
+		this.parts = parts;
+		this.boundary = boundary;
+		this.contentLength = contentLength;
+	}
+
+	/**
+	 * Returns the value of the {@code Content-Type} header of the body, including the boundary.
+	 *
+	 * @return The content type.
+	 */
+	public String getContentType() {
+		return "multipart/form-data; boundary=" + boundary;
+	}
+
+	@Override
+	public long contentLength() {
+		return contentLength;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+		subscriber.onSubscribe(new Subscription(subscriber));
+	}
+
+	/**
+	 * Emits the parts on demand. Emission is serialized with a work-in-progress counter, so {@code request()} may be
+	 * called from any thread, including from within {@code onNext()}.
+	 */
+	private final class Subscription implements Flow.Subscription {
+
+		private final Flow.Subscriber<? super ByteBuffer> subscriber;
+
+		private final AtomicLong demand = new AtomicLong();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private volatile boolean done;
+
+		/**
+		 * A protocol error raised by {@link #request(long)}, reported from {@link #drain()}.
+		 */
+		private volatile Throwable error;
+
+		private int part;
+
+		private FileChannel channel;
+
+		private long position;
+
+		Subscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (done) return;
+			if (n <= 0) {
+				error = new IllegalArgumentException("Non-positive request: " + n);
+			} else {
+				demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			done = true;
+			drain();
+		}
+
+		private void drain() {
+			if (wip.getAndIncrement() != 0) return;
+			do {
+				if (error != null) {
+					fail(error);
+				} else if (done) {
+					closeChannel();
+				} else {
+					try {
+						while (!done && demand.get() > 0) {
+							ByteBuffer next = next();
+							if (next == null) {
+								done = true;
+								closeChannel();
+								subscriber.onComplete();
+								break;
+							}
+							demand.decrementAndGet();
+							subscriber.onNext(next);
+						}
+					} catch (IOException e) {
+						fail(e);
+					}
+				}
+			} while (wip.decrementAndGet() != 0);
+		}
+
+		/**
+		 * Returns the next buffer of the body, or {@code null} at its end. Runs only inside {@link #drain()}.
+		 */
+		private ByteBuffer next() throws IOException {
+			while (part < parts.size()) {
+				Object current = parts.get(part);
+				if (current instanceof byte[] bytes) {
+					part++;
+					return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+				}
+				FilePart file = (FilePart) current;
+				if (channel == null) {
+					channel = FileChannel.open(file.path(), StandardOpenOption.READ);
+					position = 0;
+				}
+				if (position < file.size()) {
+					ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(CHUNK_SIZE, file.size() - position));
+					while (chunk.hasRemaining()) {
+						int read = channel.read(chunk, position);
+						if (read < 0) throw new IOException(file.path() + " was truncated while it was uploaded");
+						position += read;
+					}
+					return chunk.flip();
+				}
+				closeChannel();
+				part++;
+			}
+			return null;
+		}
+
+		/**
+		 * Ends the body with an error. Runs only inside {@link #drain()}.
+		 */
+		private void fail(Throwable e) {
+			if (done) return;
+			done = true;
+			closeChannel();
+			subscriber.onError(e);
+		}
+
+		private void closeChannel() {
+			if (channel == null) return;
+			try {
+				channel.close();
+			} catch (IOException ignored) {
+			}
+			channel = null;
+		}
+	}
+
+	/**
+	 * Assembles a {@link MultipartBodyPublisher}.
+	 */
+	public static class Builder {
+
+		private final String boundary = "----ChatGPTClient" + UUID.randomUUID().toString().replace("-", "");
+
+		private final List<Object> parts = new ArrayList<>();
+
+		private long contentLength;
+
+		/**
+		 * Adds a text field.
+		 *
+		 * @param name  The name of the field.
+		 * @param value The value of the field.
+		 * @return The current builder instance for chaining.
+		 */
+		public Builder addField(String name, String value) {
+			addText("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + escape(name) + "\"\r\n\r\n" + value + "\r\n");
+			return this;
+		}
+
+		/**
+		 * Adds a file part, streamed from disk when the body is sent. The file must not shrink until then.
+		 *
+		 * @param name        The name of the field.
+		 * @param file        The file.
+		 * @param contentType The content type of the file.
+		 * @return The current builder instance for chaining.
+		 * @throws IOException If the size of the file cannot be read.
+		 */
+		public Builder addFile(String name, Path file, String contentType) throws IOException {
+			long size = Files.size(file);
+			addText("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + escape(name) + "\"; filename=\""
+					+ escape(file.getFileName().toString()) + "\"\r\nContent-Type: " + contentType + "\r\n\r\n");
+			parts.add(new FilePart(file, size));
+			contentLength += size;
+			addText("\r\n");
+			return this;
+		}
+
+		/**
+		 * Builds the publisher, closing the body.
+		 *
+		 * @return The publisher.
+		 */
+		public MultipartBodyPublisher build() {
+			List<Object> body = new ArrayList<>(parts);
+			byte[] end = ("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+			body.add(end);
+			return new MultipartBodyPublisher(List.copyOf(body), boundary, contentLength + end.length);
+		}
+
+		private void addText(String text) {
+			byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+			parts.add(bytes);
+			contentLength += bytes.length;
+		}
+
+		private static String escape(String value) {
+			return value.replace("\"", "%22").replace("\r", "%0D").replace("\n", "%0A");
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package org.ChatGPT.handlers;
+
+import org.ChatGPT.exceptions.ChatGptGenerationException;
+import org.ChatGPT.exceptions.HttpStatusException;
+
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A {@link HttpResponse.BodyHandler} that hands the body stream of a successful response to a reader function.
+ * <p>
+ *     As recommended by {@link HttpResponse.BodySubscribers#mapping}, the body is exposed as a {@link Supplier},
+ *     the blocking read happens when {@link Supplier#get()} is called, not on the HTTP client's executor.
+ *     Responses with a status other than 200 are read as text and the supplier throws {@link HttpStatusException}
+ *     (a {@link ChatGptGenerationException}) with the status code and error details.
+ * </p>
+ *
+ * @param <T> The type produced by the reader.
+ * @see JsonBodyHandler
+ */
+public class StreamingBodyHandler<T> implements HttpResponse.BodyHandler<Supplier<T>> {
+
+	/**
+	 * The function that reads the body stream of a successful response.
+	 */
+	private final Function<InputStream, T> reader;
+
+	/**
+	 * Constructs a handler that reads successful responses with the given function.
+	 *
+	 * @param reader The function that reads (and closes) the body stream.
+	 */
+	public StreamingBodyHandler(Function<InputStream, T> reader) {
+		this.reader = reader;
+	}
+
+	@Override
+	public HttpResponse.BodySubscriber<Supplier<T>> apply(HttpResponse.ResponseInfo responseInfo) {
+		if (responseInfo.statusCode() != 200) {
+			return HttpResponse.BodySubscribers.mapping(
+					HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8),
+					body -> () -> {
+						throw new HttpStatusException(responseInfo.statusCode(), "Error Details: " + body);
+					});
+		}
+		return HttpResponse.BodySubscribers.mapping(
+				HttpResponse.BodySubscribers.ofInputStream(),
+				stream -> () -> reader.apply(stream));
+	}
+}
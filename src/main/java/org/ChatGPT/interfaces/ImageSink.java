@@ -0,0 +1,75 @@
+package org.ChatGPT.interfaces;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination of generated images returned as {@code b64_json}.
+ * <p>
+ *     Images are base64-decoded while the response body is read, and the decoded bytes are written to the channel opened
+ *     for each image, so no image is ever held in memory as a whole. The channel of an image is closed once the image is
+ *     complete. If reading the response fails midway, the channel is closed too and holds a partial image.
+ * </p>
+ *
+ * @see org.ChatGPT.ChatGPTClient#sendRequestToImageEndPoint(String, org.ChatGPT.requests.ImageRequest, ImageSink)
+ */
+@FunctionalInterface
+public interface ImageSink {
+
+	/**
+	 * Opens the channel an image is written to.
+	 *
+	 * @param index The position of the image in the response, from 0.
+	 * @return The channel, closed by the caller once the image is written.
+	 * @throws IOException If the channel cannot be opened.
+	 */
+	WritableByteChannel open(int index) throws IOException;
+
+	/**
+	 * Writes images to PNG files named {@code <prefix>-<index>.png} in a directory, replacing existing files.
+	 *
+	 * @param directory The directory, which must exist.
+	 * @param prefix    The file name prefix.
+	 * @return The sink.
+	 */
+	static ImageSink toDirectory(Path directory, String prefix) {
+		return index -> FileChannel.open(directory.resolve(prefix + "-" + index + ".png"),
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Writes a single image to a caller-supplied channel, which is left open.
+	 *
+	 * @param channel The channel.
+	 * @return The sink, which fails if the response holds more than one image.
+	 */
+	static ImageSink toChannel(WritableByteChannel channel) {
+		return index -> {
+			if (index > 0) throw new IOException("Channel sink accepts a single image, got image " + index);
+			return new WritableByteChannel() {
+				private boolean open = true;
+
+				@Override
+				public int write(ByteBuffer src) throws IOException {
+					if (!open) throw new ClosedChannelException();
+					return channel.write(src);
+				}
+
+				@Override
+				public boolean isOpen() {
+					return open && channel.isOpen();
+				}
+
+				@Override
+				public void close() {
+					open = false;
+				}
+			};
+		};
+	}
+}
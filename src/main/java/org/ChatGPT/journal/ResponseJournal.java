@@ -0,0 +1,674 @@
+package org.ChatGPT.journal;
+
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.handlers.JsonBodyHandler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * An append-only, on-disk journal of raw ChatGPT responses.
+ * <p>
+ *     Responses are appended to segment files ({@code journal-<n>.log}) through a {@link FileChannel} by a single
+ *     background writer thread. Appends are queued and written in batches, and every batch is made durable with a
+ *     single {@link FileChannel#force(boolean)} call (group fsync), so the request thread never waits for the disk.
+ * </p>
+ * <p>
+ *     Each record is stored as {@code [int idLength][int bodyLength][id bytes][body bytes]}. The journal keeps an
+ *     in-memory index from response id to a packed {@code long} (segment number and offset), which is used to read
+ *     records back through memory-mapped segments with {@link #lookup(String)} and {@link #replay(BiConsumer)}.
+ *     The index is rebuilt by scanning the segments when the journal is opened.
+ * </p>
+ * <p>
+ *     The active segment is rolled once it would exceed the configured segment size. A sealed segment in which at least
+ *     half of the bytes belong to superseded records (the same id appended again) is compacted in place, and deleted
+ *     once it holds no live records.
+ * </p>
+ * <p>
+ *     Since response ids are unique, most records are never superseded, so the journal also has a retention limit on its
+ *     total size: once the segments exceed it, the oldest sealed segments are deleted together with their records,
+ *     until the journal fits again. The active segment is never deleted, so the journal may exceed the limit by up to
+ *     one segment. The limit is also enforced when the journal is opened.
+ * </p>
+ *
+ * @see org.ChatGPT.ChatGPTClient#setResponseJournal(ResponseJournal)
+ */
+public class ResponseJournal implements Closeable {
+
+	/**
+	 * Default maximum size of a single segment file, in bytes.
+	 */
+	public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+	/**
+	 * Default maximum number of records written between two fsync calls.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 256;
+
+	/**
+	 * Default maximum total size of the journal, in bytes, beyond which the oldest segments are deleted.
+	 */
+	public static final long DEFAULT_JOURNAL_BYTES = 1024L * 1024 * 1024;
+
+	private static final String SEGMENT_PREFIX = "journal-";
+
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+	private static final int OFFSET_BITS = 40;
+
+	private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+	/**
+	 * Sentinel queued by {@link #close()} to stop the writer thread.
+	 */
+	private static final Entry CLOSE = new Entry(null, null);
+
+	/**
+	 * The directory that contains the segment files.
+	 */
+	private final Path directory;
+
+	/**
+	 * The size at which the active segment is rolled.
+	 */
+	private final long maxSegmentBytes;
+
+	/**
+	 * The maximum number of records written per fsync.
+	 */
+	private final int maxBatchSize;
+
+	/**
+	 * The total size beyond which the oldest sealed segments are deleted.
+	 */
+	private final long maxJournalBytes;
+
+	/**
+	 * Index from response id to packed segment number and offset.
+	 */
+	private final Map<String, Long> index = new ConcurrentHashMap<>();
+
+	/**
+	 * All segments of the journal, ordered by segment number.
+	 */
+	private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Records waiting to be written by the writer thread.
+	 */
+	private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+
+	/**
+	 * Guards readers against a segment being swapped by compaction.
+	 */
+	private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+	/**
+	 * The background thread that writes queued records.
+	 */
+	private final Thread writer;
+
+	/**
+	 * The segment that records are currently appended to. Only modified by the writer thread.
+	 */
+	private Segment active;
+
+	private volatile boolean closed;
+
+	/**
+	 * Opens (or creates) a journal in the given directory with default segment, batch and journal sizes.
+	 *
+	 * @param directory The directory to keep segment files in.
+	 * @throws UncheckedIOException If the directory or existing segments cannot be read.
+	 */
+	public ResponseJournal(Path directory) {
+		this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * Opens (or creates) a journal in the given directory with the default journal size.
+	 *
+	 * @param directory       The directory to keep segment files in.
+	 * @param maxSegmentBytes The size at which the active segment is rolled, must be positive and not exceed 2 GiB.
+	 * @param maxBatchSize    The maximum number of records written per fsync, must be positive.
+	 * @throws IllegalArgumentException If a size is not positive.
+	 * @throws UncheckedIOException     If the directory or existing segments cannot be read.
+	 */
+	public ResponseJournal(Path directory, long maxSegmentBytes, int maxBatchSize) {
+		this(directory, maxSegmentBytes, maxBatchSize, DEFAULT_JOURNAL_BYTES);
+	}
+
+	/**
+	 * Opens (or creates) a journal in the given directory.
+	 *
+	 * @param directory       The directory to keep segment files in.
+	 * @param maxSegmentBytes The size at which the active segment is rolled, must be positive and not exceed 2 GiB.
+	 * @param maxBatchSize    The maximum number of records written per fsync, must be positive.
+	 * @param maxJournalBytes The total size beyond which the oldest sealed segments are deleted, must be positive.
+	 * @throws IllegalArgumentException If a size is not positive.
+	 * @throws UncheckedIOException     If the directory or existing segments cannot be read.
+	 */
+	public ResponseJournal(Path directory, long maxSegmentBytes, int maxBatchSize, long maxJournalBytes) {
+		if (maxSegmentBytes <= 0) throw new IllegalArgumentException("Invalid segment size: must be greater than 0");
+		if (maxSegmentBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid segment size: must not exceed 2 GiB");
+		if (maxBatchSize <= 0) throw new IllegalArgumentException("Invalid batch size: must be greater than 0");
+		if (maxJournalBytes <= 0) throw new IllegalArgumentException("Invalid journal size: must be greater than 0");
+		this.directory = directory;
+		this.maxSegmentBytes = maxSegmentBytes;
+		this.maxBatchSize = maxBatchSize;
+		this.maxJournalBytes = maxJournalBytes;
+		try {
+			Files.createDirectories(directory);
+			recover();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to open response journal in " + directory, e);
+		}
+		this.writer = new Thread(this::runWriter, "chatgpt-response-journal");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	/**
+	 * Queues a raw response body to be appended to the journal.
+	 *
+	 * @param id   The id of the response.
+	 * @param body The raw JSON body of the response, must not be modified after this call.
+	 * @return A future completed once the record is durable on disk and visible to {@link #lookup(String)}.
+	 * @throws IllegalStateException If the journal is closed.
+	 */
+	public CompletableFuture<Void> append(String id, byte[] body) {
+		if (id == null || body == null) throw new NullPointerException("Response id and body must not be null");
+		if (closed) throw new IllegalStateException("Response journal is closed");
+		Entry entry = new Entry(id, body);
+		queue.add(entry);
+		return entry.written;
+	}
+
+	/**
+	 * Queues a parsed response to be appended to the journal.
+	 *
+	 * @param response The response to append.
+	 * @return A future completed once the record is durable on disk.
+	 * @throws IllegalStateException If the journal is closed.
+	 */
+	public CompletableFuture<Void> append(ChatGPTResponse response) {
+		String id = response.getId();
+		if (id.length() >= 2 && id.startsWith("\"")) id = id.substring(1, id.length() - 1);
+		return append(id, response.getFullResponse().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads the latest record with the given id from the journal.
+	 *
+	 * @param id The id of the response.
+	 * @return The journaled response, or an empty {@link Optional} if there is no record with this id.
+	 */
+	public Optional<ChatGPTResponse> lookup(String id) {
+		swapLock.readLock().lock();
+		try {
+			Long location = index.get(id);
+			if (location == null) return Optional.empty();
+			Segment segment = segments.get(segmentOf(location));
+			ByteBuffer buffer = segment.buffer();
+			int offset = (int) offsetOf(location);
+			int idLength = buffer.getInt(offset);
+			int bodyLength = buffer.getInt(offset + Integer.BYTES);
+			return Optional.of(parse(buffer, offset + HEADER_BYTES + idLength, bodyLength));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			swapLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Replays the latest record of every id, in the order the records were appended.
+	 *
+	 * @param consumer Receives the id and the parsed response of each record.
+	 */
+	public void replay(BiConsumer<String, ChatGPTResponse> consumer) {
+		swapLock.readLock().lock();
+		try {
+			for (Segment segment : segments.values()) {
+				ByteBuffer buffer = segment.buffer();
+				int position = 0;
+				while (position + HEADER_BYTES <= buffer.limit()) {
+					int idLength = buffer.getInt(position);
+					int bodyLength = buffer.getInt(position + Integer.BYTES);
+					String id = readId(buffer, position + HEADER_BYTES, idLength);
+					if (Long.valueOf(pack(segment.number, position)).equals(index.get(id))) {
+						consumer.accept(id, parse(buffer, position + HEADER_BYTES + idLength, bodyLength));
+					}
+					position += HEADER_BYTES + idLength + bodyLength;
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			swapLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of distinct response ids in the journal.
+	 *
+	 * @return The number of indexed responses.
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Returns the total size of the journal's segments, including superseded records.
+	 *
+	 * @return The size in bytes.
+	 */
+	public long sizeInBytes() {
+		long total = 0;
+		for (Segment segment : segments.values()) total += segment.durableSize;
+		return total;
+	}
+
+	/**
+	 * Writes all queued records, stops the writer thread and closes the segment files.
+	 *
+	 * @throws IOException If a segment file cannot be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) return;
+		closed = true;
+		queue.add(CLOSE);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Entry pending;
+		while ((pending = queue.poll()) != null) {
+			if (pending != CLOSE) pending.written.completeExceptionally(new IllegalStateException("Response journal is closed"));
+		}
+		for (Segment segment : segments.values()) segment.channel.close();
+	}
+
+	/**
+	 * Rebuilds the index from the segment files and opens the active segment.
+	 */
+	private void recover() throws IOException {
+		List<Path> files;
+		try (Stream<Path> listing = Files.list(directory)) {
+			files = listing.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+					.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+					.sorted()
+					.toList();
+		}
+		for (Path file : files) {
+			String name = file.getFileName().toString();
+			long number = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+			Segment segment = new Segment(number, file, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+			segments.put(number, segment);
+			scan(segment);
+		}
+		Map.Entry<Long, Segment> last = segments.lastEntry();
+		if (last != null && last.getValue().size < maxSegmentBytes) {
+			active = last.getValue();
+			active.channel.position(active.size);
+		} else {
+			roll();
+		}
+		enforceRetention();
+	}
+
+	/**
+	 * Adds the records of a segment to the index, truncating a partially written tail record.
+	 */
+	private void scan(Segment segment) throws IOException {
+		long fileSize = segment.channel.size();
+		ByteBuffer buffer = fileSize == 0 ? ByteBuffer.allocate(0) : segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+		int position = 0;
+		while (position + HEADER_BYTES <= fileSize) {
+			int idLength = buffer.getInt(position);
+			int bodyLength = buffer.getInt(position + Integer.BYTES);
+			long end = (long) position + HEADER_BYTES + idLength + bodyLength;
+			if (idLength < 0 || bodyLength < 0 || end > fileSize) break;
+			indexRecord(readId(buffer, position + HEADER_BYTES, idLength), pack(segment.number, position));
+			position = (int) end;
+		}
+		if (position < fileSize) segment.channel.truncate(position);
+		segment.size = position;
+		segment.durableSize = position;
+	}
+
+	/**
+	 * Writer thread loop: takes queued records in batches of up to {@code maxBatchSize}.
+	 */
+	private void runWriter() {
+		List<Entry> batch = new ArrayList<>(maxBatchSize);
+		boolean stop = false;
+		while (!stop) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				batch.add(CLOSE);
+			}
+			queue.drainTo(batch, maxBatchSize - 1);
+			stop = batch.remove(CLOSE);
+			if (!batch.isEmpty()) writeBatch(batch);
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Writes a batch of records, syncs the channel once and then publishes the records in the index.
+	 */
+	private void writeBatch(List<Entry> batch) {
+		long[] locations = new long[batch.size()];
+		try {
+			for (int i = 0; i < batch.size(); i++) {
+				Entry entry = batch.get(i);
+				byte[] id = entry.id.getBytes(StandardCharsets.UTF_8);
+				long recordBytes = HEADER_BYTES + id.length + entry.body.length;
+				if (active.size > 0 && active.size + recordBytes > maxSegmentBytes) roll();
+				ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(id.length).putInt(entry.body.length).flip();
+				ByteBuffer[] record = {header, ByteBuffer.wrap(id), ByteBuffer.wrap(entry.body)};
+				long remaining = recordBytes;
+				while (remaining > 0) remaining -= active.channel.write(record);
+				locations[i] = pack(active.number, active.size);
+				active.size += recordBytes;
+			}
+			active.channel.force(false);
+			active.durableSize = active.size;
+		} catch (IOException e) {
+			for (Entry entry : batch) entry.written.completeExceptionally(e);
+			return;
+		}
+		for (int i = 0; i < batch.size(); i++) {
+			indexRecord(batch.get(i).id, locations[i]);
+			batch.get(i).written.complete(null);
+		}
+		compactSegments();
+		enforceRetention();
+	}
+
+	/**
+	 * Seals the active segment and starts a new one.
+	 */
+	private void roll() throws IOException {
+		long number = 0;
+		if (active != null) {
+			active.channel.force(false);
+			active.durableSize = active.size;
+			number = active.number + 1;
+		} else if (!segments.isEmpty()) {
+			number = segments.lastKey() + 1;
+		}
+		Path file = directory.resolve(segmentName(number));
+		Segment segment = new Segment(number, file, FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+		segments.put(number, segment);
+		active = segment;
+	}
+
+	/**
+	 * Points the index at a new record, accounting the superseded record (if any) as dead bytes of its segment.
+	 */
+	private void indexRecord(String id, long location) {
+		Long previous = index.put(id, location);
+		if (previous == null) return;
+		Segment segment = segments.get(segmentOf(previous));
+		if (segment == null) return;
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			segment.channel.read(header, offsetOf(previous));
+			segment.deadBytes += HEADER_BYTES + header.getInt(0) + header.getInt(Integer.BYTES);
+		} catch (IOException ignored) {
+			// dead byte accounting only drives compaction
+		}
+	}
+
+	/**
+	 * Compacts sealed segments in which at least half of the bytes belong to superseded records.
+	 */
+	private void compactSegments() {
+		for (Segment segment : segments.values()) {
+			if (segment == active || segment.deadBytes * 2 < segment.size) continue;
+			try {
+				compact(segment);
+			} catch (IOException ignored) {
+				// the segment stays valid, compaction is retried after the next batch
+			}
+		}
+	}
+
+	/**
+	 * Deletes the oldest sealed segments while the journal exceeds its size limit.
+	 */
+	private void enforceRetention() {
+		long total = 0;
+		for (Segment segment : segments.values()) total += segment.size;
+		while (total > maxJournalBytes) {
+			Segment oldest = segments.firstEntry().getValue();
+			if (oldest == active) return;
+			try {
+				drop(oldest);
+			} catch (IOException ignored) {
+				// the segment stays readable, deleting it is retried after the next batch
+				return;
+			}
+			total -= oldest.size;
+		}
+	}
+
+	/**
+	 * Deletes the file of a sealed segment, then removes the segment and the index entries of its live records.
+	 */
+	private void drop(Segment segment) throws IOException {
+		ByteBuffer buffer = segment.buffer();
+		swapLock.writeLock().lock();
+		try {
+			Files.delete(segment.file);
+			int position = 0;
+			while (position < segment.size) {
+				int idLength = buffer.getInt(position);
+				int recordBytes = HEADER_BYTES + idLength + buffer.getInt(position + Integer.BYTES);
+				index.remove(readId(buffer, position + HEADER_BYTES, idLength), pack(segment.number, position));
+				position += recordBytes;
+			}
+			segments.remove(segment.number);
+			segment.channel.close();
+		} finally {
+			swapLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Rewrites a sealed segment with only its live records and swaps it in place of the original file.
+	 */
+	private void compact(Segment segment) throws IOException {
+		Path compacted = segment.file.resolveSibling(segment.file.getFileName() + ".compact");
+		Map<String, Long> moved = new HashMap<>();
+		long written = 0;
+		ByteBuffer buffer = segment.buffer();
+		try (FileChannel out = FileChannel.open(compacted,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			int position = 0;
+			while (position < segment.size) {
+				int idLength = buffer.getInt(position);
+				int recordBytes = HEADER_BYTES + idLength + buffer.getInt(position + Integer.BYTES);
+				String id = readId(buffer, position + HEADER_BYTES, idLength);
+				if (Long.valueOf(pack(segment.number, position)).equals(index.get(id))) {
+					ByteBuffer record = buffer.duplicate().position(position).limit(position + recordBytes);
+					while (record.hasRemaining()) out.write(record);
+					moved.put(id, pack(segment.number, written));
+					written += recordBytes;
+				}
+				position += recordBytes;
+			}
+			out.force(true);
+		}
+		swapLock.writeLock().lock();
+		try {
+			segment.channel.close();
+			if (written == 0) {
+				segments.remove(segment.number);
+				Files.delete(compacted);
+				Files.delete(segment.file);
+				return;
+			}
+			Files.move(compacted, segment.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			segment.reopen(FileChannel.open(segment.file, StandardOpenOption.READ, StandardOpenOption.WRITE), written);
+			index.putAll(moved);
+		} finally {
+			swapLock.writeLock().unlock();
+		}
+	}
+
+	private static ChatGPTResponse parse(ByteBuffer buffer, int offset, int length) {
+		ByteBuffer body = buffer.duplicate().position(offset).limit(offset + length);
+		return new ChatGPTResponse(JsonBodyHandler.parse(new ByteBufferInputStream(body)));
+	}
+
+	private static String readId(ByteBuffer buffer, int offset, int length) {
+		byte[] id = new byte[length];
+		buffer.get(offset, id);
+		return new String(id, StandardCharsets.UTF_8);
+	}
+
+	private static String segmentName(long number) {
+		return String.format("%s%020d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX);
+	}
+
+	private static long pack(long segment, long offset) {
+		return (segment << OFFSET_BITS) | offset;
+	}
+
+	private static long segmentOf(long location) {
+		return location >>> OFFSET_BITS;
+	}
+
+	private static long offsetOf(long location) {
+		return location & OFFSET_MASK;
+	}
+
+	/**
+	 * A single segment file of the journal.
+	 */
+	private static class Segment {
+
+		private final long number;
+
+		private final Path file;
+
+		private FileChannel channel;
+
+		/**
+		 * Bytes written to the segment. Only modified by the writer thread.
+		 */
+		private long size;
+
+		/**
+		 * Bytes of the segment that are synced to disk and safe to read.
+		 */
+		private volatile long durableSize;
+
+		/**
+		 * Bytes of the segment that belong to superseded records. Only modified by the writer thread.
+		 */
+		private long deadBytes;
+
+		private MappedByteBuffer mapped;
+
+		private Segment(long number, Path file, FileChannel channel) {
+			this.number = number;
+			this.file = file;
+			this.channel = channel;
+		}
+
+		/**
+		 * Returns a read-only mapping of the durable part of the segment, remapping it if the segment has grown.
+		 */
+		private synchronized ByteBuffer buffer() throws IOException {
+			long durable = durableSize;
+			if (mapped == null || mapped.capacity() < durable) {
+				mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, durable);
+			}
+			return mapped.duplicate().limit((int) durable);
+		}
+
+		private synchronized void reopen(FileChannel channel, long size) {
+			this.channel = channel;
+			this.size = size;
+			this.durableSize = size;
+			this.deadBytes = 0;
+			this.mapped = null;
+		}
+	}
+
+	/**
+	 * A queued record together with the future completed once it is durable.
+	 */
+	private static class Entry {
+
+		private final String id;
+
+		private final byte[] body;
+
+		private final CompletableFuture<Void> written = new CompletableFuture<>();
+
+		private Entry(String id, byte[] body) {
+			this.id = id;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * Exposes a {@link ByteBuffer} as an {@link InputStream} without copying it.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) {
+			if (!buffer.hasRemaining()) return -1;
+			int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+	}
+}
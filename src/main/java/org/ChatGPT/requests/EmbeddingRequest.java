@@ -0,0 +1,178 @@
+package org.ChatGPT.requests;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.ChatGPT.builders.EmbeddingRequestBuilder;
+import org.ChatGPT.enums.EncodingFormat;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.interfaces.Request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a request to the ChatGPT embeddings endpoint.
+ * <p>
+ *     A request may hold more inputs than the endpoint accepts in a single call. {@link #getBatches()} splits it into
+ *     consecutive batches that respect the configured input count and length limits, the client sends each batch
+ *     separately and reassembles the vectors in the original input order.
+ * </p>
+ * <p>Class uses Google GSON library to convert all params to JSON format</p>
+ *
+ * @see EmbeddingRequestBuilder
+ */
+public class EmbeddingRequest implements Request {
+
+	/**
+	 * Default maximum total length of the inputs in one call, a conservative estimate of the per-call token limit.
+	 */
+	private static final int DEFAULT_MAX_CHARACTERS_PER_BATCH = 600_000;
+
+	/**
+	 * The embedding model.
+	 */
+	private final ModelType modelType;
+
+	/**
+	 * The texts to embed.
+	 */
+	private final List<String> inputs;
+
+	/**
+	 * The number of dimensions of the returned vectors, if provided.
+	 */
+	private final Integer dimensions;
+
+	/**
+	 * The format in which vectors are transferred.
+	 */
+	private final EncodingFormat encodingFormat;
+
+	/**
+	 * The maximum number of inputs sent in a single call.
+	 */
+	private final int maxInputsPerBatch;
+
+	/**
+	 * The maximum total length of the inputs sent in a single call.
+	 */
+	private final int maxCharactersPerBatch;
+
+	/**
+	 * Whether vectors are decoded into direct buffers.
+	 */
+	private final boolean directBuffers;
+
+	/**
+	 * Constructs a new {@link EmbeddingRequest} using the provided builder.
+	 *
+	 * @param builder The builder containing the necessary information for the request.
+	 * @throws RequestException If no inputs were added or dimensions are set for a model that does not support them.
+	 */
+	public EmbeddingRequest(EmbeddingRequestBuilder builder) {
+		this.modelType = builder.getModelType() != null ? builder.getModelType() : ModelType.TextEmbedding3Small;
+		this.encodingFormat = builder.getEncodingFormat() != null ? builder.getEncodingFormat() : EncodingFormat.BASE64;
+		this.maxInputsPerBatch = builder.getMaxInputsPerBatch() != null ? builder.getMaxInputsPerBatch() : EmbeddingRequestBuilder.MAX_INPUTS_PER_CALL;
+		this.maxCharactersPerBatch = builder.getMaxCharactersPerBatch() != null ? builder.getMaxCharactersPerBatch() : DEFAULT_MAX_CHARACTERS_PER_BATCH;
+		this.dimensions = builder.getDimensions();
+		this.directBuffers = builder.isDirectBuffers();
+		this.inputs = List.copyOf(builder.getInputs());
+
+		if (inputs.isEmpty())
+			throw new RequestException("Invalid request: at least one input must be provided. Use addInput() method");
+		if (dimensions != null && modelType == ModelType.TextEmbeddingAda002)
+			throw new RequestException("Invalid request: 'dimensions' is not supported by " + modelType.getModel());
+	}
+
+	/**
+	 * Constructs a batch of the given request that holds a part of its inputs.
+	 */
+	private EmbeddingRequest(EmbeddingRequest request, List<String> inputs) {
+		this.modelType = request.modelType;
+		this.encodingFormat = request.encodingFormat;
+		this.maxInputsPerBatch = request.maxInputsPerBatch;
+		this.maxCharactersPerBatch = request.maxCharactersPerBatch;
+		this.dimensions = request.dimensions;
+		this.directBuffers = request.directBuffers;
+		this.inputs = inputs;
+	}
+
+	/**
+	 * Gets the embedding model of the request.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the texts to embed.
+	 *
+	 * @return An unmodifiable list of inputs.
+	 */
+	public List<String> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * Gets the format in which vectors are transferred.
+	 *
+	 * @return The encoding format.
+	 */
+	public EncodingFormat getEncodingFormat() {
+		return encodingFormat;
+	}
+
+	/**
+	 * Gets whether vectors are decoded into direct buffers.
+	 *
+	 * @return {@code true} if direct buffers are used.
+	 */
+	public boolean isDirectBuffers() {
+		return directBuffers;
+	}
+
+	/**
+	 * Splits the request into consecutive batches, each within the configured input count and length limits.
+	 * A single input longer than the length limit is sent in a batch of its own.
+	 *
+	 * @return The batches, in input order. A request that fits in one call is returned as its only batch.
+	 */
+	public List<EmbeddingRequest> getBatches() {
+		List<EmbeddingRequest> batches = new ArrayList<>();
+		int start = 0;
+		int characters = 0;
+		for (int i = 0; i < inputs.size(); i++) {
+			int length = inputs.get(i).length();
+			if (i > start && (i - start == maxInputsPerBatch || characters + length > maxCharactersPerBatch)) {
+				batches.add(new EmbeddingRequest(this, inputs.subList(start, i)));
+				start = i;
+				characters = 0;
+			}
+			characters += length;
+		}
+		if (start == 0) return List.of(this);
+		batches.add(new EmbeddingRequest(this, inputs.subList(start, inputs.size())));
+		return batches;
+	}
+
+	/**
+	 * Converts the {@link EmbeddingRequest} object to its JSON representation.
+	 * This includes the model type, inputs, encoding format and dimensions (if provided).
+	 *
+	 * @return A JSON string representing the {@link EmbeddingRequest}.
+	 */
+	@Override
+	public String getJson() {
+		JsonObject request = new JsonObject();
+		request.addProperty("model", this.modelType.getModel());
+		JsonArray input = new JsonArray(inputs.size());
+		for (String text : inputs) input.add(text);
+		request.add("input", input);
+		request.addProperty("encoding_format", this.encodingFormat.getFormat());
+		if (dimensions != null) request.addProperty("dimensions", this.dimensions);
+		return request.toString();
+	}
+}
@@ -0,0 +1,159 @@
+package org.ChatGPT.requests;
+
+import com.google.gson.JsonObject;
+import org.ChatGPT.builders.ImageRequestBuilder;
+import org.ChatGPT.enums.ImageQuality;
+import org.ChatGPT.enums.ImageResponseFormat;
+import org.ChatGPT.enums.ImageSize;
+import org.ChatGPT.enums.ImageStyle;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.interfaces.Request;
+
+import java.util.Set;
+
+/**
+ * Represents a request to the ChatGPT image generation endpoint.
+ * <p>Class uses Google GSON library to convert all params to JSON format</p>
+ *
+ * @see ImageRequestBuilder
+ */
+public class ImageRequest implements Request {
+
+	private static final Set<ImageSize> DALLE2_SIZES = Set.of(ImageSize.S256x256, ImageSize.S512x512, ImageSize.S1024x1024);
+
+	private static final Set<ImageSize> DALLE3_SIZES = Set.of(ImageSize.S1024x1024, ImageSize.S1792x1024, ImageSize.S1024x1792);
+
+	/**
+	 * The image model.
+	 */
+	private final ModelType modelType;
+
+	/**
+	 * The description of the desired images.
+	 */
+	private final String prompt;
+
+	/**
+	 * The number of images to generate. (In ChatGPT documentation, this parameter called 'n')
+	 */
+	private final int numOfImages;
+
+	/**
+	 * The size of the generated images.
+	 */
+	private final ImageSize size;
+
+	/**
+	 * The quality of the generated images, if provided.
+	 */
+	private final ImageQuality quality;
+
+	/**
+	 * The style of the generated images, if provided.
+	 */
+	private final ImageStyle style;
+
+	/**
+	 * The format in which images are returned.
+	 */
+	private final ImageResponseFormat responseFormat;
+
+	/**
+	 * Constructs a new {@link ImageRequest} using the provided builder.
+	 *
+	 * @param builder The builder containing the necessary information for the request.
+	 * @throws RequestException If the prompt is missing or a parameter is not supported by the model.
+	 */
+	public ImageRequest(ImageRequestBuilder builder) {
+		this.modelType = builder.getModelType() != null ? builder.getModelType() : ModelType.Dalle3;
+		this.prompt = builder.getPrompt();
+		this.numOfImages = builder.getNumOfImages() != null ? builder.getNumOfImages() : 1;
+		this.size = builder.getSize() != null ? builder.getSize() : ImageSize.S1024x1024;
+		this.quality = builder.getQuality();
+		this.style = builder.getStyle();
+		this.responseFormat = builder.getResponseFormat() != null ? builder.getResponseFormat() : ImageResponseFormat.B64_JSON;
+
+		if (prompt == null)
+			throw new RequestException("Invalid request: 'prompt' must not be null, empty or blank. Provide a valid prompt");
+		if (!(modelType == ModelType.Dalle3 ? DALLE3_SIZES : DALLE2_SIZES).contains(size))
+			throw new RequestException("Invalid request: size " + size.getSize() + " is not supported by " + modelType.getModel());
+		if (modelType == ModelType.Dalle3 && numOfImages != 1)
+			throw new RequestException("Invalid request: " + modelType.getModel() + " generates only 1 image per request");
+		if (modelType == ModelType.Dalle2 && (quality != null || style != null))
+			throw new RequestException("Invalid request: 'quality' and 'style' are not supported by " + modelType.getModel());
+	}
+
+	/**
+	 * Gets the image model of the request.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the prompt of the request.
+	 *
+	 * @return The prompt.
+	 */
+	public String getPrompt() {
+		return prompt;
+	}
+
+	/**
+	 * Gets the number of images to generate.
+	 *
+	 * @return The number of images.
+	 */
+	public int getNumOfImages() {
+		return numOfImages;
+	}
+
+	/**
+	 * Gets the size of the generated images.
+	 *
+	 * @return The image size.
+	 */
+	public ImageSize getSize() {
+		return size;
+	}
+
+	/**
+	 * Gets the quality of the generated images.
+	 *
+	 * @return The image quality, or {@code null} for the model's default.
+	 */
+	public ImageQuality getQuality() {
+		return quality;
+	}
+
+	/**
+	 * Gets the format in which images are returned.
+	 *
+	 * @return The response format.
+	 */
+	public ImageResponseFormat getResponseFormat() {
+		return responseFormat;
+	}
+
+	/**
+	 * Converts the {@link ImageRequest} object to its JSON representation.
+	 * This includes the model type, prompt, number of images, size, response format, and quality and style (if provided).
+	 *
+	 * @return A JSON string representing the {@link ImageRequest}.
+	 */
+	@Override
+	public String getJson() {
+		JsonObject request = new JsonObject();
+		request.addProperty("model", this.modelType.getModel());
+		request.addProperty("prompt", this.prompt);
+		request.addProperty("n", this.numOfImages);
+		request.addProperty("size", this.size.getSize());
+		request.addProperty("response_format", this.responseFormat.getFormat());
+		if (quality != null) request.addProperty("quality", this.quality.getQuality());
+		if (style != null) request.addProperty("style", this.style.getStyle());
+		return request.toString();
+	}
+}
@@ -7,6 +7,7 @@ import org.ChatGPT.enums.ModelType;
 import org.ChatGPT.exceptions.RequestException;
 import org.ChatGPT.interfaces.Request;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -48,11 +49,41 @@ public class TextRequest implements Request {
 	 */
 	private final Integer numOfResponsesPerRequest;
 
+	/**
+	 * The time budget of the request, if provided. Not part of the JSON body.
+	 */
+	private final Duration timeout;
+
+	/**
+	 * The name of the JSON schema the response must follow, if provided.
+	 */
+	private final String responseSchemaName;
+
+	/**
+	 * The JSON schema the response must follow, if provided.
+	 */
+	private final JsonObject responseSchema;
+
+	/**
+	 * The tag usage is accounted under, if provided. Not part of the JSON body.
+	 */
+	private final String tag;
+
+	/**
+	 * The key of the conversation the request belongs to, if provided. Not part of the JSON body.
+	 */
+	private final String conversationKey;
+
+	/**
+	 * The predicted content of the response, if provided.
+	 */
+	private final String prediction;
+
 	/**
 	 * Constructs a new {@link TextRequest} using the provided builder.
 	 *
 	 * @param textRequestBuilder The builder containing the necessary information for the request.
-	 * @throws RequestException If the userContent is null, empty, or blank.
+	 * @throws RequestException If the userContent is null, empty, or blank, or if a prediction is set for an unsupported model or number of responses.
 	 */
 	public TextRequest(TextRequestBuilder textRequestBuilder) {
 		this.modelType = textRequestBuilder.getModelType() != null ? textRequestBuilder.getModelType() : ModelType.GPT4omini;
@@ -61,19 +92,163 @@ public class TextRequest implements Request {
 		this.userContent = textRequestBuilder.getUserContent();
 		this.systemContent = textRequestBuilder.getSystemContent();
 		this.assistantContent = textRequestBuilder.getAssistantContent();
+		this.timeout = textRequestBuilder.getTimeout();
+		this.responseSchemaName = textRequestBuilder.getResponseSchemaName();
+		this.responseSchema = textRequestBuilder.getResponseSchema() != null ? textRequestBuilder.getResponseSchema().deepCopy() : null;
+		this.tag = textRequestBuilder.getTag();
+		this.conversationKey = textRequestBuilder.getConversationKey();
+		this.prediction = textRequestBuilder.getPrediction();
 
 		if (userContent == null)
 			throw new RequestException("Invalid request: 'userContent' must not be null, empty or blank. Provide a valid prompt");
+		if (prediction != null && !modelType.supportsPredictions())
+			throw new RequestException("Invalid request: predictions are not supported by " + modelType.getModel() + ". Use GPT4o or GPT4omini");
+		if (prediction != null && numOfResponsesPerRequest != 1)
+			throw new RequestException("Invalid request: predictions require 'n' to be 1");
+	}
+
+	/**
+	 * Constructs a copy of a {@link TextRequest} with another model.
+	 */
+	private TextRequest(TextRequest request, ModelType modelType) {
+		this.modelType = modelType;
+		this.temperature = request.temperature;
+		this.numOfResponsesPerRequest = request.numOfResponsesPerRequest;
+		this.userContent = request.userContent;
+		this.systemContent = request.systemContent;
+		this.assistantContent = request.assistantContent;
+		this.timeout = request.timeout;
+		this.responseSchemaName = request.responseSchemaName;
+		this.responseSchema = request.responseSchema;
+		this.tag = request.tag;
+		this.conversationKey = request.conversationKey;
+		this.prediction = request.prediction;
+	}
+
+	/**
+	 * Returns a copy of this request sent to another model, e.g. to escalate it to a stronger one.
+	 *
+	 * @param modelType The model of the copy.
+	 * @return This request if the model is the same, otherwise a copy with the other model.
+	 * @throws RequestException If the model is not a chat model, or the request has a prediction the model doesn't support.
+	 */
+	public TextRequest withModel(ModelType modelType) {
+		if (modelType == this.modelType) return this;
+		if (modelType.isImageModel() || modelType.isEmbeddingModel() || modelType.isAudioModel())
+			throw new RequestException("Invalid request: " + modelType.getModel() + " model is not compatible with TextRequest");
+		if (prediction != null && !modelType.supportsPredictions())
+			throw new RequestException("Invalid request: predictions are not supported by " + modelType.getModel() + ". Use GPT4o or GPT4omini");
+		return new TextRequest(this, modelType);
+	}
+
+	/**
+	 * Gets the model type used for generating responses.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the temperature of the request.
+	 *
+	 * @return The temperature value.
+	 */
+	public Double getTemperature() {
+		return temperature;
+	}
+
+	/**
+	 * Gets the assistant content of the request.
+	 *
+	 * @return The assistant content, or {@code null} if not provided.
+	 */
+	public String getAssistantContent() {
+		return assistantContent;
+	}
+
+	/**
+	 * Gets the system content of the request.
+	 *
+	 * @return The system content, or {@code null} if not provided.
+	 */
+	public String getSystemContent() {
+		return systemContent;
+	}
+
+	/**
+	 * Gets the user content (the prompt) of the request.
+	 *
+	 * @return The user content.
+	 */
+	public String getUserContent() {
+		return userContent;
+	}
+
+	/**
+	 * Gets the number of responses generated for the request.
+	 *
+	 * @return The number of responses.
+	 */
+	public Integer getNumOfResponses() {
+		return numOfResponsesPerRequest;
+	}
+
+	/**
+	 * Gets the JSON schema the response must follow.
+	 *
+	 * @return A copy of the schema, or {@code null} if the response is free-form text.
+	 */
+	public JsonObject getResponseSchema() {
+		return responseSchema != null ? responseSchema.deepCopy() : null;
+	}
+
+	/**
+	 * Gets the time budget of the request.
+	 *
+	 * @return The timeout, or {@code null} if the client's default applies.
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Gets the tag the request's usage is accounted under.
+	 *
+	 * @return The tag, or {@code null} if untagged.
+	 */
+	public String getTag() {
+		return tag;
+	}
+
+	/**
+	 * Gets the key of the conversation the request belongs to.
+	 *
+	 * @return The conversation key, or {@code null} if not provided.
+	 */
+	public String getConversationKey() {
+		return conversationKey;
+	}
+
+	/**
+	 * Gets the predicted content of the response.
+	 *
+	 * @return The prediction, or {@code null} if not provided.
+	 */
+	public String getPrediction() {
+		return prediction;
 	}
 
 	/**
 	 * Creates the default prompt in Json, which includes the model, temperature, and number of responses.
 	 *
+	 * @param model The model name sent.
 	 * @return A {@link JsonObject} representing the default prompt.
 	 */
-	private JsonObject createDefaultPrompt() {
+	private JsonObject createDefaultPrompt(String model) {
 		JsonObject prompt = new JsonObject();
-		prompt.addProperty("model", this.modelType.getModel());
+		prompt.addProperty("model", model);
 		prompt.addProperty("temperature", this.temperature);
 		prompt.addProperty("n", this.numOfResponsesPerRequest);
 		return prompt;
@@ -116,19 +291,97 @@ public class TextRequest implements Request {
 	}
 
 	/**
-	 * Converts the {@link TextRequest} object to its JSON representation.
-	 * This includes the model type, temperature, number of responses, and messages (user, system, assistant).
+	 * Creates the response format in the JSON format, if a schema is provided.
 	 *
-	 * @return A JSON string representing the {@link TextRequest}.
+	 * @return A {@link JsonObject} representing a strict {@code json_schema} response format.
 	 */
-	@Override
-	public String getJson() {
-		JsonObject prompt = createDefaultPrompt();
+	private JsonObject createResponseFormat() {
+		JsonObject jsonSchema = new JsonObject();
+		jsonSchema.addProperty("name", this.responseSchemaName);
+		jsonSchema.add("schema", this.responseSchema);
+		jsonSchema.addProperty("strict", true);
+		JsonObject responseFormat = new JsonObject();
+		responseFormat.addProperty("type", "json_schema");
+		responseFormat.add("json_schema", jsonSchema);
+		return responseFormat;
+	}
+
+	/**
+	 * Creates the prediction in the JSON format, if provided.
+	 *
+	 * @return A {@link JsonObject} representing a static {@code content} prediction.
+	 */
+	private JsonObject createPrediction() {
+		JsonObject prediction = new JsonObject();
+		prediction.addProperty("type", "content");
+		prediction.addProperty("content", this.prediction);
+		return prediction;
+	}
+
+	/**
+	 * Builds the JSON tree of the request.
+	 *
+	 * @param model The model name sent.
+	 * @return A {@link JsonObject} with the model type, temperature, number of responses, response format, prediction and messages.
+	 */
+	private JsonObject createPrompt(String model) {
+		JsonObject prompt = createDefaultPrompt(model);
 		List<JsonObject> messages = new ArrayList<>();
 		messages.add(createUserContent());
 		if (systemContent != null) messages.add(createSystemContent());
 		if (assistantContent != null) messages.add(createAssistantContent());
 		prompt.add("messages", new Gson().toJsonTree(messages.toArray()));
+		if (responseSchema != null) prompt.add("response_format", createResponseFormat());
+		if (prediction != null) prompt.add("prediction", createPrediction());
+		return prompt;
+	}
+
+	/**
+	 * Converts the {@link TextRequest} object to its JSON representation.
+	 * This includes the model type, temperature, number of responses, messages (user, system, assistant), response format and prediction.
+	 *
+	 * @return A JSON string representing the {@link TextRequest}.
+	 */
+	@Override
+	public String getJson() {
+		return getJson(modelType.getModel());
+	}
+
+	/**
+	 * Converts the {@link TextRequest} object to its JSON representation, with another name for its model,
+	 * e.g. the name a proxy endpoint serves the model under.
+	 *
+	 * @param model The model name sent.
+	 * @return A JSON string representing the {@link TextRequest}.
+	 */
+	public String getJson(String model) {
+		return createPrompt(model).toString();
+	}
+
+	/**
+	 * Converts the {@link TextRequest} object to its JSON representation for a streamed response.
+	 * Same as {@link #getJson()}, with {@code stream} enabled and usage included in the last chunk.
+	 *
+	 * @return A JSON string representing the streamed {@link TextRequest}.
+	 */
+	public String getStreamingJson() {
+		return getStreamingJson(modelType.getModel());
+	}
+
+	/**
+	 * Converts the {@link TextRequest} object to its JSON representation for a streamed response, with another name
+	 * for its model.
+	 *
+	 * @param model The model name sent.
+	 * @return A JSON string representing the streamed {@link TextRequest}.
+	 * @see #getJson(String)
+	 */
+	public String getStreamingJson(String model) {
+		JsonObject prompt = createPrompt(model);
+		prompt.addProperty("stream", true);
+		JsonObject streamOptions = new JsonObject();
+		streamOptions.addProperty("include_usage", true);
+		prompt.add("stream_options", streamOptions);
 		return prompt.toString();
 	}
 }
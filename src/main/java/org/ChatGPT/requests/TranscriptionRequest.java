@@ -0,0 +1,187 @@
+package org.ChatGPT.requests;
+
+import com.google.gson.JsonObject;
+import org.ChatGPT.builders.TranscriptionRequestBuilder;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.enums.TranscriptionFormat;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.interfaces.Request;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Represents a request to the ChatGPT audio transcription endpoint.
+ * <p>
+ *     The endpoint takes a {@code multipart/form-data} body: the audio file, streamed from disk when the request is sent,
+ *     and the parameters as text fields. {@link #getJson()} returns those fields as a JSON object.
+ * </p>
+ *
+ * @see TranscriptionRequestBuilder
+ */
+public class TranscriptionRequest implements Request {
+
+	/**
+	 * The maximum size of an audio file accepted by the endpoint.
+	 */
+	public static final long MAX_FILE_BYTES = 25L * 1024 * 1024;
+
+	/**
+	 * The transcription model.
+	 */
+	private final ModelType modelType;
+
+	/**
+	 * The audio file to transcribe.
+	 */
+	private final Path file;
+
+	/**
+	 * The size of the audio file when the request was built.
+	 */
+	private final long fileSize;
+
+	/**
+	 * The ISO-639-1 language of the audio, if provided.
+	 */
+	private final String language;
+
+	/**
+	 * The prompt guiding the transcript, if provided.
+	 */
+	private final String prompt;
+
+	/**
+	 * The sampling temperature.
+	 */
+	private final Double temperature;
+
+	/**
+	 * The format of the transcript.
+	 */
+	private final TranscriptionFormat responseFormat;
+
+	/**
+	 * The time budget of the request, if provided. Not part of the body.
+	 */
+	private final Duration timeout;
+
+	/**
+	 * Constructs a new {@link TranscriptionRequest} using the provided builder.
+	 *
+	 * @param builder The builder containing the necessary information for the request.
+	 * @throws RequestException If the file is missing, unreadable or larger than {@value #MAX_FILE_BYTES} bytes.
+	 */
+	public TranscriptionRequest(TranscriptionRequestBuilder builder) {
+		this.modelType = builder.getModelType() != null ? builder.getModelType() : ModelType.Whisper1;
+		this.temperature = builder.getTemperature() != null ? builder.getTemperature() : 0;
+		this.responseFormat = builder.getResponseFormat() != null ? builder.getResponseFormat() : TranscriptionFormat.JSON;
+		this.file = builder.getFile();
+		this.language = builder.getLanguage();
+		this.prompt = builder.getPrompt();
+		this.timeout = builder.getTimeout();
+
+		if (file == null)
+			throw new RequestException("Invalid request: 'file' must not be null. Use setFile() method");
+		if (!Files.isRegularFile(file) || !Files.isReadable(file))
+			throw new RequestException("Invalid request: " + file + " is not a readable file");
+		try {
+			this.fileSize = Files.size(file);
+		} catch (IOException e) {
+			throw new RequestException("Invalid request: cannot read the size of " + file, e);
+		}
+		if (fileSize > MAX_FILE_BYTES)
+			throw new RequestException("Invalid request: " + file + " is larger than " + MAX_FILE_BYTES + " bytes. Split the audio into segments");
+	}
+
+	/**
+	 * Gets the transcription model of the request.
+	 *
+	 * @return The model type.
+	 */
+	public ModelType getModelType() {
+		return modelType;
+	}
+
+	/**
+	 * Gets the audio file of the request.
+	 *
+	 * @return The path of the audio file.
+	 */
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Gets the size of the audio file when the request was built.
+	 *
+	 * @return The size in bytes.
+	 */
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	/**
+	 * Gets the language of the audio.
+	 *
+	 * @return The ISO-639-1 language, or {@code null} if not provided.
+	 */
+	public String getLanguage() {
+		return language;
+	}
+
+	/**
+	 * Gets the prompt guiding the transcript.
+	 *
+	 * @return The prompt, or {@code null} if not provided.
+	 */
+	public String getPrompt() {
+		return prompt;
+	}
+
+	/**
+	 * Gets the sampling temperature of the request.
+	 *
+	 * @return The temperature value.
+	 */
+	public Double getTemperature() {
+		return temperature;
+	}
+
+	/**
+	 * Gets the format of the transcript.
+	 *
+	 * @return The response format.
+	 */
+	public TranscriptionFormat getResponseFormat() {
+		return responseFormat;
+	}
+
+	/**
+	 * Gets the time budget of the request.
+	 *
+	 * @return The timeout, or {@code null} if the client's default applies.
+	 */
+	public Duration getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Converts the text fields of the {@link TranscriptionRequest} to their JSON representation.
+	 * This includes the model type, temperature, response format, and language and prompt (if provided), but not the file.
+	 *
+	 * @return A JSON string with one property per form field.
+	 */
+	@Override
+	public String getJson() {
+		JsonObject request = new JsonObject();
+		request.addProperty("model", this.modelType.getModel());
+		request.addProperty("temperature", this.temperature);
+		request.addProperty("response_format", this.responseFormat.getFormat());
+		if (language != null) request.addProperty("language", this.language);
+		if (prompt != null) request.addProperty("prompt", this.prompt);
+		return request.toString();
+	}
+}
@@ -0,0 +1,264 @@
+package org.ChatGPT.routing;
+
+import org.ChatGPT.enums.AuthStyle;
+import org.ChatGPT.enums.ModelType;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A chat completion endpoint compatible with OpenAI's API: OpenAI itself, a regional proxy or an Azure OpenAI resource.
+ * <p>
+ *     An endpoint has a base URI, an authentication header style, optionally its own API key, and a mapping from
+ *     {@link ModelType} to the name it serves the model under (a proxy's model alias, or an Azure deployment).
+ *     OpenAI-style endpoints serve every chat model, unmapped models under their own name. Azure endpoints only serve
+ *     mapped models, as each model needs a deployment.
+ * </p>
+ * <p>
+ *     Endpoints also keep the statistics {@link EndpointRouter} routes by: an exponentially weighted moving average of
+ *     the latency and of the error rate, and whether the endpoint is currently marked unhealthy. Configure an endpoint
+ *     before passing it to a router.
+ * </p>
+ */
+public class Endpoint {
+
+	private final String name;
+
+	private final URI baseUri;
+
+	private final AuthStyle authStyle;
+
+	/**
+	 * The {@code api-version} query parameter of Azure endpoints, {@code null} for OpenAI-style endpoints.
+	 */
+	private final String apiVersion;
+
+	private final Map<ModelType, String> models = new EnumMap<>(ModelType.class);
+
+	private volatile String apiKey;
+
+	private volatile double latencyNanos;
+
+	private volatile double errorRate;
+
+	private volatile long samples;
+
+	private int consecutiveFailures;
+
+	/**
+	 * The {@link System#nanoTime()} until which the endpoint is unhealthy.
+	 */
+	private volatile long unhealthyUntil = System.nanoTime();
+
+	private Endpoint(String name, URI baseUri, AuthStyle authStyle, String apiVersion) {
+		this.name = name;
+		String base = baseUri.toString();
+		this.baseUri = URI.create(base.endsWith("/") ? base.substring(0, base.length() - 1) : base);
+		this.authStyle = authStyle;
+		this.apiVersion = apiVersion;
+	}
+
+	/**
+	 * Creates an endpoint with OpenAI's paths and bearer authentication.
+	 *
+	 * @param name    The name of the endpoint, also used for conversation affinity, so it should be stable across restarts.
+	 * @param baseUri The base URI the paths are appended to, e.g. {@code https://api.openai.com/v1}.
+	 * @return The endpoint.
+	 */
+	public static Endpoint openAi(String name, URI baseUri) {
+		return new Endpoint(name, baseUri, AuthStyle.BEARER, null);
+	}
+
+	/**
+	 * Creates an Azure OpenAI endpoint, with deployment paths and {@code api-key} authentication.
+	 * Map each served model to its deployment with {@link #mapModel(ModelType, String)}.
+	 *
+	 * @param name        The name of the endpoint, also used for conversation affinity.
+	 * @param resourceUri The URI of the resource, e.g. {@code https://my-resource.openai.azure.com}.
+	 * @param apiVersion  The API version, e.g. {@code 2024-10-21}.
+	 * @return The endpoint.
+	 */
+	public static Endpoint azure(String name, URI resourceUri, String apiVersion) {
+		return new Endpoint(name, resourceUri, AuthStyle.API_KEY, apiVersion);
+	}
+
+	/**
+	 * Maps a model to the name the endpoint serves it under.
+	 *
+	 * @param model The model.
+	 * @param name  The model alias, or the deployment for Azure endpoints.
+	 * @return This endpoint for chaining.
+	 */
+	public Endpoint mapModel(ModelType model, String name) {
+		synchronized (models) {
+			models.put(model, name);
+		}
+		return this;
+	}
+
+	/**
+	 * Sets the API key of the endpoint, used instead of the key passed to the client.
+	 *
+	 * @param apiKey The API key.
+	 * @return This endpoint for chaining.
+	 */
+	public Endpoint setApiKey(String apiKey) {
+		this.apiKey = apiKey;
+		return this;
+	}
+
+	/**
+	 * Returns the name of the endpoint.
+	 *
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the base URI of the endpoint.
+	 *
+	 * @return The base URI, without a trailing slash.
+	 */
+	public URI getBaseUri() {
+		return baseUri;
+	}
+
+	/**
+	 * Returns how requests to the endpoint are authenticated.
+	 *
+	 * @return The authentication header style.
+	 */
+	public AuthStyle getAuthStyle() {
+		return authStyle;
+	}
+
+	/**
+	 * Returns whether the endpoint serves a model.
+	 *
+	 * @param model The model.
+	 * @return {@code true} if requests for the model can be sent to the endpoint.
+	 */
+	public boolean supports(ModelType model) {
+		synchronized (models) {
+			return apiVersion == null || models.containsKey(model);
+		}
+	}
+
+	/**
+	 * Returns the name the endpoint serves a model under.
+	 *
+	 * @param model The model.
+	 * @return The mapped name, or the model's own name.
+	 */
+	public String getModelName(ModelType model) {
+		synchronized (models) {
+			return models.getOrDefault(model, model.getModel());
+		}
+	}
+
+	/**
+	 * Returns the chat completion URI of a model.
+	 *
+	 * @param model The model.
+	 * @return The URI.
+	 */
+	public URI getChatCompletionsUri(ModelType model) {
+		if (apiVersion == null) return URI.create(baseUri + "/chat/completions");
+		return URI.create(baseUri + "/openai/deployments/" + getModelName(model) + "/chat/completions?api-version=" + apiVersion);
+	}
+
+	/**
+	 * Returns a URI answering cheap GET requests, used to open and keep alive connections.
+	 *
+	 * @return The URI of the model list.
+	 */
+	public URI getWarmUpUri() {
+		if (apiVersion == null) return URI.create(baseUri + "/models");
+		return URI.create(baseUri + "/openai/models?api-version=" + apiVersion);
+	}
+
+	/**
+	 * Adds the authentication header to a request.
+	 *
+	 * @param request The request.
+	 * @param apiKey  The key passed to the client, used if the endpoint has none.
+	 * @return The request for chaining.
+	 */
+	public HttpRequest.Builder authorize(HttpRequest.Builder request, String apiKey) {
+		String key = this.apiKey != null ? this.apiKey : apiKey;
+		if (key != null) request.header(authStyle.getHeader(), authStyle.getPrefix() + key);
+		return request;
+	}
+
+	/**
+	 * Returns the moving average of the latency of successful calls.
+	 *
+	 * @return The latency, zero before the first call.
+	 */
+	public Duration getLatency() {
+		return Duration.ofNanos((long) latencyNanos);
+	}
+
+	/**
+	 * Returns the moving average of the error rate.
+	 *
+	 * @return The error rate, between 0 and 1.
+	 */
+	public double getErrorRate() {
+		return errorRate;
+	}
+
+	/**
+	 * Returns whether the endpoint is healthy, i.e. not within the cooldown after being marked unhealthy.
+	 *
+	 * @return {@code true} if the endpoint is healthy.
+	 */
+	public boolean isHealthy() {
+		return System.nanoTime() - unhealthyUntil >= 0;
+	}
+
+	long getSamples() {
+		return samples;
+	}
+
+	long getUnhealthyUntil() {
+		return unhealthyUntil;
+	}
+
+	/**
+	 * Records the outcome of a call, marking the endpoint unhealthy for {@code cooldownNanos} after
+	 * {@code failureThreshold} consecutive failures or once the error rate reaches {@code errorRateThreshold}.
+	 * After the cooldown a single failure marks it unhealthy again, a success restores it.
+	 */
+	synchronized void record(long latencyNanos, boolean success, double smoothing, int failureThreshold, double errorRateThreshold, long cooldownNanos) {
+		if (success) {
+			this.latencyNanos = this.latencyNanos == 0 ? latencyNanos : this.latencyNanos + smoothing * (latencyNanos - this.latencyNanos);
+			this.errorRate = errorRate * (1 - smoothing);
+			consecutiveFailures = 0;
+		} else {
+			this.errorRate = errorRate * (1 - smoothing) + smoothing;
+			consecutiveFailures++;
+			if (consecutiveFailures >= failureThreshold || errorRate >= errorRateThreshold) {
+				unhealthyUntil = System.nanoTime() + cooldownNanos;
+			}
+		}
+		samples++;
+	}
+
+	/**
+	 * Marks the endpoint unhealthy for {@code cooldownNanos}, regardless of its failure counts.
+	 */
+	synchronized void markUnhealthy(long cooldownNanos) {
+		unhealthyUntil = System.nanoTime() + cooldownNanos;
+	}
+
+	@Override
+	public String toString() {
+		return name + " (" + baseUri + ")";
+	}
+}
@@ -0,0 +1,178 @@
+package org.ChatGPT.routing;
+
+import org.ChatGPT.enums.ModelType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Routes chat completion requests across several {@link Endpoint}s, with latency-aware selection and failover.
+ * <p>
+ *     Each endpoint is scored by its moving average latency, inflated by its error rate. A request without a conversation
+ *     key goes to the better of two randomly chosen healthy endpoints ("power of two choices"), which favours fast
+ *     endpoints while still spreading load and refreshing the statistics of the others. A request with a conversation key
+ *     goes to the healthy endpoint with the highest rendezvous hash of the key and the endpoint name, so a conversation
+ *     sticks to one endpoint and reuses its prompt cache, and only the conversations of a failed endpoint move.
+ * </p>
+ * <p>
+ *     After {@code failureThreshold} consecutive failures, or once its error rate reaches {@code errorRateThreshold},
+ *     an endpoint is unhealthy for {@code cooldown}: it is only tried when no healthy endpoint is left. The client fails
+ *     over to the next endpoint of the route on connection errors, timeouts of a single attempt, rate limiting and server
+ *     errors, as long as the request's deadline allows. An endpoint that rejects its API key (401, 403) or has no
+ *     deployment of the model (404) is marked unhealthy at once and the request fails over as well.
+ * </p>
+ *
+ * @see org.ChatGPT.ChatGPTClient#setEndpointRouter(EndpointRouter)
+ */
+public class EndpointRouter {
+
+	private final List<Endpoint> endpoints;
+
+	private volatile double smoothing = 0.2;
+
+	private volatile int failureThreshold = 3;
+
+	private volatile double errorRateThreshold = 0.5;
+
+	private volatile Duration cooldown = Duration.ofSeconds(30);
+
+	/**
+	 * Constructs a router.
+	 *
+	 * @param endpoints The endpoints, with distinct names.
+	 * @throws IllegalArgumentException If there is no endpoint or two endpoints share a name.
+	 */
+	public EndpointRouter(List<Endpoint> endpoints) {
+		if (endpoints.isEmpty()) throw new IllegalArgumentException("At least one endpoint is required");
+		if (endpoints.stream().map(Endpoint::getName).distinct().count() != endpoints.size())
+			throw new IllegalArgumentException("Endpoint names must be distinct");
+		this.endpoints = List.copyOf(endpoints);
+	}
+
+	/**
+	 * Sets the weight of the latest call in the moving averages. By default 0.2.
+	 *
+	 * @param smoothing The weight, in (0, 1].
+	 * @return This router for chaining.
+	 * @throws IllegalArgumentException If the weight is out of range.
+	 */
+	public EndpointRouter setSmoothing(double smoothing) {
+		if (smoothing <= 0 || smoothing > 1) throw new IllegalArgumentException("Smoothing must be in (0, 1]");
+		this.smoothing = smoothing;
+		return this;
+	}
+
+	/**
+	 * Sets when an endpoint is marked unhealthy, and for how long. By default after 3 consecutive failures or an error rate
+	 * of 50%, for 30 seconds.
+	 *
+	 * @param failureThreshold   The number of consecutive failures.
+	 * @param errorRateThreshold The error rate, in (0, 1].
+	 * @param cooldown           How long the endpoint stays unhealthy.
+	 * @return This router for chaining.
+	 * @throws IllegalArgumentException If a value is out of range.
+	 */
+	public EndpointRouter setHealthPolicy(int failureThreshold, double errorRateThreshold, Duration cooldown) {
+		if (failureThreshold < 1) throw new IllegalArgumentException("Failure threshold must be at least 1");
+		if (errorRateThreshold <= 0 || errorRateThreshold > 1) throw new IllegalArgumentException("Error rate threshold must be in (0, 1]");
+		if (cooldown.isNegative()) throw new IllegalArgumentException("Cooldown must not be negative");
+		this.failureThreshold = failureThreshold;
+		this.errorRateThreshold = errorRateThreshold;
+		this.cooldown = cooldown;
+		return this;
+	}
+
+	/**
+	 * Returns the endpoints of the router.
+	 *
+	 * @return The endpoints, in the order they were given.
+	 */
+	public List<Endpoint> getEndpoints() {
+		return endpoints;
+	}
+
+	/**
+	 * Returns the endpoints to try for a request, in order: the chosen endpoint first, then the failover candidates.
+	 *
+	 * @param model           The model of the request.
+	 * @param conversationKey The conversation key of the request, or {@code null}.
+	 * @return The endpoints serving the model, healthy ones first. Empty if no endpoint serves the model.
+	 */
+	public List<Endpoint> route(ModelType model, String conversationKey) {
+		List<Endpoint> healthy = new ArrayList<>(endpoints.size());
+		List<Endpoint> unhealthy = new ArrayList<>();
+		for (Endpoint endpoint : endpoints) {
+			if (!endpoint.supports(model)) continue;
+			(endpoint.isHealthy() ? healthy : unhealthy).add(endpoint);
+		}
+		if (conversationKey != null) {
+			long key = hash(conversationKey);
+			healthy.sort(Comparator.comparingLong((Endpoint endpoint) -> mix(key ^ hash(endpoint.getName()))).reversed());
+		} else {
+			healthy.sort(Comparator.comparingDouble(EndpointRouter::score));
+			if (healthy.size() > 2) {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				int first = random.nextInt(healthy.size());
+				int second = random.nextInt(healthy.size() - 1);
+				if (second >= first) second++;
+				// The list is sorted, so the lower index has the better score.
+				Endpoint chosen = healthy.remove(Math.min(first, second));
+				healthy.add(0, chosen);
+			}
+		}
+		unhealthy.sort(Comparator.comparingLong(endpoint -> endpoint.getUnhealthyUntil() - System.nanoTime()));
+		healthy.addAll(unhealthy);
+		return healthy;
+	}
+
+	/**
+	 * Records the outcome of a call to an endpoint.
+	 *
+	 * @param endpoint     The endpoint.
+	 * @param latencyNanos The duration of the call.
+	 * @param success      Whether the endpoint answered; a rejected request (e.g. 400) still counts as answered.
+	 */
+	public void record(Endpoint endpoint, long latencyNanos, boolean success) {
+		endpoint.record(latencyNanos, success, smoothing, failureThreshold, errorRateThreshold, cooldown.toNanos());
+	}
+
+	/**
+	 * Marks an endpoint unhealthy for the cooldown at once, e.g. after it rejected its API key or doesn't have
+	 * a deployment of the model. Such failures would repeat on every request, so they don't wait for the thresholds.
+	 *
+	 * @param endpoint The endpoint.
+	 */
+	public void markUnhealthy(Endpoint endpoint) {
+		endpoint.markUnhealthy(cooldown.toNanos());
+	}
+
+	/**
+	 * Scores an endpoint, lower is better. Endpoints without calls score 0, so they are tried early.
+	 */
+	private static double score(Endpoint endpoint) {
+		if (endpoint.getSamples() == 0) return 0;
+		return endpoint.getLatency().toNanos() / Math.max(0.05, 1 - endpoint.getErrorRate());
+	}
+
+	private static long hash(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	/**
+	 * Finalizes a hash (SplitMix64), so rendezvous weights are well distributed.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,127 @@
+package org.ChatGPT.streaming;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.ChatGPT.exceptions.ChatGptGenerationException;
+import org.ChatGPT.exceptions.ResponseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Reads a streamed chat completion (server-sent events of {@code chat.completion.chunk} objects).
+ * <p>
+ *     Content deltas of the first choice are handed to a consumer as they arrive. When the stream ends, the chunks are
+ *     assembled into the JSON of a regular {@code chat.completion} object, so the result can be wrapped in a
+ *     {@link org.ChatGPT.ChatGPTResponse} like a non-streamed response.
+ * </p>
+ */
+public class CompletionStreamReader {
+
+	private static final String DATA_PREFIX = "data:";
+
+	private static final String DONE = "[DONE]";
+
+	private CompletionStreamReader() {
+	}
+
+	/**
+	 * Reads the event stream until {@code [DONE]} or the end of the stream, and closes it.
+	 *
+	 * @param stream    The body stream of a streamed chat completion.
+	 * @param onContent Receives the content deltas of the first choice, in order.
+	 * @return The assembled {@code chat.completion} JSON object.
+	 * @throws ChatGptGenerationException If the stream reports an error.
+	 * @throws ResponseException          If an event is not valid JSON.
+	 * @throws UncheckedIOException       If the stream cannot be read.
+	 */
+	public static JsonObject read(InputStream stream, Consumer<String> onContent) {
+		JsonObject completion = new JsonObject();
+		completion.addProperty("object", "chat.completion");
+		Map<Integer, Choice> choices = new TreeMap<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.startsWith(DATA_PREFIX)) continue;
+				String data = line.substring(DATA_PREFIX.length()).trim();
+				if (data.equals(DONE)) break;
+				JsonObject chunk = parse(data);
+				if (chunk.has("error")) throw new ChatGptGenerationException("Error Details: " + chunk.get("error"));
+				for (String field : new String[]{"id", "created", "model", "system_fingerprint", "service_tier"}) {
+					if (chunk.has(field) && !completion.has(field)) completion.add(field, chunk.get(field));
+				}
+				if (chunk.has("usage") && chunk.get("usage").isJsonObject()) completion.add("usage", chunk.get("usage"));
+				if (!chunk.has("choices")) continue;
+				for (JsonElement element : chunk.getAsJsonArray("choices")) {
+					JsonObject delta = element.getAsJsonObject();
+					int index = delta.has("index") ? delta.get("index").getAsInt() : 0;
+					Choice choice = choices.computeIfAbsent(index, i -> new Choice());
+					choice.append(delta, index == 0 ? onContent : null);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		JsonArray assembled = new JsonArray(choices.size());
+		choices.forEach((index, choice) -> assembled.add(choice.toJson(index)));
+		completion.add("choices", assembled);
+		return completion;
+	}
+
+	private static JsonObject parse(String data) {
+		try {
+			return JsonParser.parseString(data).getAsJsonObject();
+		} catch (JsonParseException | IllegalStateException e) {
+			throw new ResponseException("Invalid stream event: " + data, e);
+		}
+	}
+
+	/**
+	 * The accumulated state of one choice.
+	 */
+	private static class Choice {
+
+		private final StringBuilder content = new StringBuilder();
+
+		private StringBuilder refusal;
+
+		private JsonElement finishReason;
+
+		private void append(JsonObject chunk, Consumer<String> onContent) {
+			if (chunk.has("finish_reason") && !chunk.get("finish_reason").isJsonNull()) finishReason = chunk.get("finish_reason");
+			if (!chunk.has("delta") || !chunk.get("delta").isJsonObject()) return;
+			JsonObject delta = chunk.getAsJsonObject("delta");
+			if (delta.has("content") && !delta.get("content").isJsonNull()) {
+				String text = delta.get("content").getAsString();
+				content.append(text);
+				if (onContent != null && !text.isEmpty()) onContent.accept(text);
+			}
+			if (delta.has("refusal") && !delta.get("refusal").isJsonNull()) {
+				if (refusal == null) refusal = new StringBuilder();
+				refusal.append(delta.get("refusal").getAsString());
+			}
+		}
+
+		private JsonObject toJson(int index) {
+			JsonObject message = new JsonObject();
+			message.addProperty("role", "assistant");
+			message.addProperty("content", content.toString());
+			message.addProperty("refusal", refusal == null ? null : refusal.toString());
+			JsonObject choice = new JsonObject();
+			choice.addProperty("index", index);
+			choice.add("message", message);
+			if (finishReason != null) choice.add("finish_reason", finishReason);
+			return choice;
+		}
+	}
+}
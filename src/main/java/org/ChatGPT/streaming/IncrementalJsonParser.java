@@ -0,0 +1,273 @@
+package org.ChatGPT.streaming;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.ChatGPT.exceptions.ResponseException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A push parser that consumes a JSON document in arbitrary chunks (e.g. the content deltas of a streamed structured
+ * output) and emits every value as soon as it is complete.
+ * <p>
+ *     Values are reported together with their path: {@code $} for the document, {@code $.items} for a field of the
+ *     document, {@code $.items[3]} for an element of that field, and so on. Only values nested at most {@code maxDepth}
+ *     levels deep are reported (the document itself is at depth 0). For a response like {@code {"items":[...]}}, a depth
+ *     of 2 reports each element of {@code items} while the model is still generating the next one.
+ * </p>
+ * <p>
+ *     Each value is parsed once, from its own range of the document, when it completes. The factory methods skip values
+ *     their listener ignores, so {@link #forArrayElements(String, Class, Consumer)} parses each element alone and never
+ *     the array or the document around it.
+ * </p>
+ * <p>
+ *     The parser implements {@code Consumer<String>}, so it can be passed directly to
+ *     {@link org.ChatGPT.ChatGPTClient#streamRequestToTextEndPoint(String, org.ChatGPT.requests.TextRequest, Consumer)}.
+ *     It is not thread-safe.
+ * </p>
+ */
+public class IncrementalJsonParser implements Consumer<String> {
+
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * The maximum depth of reported values.
+	 */
+	private final int maxDepth;
+
+	/**
+	 * Selects the paths of reported values, other values are not parsed.
+	 */
+	private final Predicate<String> reported;
+
+	/**
+	 * Receives the path and the value of every completed value.
+	 */
+	private final BiConsumer<String, JsonElement> listener;
+
+	/**
+	 * The document received so far.
+	 */
+	private final StringBuilder document = new StringBuilder();
+
+	/**
+	 * The open objects and arrays, innermost first.
+	 */
+	private final Deque<Container> containers = new ArrayDeque<>();
+
+	private boolean inString;
+
+	private boolean escaped;
+
+	private boolean stringIsKey;
+
+	private boolean inScalar;
+
+	/**
+	 * Start of the string or scalar being read.
+	 */
+	private int valueStart;
+
+	/**
+	 * Path of the string or scalar being read.
+	 */
+	private String valuePath;
+
+	/**
+	 * Constructs a parser.
+	 *
+	 * @param maxDepth The maximum depth of reported values, the document itself is at depth 0.
+	 * @param listener Receives the path and the value of every completed value up to {@code maxDepth}.
+	 */
+	public IncrementalJsonParser(int maxDepth, BiConsumer<String, JsonElement> listener) {
+		this(maxDepth, path -> true, listener);
+	}
+
+	private IncrementalJsonParser(int maxDepth, Predicate<String> reported, BiConsumer<String, JsonElement> listener) {
+		if (maxDepth < 0) throw new IllegalArgumentException("Invalid depth: must not be negative");
+		this.maxDepth = maxDepth;
+		this.reported = reported;
+		this.listener = listener;
+	}
+
+	/**
+	 * Creates a parser that reports the elements of an array field of the document, converted to the given type.
+	 *
+	 * @param field    The name of the array field, e.g. {@code "items"} for {@code {"items":[...]}}.
+	 * @param type     The class elements are converted to with Gson.
+	 * @param consumer Receives every element as soon as it is complete, in order.
+	 * @param <T>      The type of the elements.
+	 * @return The parser.
+	 */
+	public static <T> IncrementalJsonParser forArrayElements(String field, Class<T> type, Consumer<T> consumer) {
+		String prefix = "$." + field + "[";
+		return new IncrementalJsonParser(2, path -> path.startsWith(prefix), (path, value) -> consumer.accept(GSON.fromJson(value, type)));
+	}
+
+	/**
+	 * Creates a parser that reports the fields of the document, converted to the given types as they complete.
+	 *
+	 * @param listener Receives the name and the value of every field of the document.
+	 * @return The parser.
+	 */
+	public static IncrementalJsonParser forFields(BiConsumer<String, JsonElement> listener) {
+		return new IncrementalJsonParser(1, path -> path.startsWith("$."), (path, value) -> listener.accept(path.substring(2), value));
+	}
+
+	/**
+	 * Feeds the next chunk of the document.
+	 *
+	 * @param chunk The chunk, may split tokens anywhere.
+	 * @throws ResponseException If the document is not valid JSON.
+	 */
+	@Override
+	public void accept(String chunk) {
+		for (int i = 0; i < chunk.length(); i++) {
+			document.append(chunk.charAt(i));
+			next(chunk.charAt(i), document.length() - 1);
+		}
+	}
+
+	/**
+	 * Signals the end of the document, completing a trailing scalar document such as {@code 42}.
+	 *
+	 * @throws ResponseException If the document is incomplete.
+	 */
+	public void finish() {
+		if (inScalar) {
+			inScalar = false;
+			complete(valueStart, document.length(), valuePath);
+		}
+		if (inString || !containers.isEmpty()) throw new ResponseException("Incomplete JSON document: " + document);
+	}
+
+	/**
+	 * Returns the document received so far.
+	 *
+	 * @return The accumulated text.
+	 */
+	public String getDocument() {
+		return document.toString();
+	}
+
+	private void next(char c, int position) {
+		if (inString) {
+			if (escaped) {
+				escaped = false;
+			} else if (c == '\\') {
+				escaped = true;
+			} else if (c == '"') {
+				inString = false;
+				if (stringIsKey) {
+					containers.peek().key = parse(valueStart, position + 1).getAsString();
+				} else {
+					complete(valueStart, position + 1, valuePath);
+				}
+			}
+			return;
+		}
+		if (inScalar) {
+			if (!isDelimiter(c)) return;
+			inScalar = false;
+			complete(valueStart, position, valuePath);
+		}
+		switch (c) {
+			case ' ', '\t', '\n', '\r' -> {
+			}
+			case '"' -> {
+				inString = true;
+				valueStart = position;
+				Container parent = containers.peek();
+				stringIsKey = parent != null && parent.object && parent.expectingKey;
+				if (!stringIsKey) valuePath = childPath();
+			}
+			case '{', '[' -> {
+				Container container = new Container(c == '{', position, childPath());
+				containers.push(container);
+			}
+			case '}', ']' -> {
+				Container container = containers.poll();
+				if (container == null || container.object != (c == '}')) throw new ResponseException("Unexpected '" + c + "' at " + position);
+				complete(container.start, position + 1, container.path);
+			}
+			case ':' -> {
+				if (containers.peek() != null) containers.peek().expectingKey = false;
+			}
+			case ',' -> {
+				Container parent = containers.peek();
+				if (parent != null && parent.object) parent.expectingKey = true;
+			}
+			default -> {
+				inScalar = true;
+				valueStart = position;
+				valuePath = childPath();
+			}
+		}
+	}
+
+	/**
+	 * Reports a completed value if it is shallow enough and selected, parsing only its own range, and advances its parent array.
+	 */
+	private void complete(int start, int end, String path) {
+		Container parent = containers.peek();
+		if (containers.size() <= maxDepth && reported.test(path)) listener.accept(path, parse(start, end));
+		if (parent != null && !parent.object) parent.count++;
+	}
+
+	private String childPath() {
+		Container parent = containers.peek();
+		if (parent == null) return "$";
+		return parent.object ? parent.path + "." + parent.key : parent.path + "[" + parent.count + "]";
+	}
+
+	private JsonElement parse(int start, int end) {
+		try {
+			return JsonParser.parseString(document.substring(start, end));
+		} catch (JsonParseException e) {
+			throw new ResponseException("Invalid JSON value: " + document.substring(start, end), e);
+		}
+	}
+
+	private static boolean isDelimiter(char c) {
+		return c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * An open object or array.
+	 */
+	private static class Container {
+
+		private final boolean object;
+
+		private final int start;
+
+		private final String path;
+
+		/**
+		 * Whether the next string of an object is a key.
+		 */
+		private boolean expectingKey = true;
+
+		/**
+		 * The key of the current field of an object.
+		 */
+		private String key;
+
+		/**
+		 * The number of completed elements of an array.
+		 */
+		private int count;
+
+		private Container(boolean object, int start, String path) {
+			this.object = object;
+			this.start = start;
+			this.path = path;
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package org.ChatGPT.templates;
+
+import org.ChatGPT.builders.TextRequestBuilder;
+import org.ChatGPT.requests.TextRequest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A precompiled chat completion request with variable slots.
+ * <p>
+ *     A template is compiled once from a {@link TextRequestBuilder} whose contents contain {@code {{name}}} placeholders,
+ *     e.g. {@code setUserContent("Translate to {{language}}: {{text}}")}. Compilation validates the request and encodes
+ *     the static parts of its JSON body to UTF-8 bytes. Rendering only escapes the variable values and splices them
+ *     between the precompiled fragments, writing UTF-8 directly into a caller-supplied or reusable thread-local buffer,
+ *     so no JSON tree, {@link String} or intermediate {@code byte[]} is built per request.
+ * </p>
+ * <p>
+ *     Templates are immutable and thread-safe.
+ * </p>
+ *
+ * @see org.ChatGPT.ChatGPTClient#sendRequestToTextEndPoint(String, PromptTemplate, String...)
+ */
+public class PromptTemplate {
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{([A-Za-z0-9_]+)}}");
+
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	private static final int INITIAL_BUFFER_SIZE = 4096;
+
+	/**
+	 * Reusable render buffer of each thread.
+	 */
+	private static final ThreadLocal<byte[][]> BUFFER = ThreadLocal.withInitial(() -> new byte[][]{new byte[INITIAL_BUFFER_SIZE]});
+
+	/**
+	 * The request the template was compiled from, with placeholders in place of values.
+	 */
+	private final TextRequest request;
+
+	/**
+	 * Static UTF-8 fragments of the body, one more than there are slots.
+	 */
+	private final byte[][] fragments;
+
+	/**
+	 * For each slot between two fragments, the index of its variable in {@code variables}.
+	 */
+	private final int[] slots;
+
+	/**
+	 * Distinct variable names, in order of first appearance.
+	 */
+	private final List<String> variables;
+
+	private final int staticLength;
+
+	private PromptTemplate(TextRequest request, byte[][] fragments, int[] slots, List<String> variables) {
+		this.request = request;
+		this.fragments = fragments;
+		this.slots = slots;
+		this.variables = variables;
+		int length = 0;
+		for (byte[] fragment : fragments) length += fragment.length;
+		this.staticLength = length;
+	}
+
+	/**
+	 * Compiles a template from a builder whose contents contain {@code {{name}}} placeholders.
+	 * Variable names consist of letters, digits and underscores.
+	 *
+	 * @param builder The configured builder.
+	 * @return The compiled template.
+	 * @throws org.ChatGPT.exceptions.RequestBuildException If the builder's configuration is invalid.
+	 * @throws org.ChatGPT.exceptions.RequestException      If the request cannot be built.
+	 */
+	public static PromptTemplate compile(TextRequestBuilder builder) {
+		TextRequest request = builder.build();
+		String json = request.getJson();
+		Matcher matcher = PLACEHOLDER.matcher(json);
+		List<byte[]> fragments = new ArrayList<>();
+		List<Integer> slots = new ArrayList<>();
+		List<String> variables = new ArrayList<>();
+		int position = 0;
+		while (matcher.find()) {
+			fragments.add(json.substring(position, matcher.start()).getBytes(StandardCharsets.UTF_8));
+			String name = matcher.group(1);
+			if (!variables.contains(name)) variables.add(name);
+			slots.add(variables.indexOf(name));
+			position = matcher.end();
+		}
+		fragments.add(json.substring(position).getBytes(StandardCharsets.UTF_8));
+		return new PromptTemplate(request, fragments.toArray(new byte[0][]), slots.stream().mapToInt(Integer::intValue).toArray(), List.copyOf(variables));
+	}
+
+	/**
+	 * Returns the names of the template's variables, in the order {@code render} methods expect their values.
+	 *
+	 * @return The distinct variable names, in order of first appearance.
+	 */
+	public List<String> getVariables() {
+		return variables;
+	}
+
+	/**
+	 * Returns the request the template was compiled from, with placeholders in place of values.
+	 * Its model, timeout and other settings apply to every rendered request.
+	 *
+	 * @return The compiled request.
+	 */
+	public TextRequest getRequest() {
+		return request;
+	}
+
+	/**
+	 * Renders the request body into a caller-supplied buffer, starting at its position.
+	 *
+	 * @param target The buffer to write to, its position is advanced past the body.
+	 * @param values The values of the variables, in the order of {@link #getVariables()}.
+	 * @return The number of bytes written.
+	 * @throws IllegalArgumentException         If the number of values doesn't match the number of variables.
+	 * @throws java.nio.BufferOverflowException If the body does not fit in the buffer.
+	 */
+	public int renderTo(ByteBuffer target, String... values) {
+		checkValues(values);
+		int start = target.position();
+		for (int i = 0; i < slots.length; i++) {
+			target.put(fragments[i]);
+			writeEscaped(target, values[slots[i]]);
+		}
+		target.put(fragments[slots.length]);
+		return target.position() - start;
+	}
+
+	/**
+	 * Renders the request body.
+	 * <p>The body is rendered into a reusable thread-local buffer, the only allocation is the returned array.</p>
+	 *
+	 * @param values The values of the variables, in the order of {@link #getVariables()}.
+	 * @return The UTF-8 JSON body.
+	 * @throws IllegalArgumentException If the number of values doesn't match the number of variables.
+	 */
+	public byte[] render(String... values) {
+		checkValues(values);
+		byte[][] holder = BUFFER.get();
+		int maxLength = staticLength;
+		for (int slot : slots) maxLength += 6 * values[slot].length();
+		if (holder[0].length < maxLength) holder[0] = new byte[Math.max(maxLength, 2 * holder[0].length)];
+		ByteBuffer buffer = ByteBuffer.wrap(holder[0]);
+		int length = renderTo(buffer, values);
+		return Arrays.copyOf(holder[0], length);
+	}
+
+	/**
+	 * Renders the request body with named values.
+	 *
+	 * @param values The values of all variables, by name.
+	 * @return The UTF-8 JSON body.
+	 * @throws IllegalArgumentException If a variable has no value.
+	 */
+	public byte[] render(Map<String, String> values) {
+		String[] ordered = new String[variables.size()];
+		for (int i = 0; i < ordered.length; i++) {
+			ordered[i] = values.get(variables.get(i));
+			if (ordered[i] == null) throw new IllegalArgumentException("No value for template variable '" + variables.get(i) + "'");
+		}
+		return render(ordered);
+	}
+
+	private void checkValues(String[] values) {
+		if (values.length != variables.size())
+			throw new IllegalArgumentException("Template expects " + variables.size() + " values " + variables + " but got " + values.length);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == null) throw new IllegalArgumentException("Value of template variable '" + variables.get(i) + "' is null");
+		}
+	}
+
+	/**
+	 * Writes a value as the contents of a JSON string, escaped and encoded as UTF-8.
+	 */
+	private static void writeEscaped(ByteBuffer target, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c >= 0x20 && c < 0x80) {
+				if (c == '"' || c == '\\') target.put((byte) '\\');
+				target.put((byte) c);
+			} else if (c < 0x20) {
+				target.put((byte) '\\');
+				switch (c) {
+					case '\n' -> target.put((byte) 'n');
+					case '\r' -> target.put((byte) 'r');
+					case '\t' -> target.put((byte) 't');
+					case '\b' -> target.put((byte) 'b');
+					case '\f' -> target.put((byte) 'f');
+					default -> target.put((byte) 'u').put((byte) '0').put((byte) '0').put(HEX[c >> 4]).put(HEX[c & 0xF]);
+				}
+			} else if (c < 0x800) {
+				target.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				target.put((byte) (0xF0 | (codePoint >> 18)))
+						.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+						.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+						.put((byte) (0x80 | (codePoint & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				target.put((byte) '?');
+			} else {
+				target.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F))).put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+}
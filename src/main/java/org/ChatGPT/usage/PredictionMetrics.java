@@ -0,0 +1,139 @@
+package org.ChatGPT.usage;
+
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.enums.ModelType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how well predicted outputs pay off, per model.
+ * <p>
+ *     Once set with {@link org.ChatGPT.ChatGPTClient#setPredictionMetrics(PredictionMetrics)}, every completed chat
+ *     completion is recorded: calls with a prediction (see {@link org.ChatGPT.builders.TextRequestBuilder#setPrediction(String)})
+ *     count their accepted and rejected prediction tokens, and calls without one are kept apart as a baseline,
+ *     so the latency per completion token of both can be compared. Rejected prediction tokens are billed as completion
+ *     tokens, so a low acceptance ratio means the prediction costs more than it saves.
+ * </p>
+ */
+public class PredictionMetrics {
+
+	/**
+	 * Aggregated metrics of one model, either of calls with a prediction or of calls without one.
+	 *
+	 * @param model            The model.
+	 * @param predicted        Whether the calls had a prediction.
+	 * @param requests         The number of calls.
+	 * @param completionTokens The number of completion tokens.
+	 * @param acceptedTokens   The number of prediction tokens that appeared in the completion.
+	 * @param rejectedTokens   The number of prediction tokens that didn't.
+	 * @param latencyNanos     The total time of the calls, in nanoseconds.
+	 */
+	public record Stats(ModelType model, boolean predicted, long requests, long completionTokens, long acceptedTokens,
+						long rejectedTokens, long latencyNanos) {
+
+		/**
+		 * Returns the share of prediction tokens that were accepted.
+		 *
+		 * @return The ratio from 0 to 1, or 0 if no prediction tokens were reported.
+		 */
+		public double getAcceptanceRatio() {
+			long total = acceptedTokens + rejectedTokens;
+			return total == 0 ? 0 : (double) acceptedTokens / total;
+		}
+
+		/**
+		 * Returns the mean time per completion token.
+		 *
+		 * @return The latency per token, or {@link Duration#ZERO} if no tokens were generated.
+		 */
+		public Duration getLatencyPerToken() {
+			return completionTokens == 0 ? Duration.ZERO : Duration.ofNanos(latencyNanos / completionTokens);
+		}
+	}
+
+	private record Key(ModelType model, boolean predicted) {
+	}
+
+	private static final class Counters {
+		final LongAdder requests = new LongAdder();
+		final LongAdder completionTokens = new LongAdder();
+		final LongAdder acceptedTokens = new LongAdder();
+		final LongAdder rejectedTokens = new LongAdder();
+		final LongAdder latencyNanos = new LongAdder();
+	}
+
+	private final ConcurrentHashMap<Key, Counters> counters = new ConcurrentHashMap<>();
+
+	/**
+	 * Records a completed call.
+	 *
+	 * @param model        The model of the call.
+	 * @param predicted    Whether the call had a prediction.
+	 * @param response     The response, its {@code usage} object is read.
+	 * @param latencyNanos The time the call took, in nanoseconds.
+	 */
+	public void record(ModelType model, boolean predicted, ChatGPTResponse response, long latencyNanos) {
+		record(model, predicted,
+				response.getTokenCount("completion_tokens"),
+				response.getAcceptedPredictionTokenCount(),
+				response.getRejectedPredictionTokenCount(),
+				latencyNanos);
+	}
+
+	/**
+	 * Records a completed call.
+	 *
+	 * @param model            The model of the call.
+	 * @param predicted        Whether the call had a prediction.
+	 * @param completionTokens The number of completion tokens.
+	 * @param acceptedTokens   The number of accepted prediction tokens.
+	 * @param rejectedTokens   The number of rejected prediction tokens.
+	 * @param latencyNanos     The time the call took, in nanoseconds.
+	 */
+	public void record(ModelType model, boolean predicted, long completionTokens, long acceptedTokens, long rejectedTokens, long latencyNanos) {
+		Counters c = counters.computeIfAbsent(new Key(model, predicted), key -> new Counters());
+		c.requests.increment();
+		c.completionTokens.add(completionTokens);
+		c.acceptedTokens.add(acceptedTokens);
+		c.rejectedTokens.add(rejectedTokens);
+		c.latencyNanos.add(latencyNanos);
+	}
+
+	/**
+	 * Returns the metrics of one model.
+	 *
+	 * @param model     The model.
+	 * @param predicted {@code true} for calls with a prediction, {@code false} for the baseline without one.
+	 * @return The metrics, all zero if no such call was recorded.
+	 */
+	public Stats getStats(ModelType model, boolean predicted) {
+		Counters c = counters.get(new Key(model, predicted));
+		return c == null ? new Stats(model, predicted, 0, 0, 0, 0, 0) : toStats(new Key(model, predicted), c);
+	}
+
+	/**
+	 * Returns the metrics recorded so far, one entry per model and whether calls had a prediction.
+	 *
+	 * @return The metrics.
+	 */
+	public List<Stats> snapshot() {
+		return counters.entrySet().stream()
+				.map(e -> toStats(e.getKey(), e.getValue()))
+				.toList();
+	}
+
+	/**
+	 * Clears all recorded metrics.
+	 */
+	public void reset() {
+		counters.clear();
+	}
+
+	private static Stats toStats(Key key, Counters c) {
+		return new Stats(key.model(), key.predicted(), c.requests.sum(), c.completionTokens.sum(), c.acceptedTokens.sum(),
+				c.rejectedTokens.sum(), c.latencyNanos.sum());
+	}
+}
@@ -0,0 +1,212 @@
+package org.ChatGPT.usage;
+
+import org.ChatGPT.enums.ImageQuality;
+import org.ChatGPT.enums.ImageSize;
+import org.ChatGPT.enums.ModelType;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token prices per {@link ModelType}, in US dollars per million tokens, prices per image of the image models and prices
+ * per minute of the audio models.
+ * <p>
+ *     {@link #defaults()} holds OpenAI's list prices. Tables are immutable, {@link #withPrice}, {@link #withImagePrice} and
+ *     {@link #withAudioPrice} return a copy with one price changed, e.g. for negotiated rates or a new price list. Models without a price cost nothing.
+ * </p>
+ * <p>Costs are computed in nano-dollars, so they can be summed exactly in {@code long} counters.</p>
+ *
+ * @see UsageTracker
+ */
+public class PriceTable {
+
+	/**
+	 * The price of one model.
+	 *
+	 * @param input       Dollars per million uncached prompt tokens.
+	 * @param cachedInput Dollars per million cached prompt tokens.
+	 * @param output      Dollars per million completion tokens (including reasoning tokens).
+	 */
+	public record Price(double input, double cachedInput, double output) {
+		public Price {
+			if (input < 0 || cachedInput < 0 || output < 0) throw new IllegalArgumentException("Prices must not be negative");
+		}
+	}
+
+	private record ImageKey(ModelType model, ImageSize size, ImageQuality quality) {
+	}
+
+	private static final PriceTable DEFAULTS = new PriceTable(new EnumMap<>(Map.of(
+			ModelType.GPT4o, new Price(2.50, 1.25, 10.00),
+			ModelType.GPT4omini, new Price(0.15, 0.075, 0.60),
+			ModelType.o1, new Price(15.00, 7.50, 60.00),
+			ModelType.o1mini, new Price(1.10, 0.55, 4.40),
+			ModelType.TextEmbedding3Small, new Price(0.02, 0.02, 0),
+			ModelType.TextEmbedding3Large, new Price(0.13, 0.13, 0),
+			ModelType.TextEmbeddingAda002, new Price(0.10, 0.10, 0))),
+			new HashMap<>(Map.of(
+					new ImageKey(ModelType.Dalle3, ImageSize.S1024x1024, ImageQuality.STANDARD), 0.040,
+					new ImageKey(ModelType.Dalle3, ImageSize.S1792x1024, ImageQuality.STANDARD), 0.080,
+					new ImageKey(ModelType.Dalle3, ImageSize.S1024x1792, ImageQuality.STANDARD), 0.080,
+					new ImageKey(ModelType.Dalle3, ImageSize.S1024x1024, ImageQuality.HD), 0.080,
+					new ImageKey(ModelType.Dalle3, ImageSize.S1792x1024, ImageQuality.HD), 0.120,
+					new ImageKey(ModelType.Dalle3, ImageSize.S1024x1792, ImageQuality.HD), 0.120,
+					new ImageKey(ModelType.Dalle2, ImageSize.S256x256, ImageQuality.STANDARD), 0.016,
+					new ImageKey(ModelType.Dalle2, ImageSize.S512x512, ImageQuality.STANDARD), 0.018,
+					new ImageKey(ModelType.Dalle2, ImageSize.S1024x1024, ImageQuality.STANDARD), 0.020)),
+			new EnumMap<>(Map.of(ModelType.Whisper1, 0.006)));
+
+	private final EnumMap<ModelType, Price> prices;
+
+	/**
+	 * Dollars per image, by model, size and quality.
+	 */
+	private final Map<ImageKey, Double> imagePrices;
+
+	/**
+	 * Dollars per minute of audio, by model.
+	 */
+	private final EnumMap<ModelType, Double> audioPrices;
+
+	private PriceTable(EnumMap<ModelType, Price> prices, Map<ImageKey, Double> imagePrices, EnumMap<ModelType, Double> audioPrices) {
+		this.prices = prices;
+		this.imagePrices = imagePrices;
+		this.audioPrices = audioPrices;
+	}
+
+	/**
+	 * Returns the table of OpenAI's list prices.
+	 *
+	 * @return The default table.
+	 */
+	public static PriceTable defaults() {
+		return DEFAULTS;
+	}
+
+	/**
+	 * Returns a copy of this table with the price of a model replaced.
+	 *
+	 * @param model The model.
+	 * @param price The new price.
+	 * @return The new table.
+	 */
+	public PriceTable withPrice(ModelType model, Price price) {
+		EnumMap<ModelType, Price> copy = new EnumMap<>(prices);
+		copy.put(model, price);
+		return new PriceTable(copy, imagePrices, audioPrices);
+	}
+
+	/**
+	 * Returns a copy of this table with the price of an image replaced.
+	 *
+	 * @param model   The image model.
+	 * @param size    The image size.
+	 * @param quality The image quality, {@code null} for the model's default (standard) quality.
+	 * @param price   The new price in dollars per image.
+	 * @return The new table.
+	 * @throws IllegalArgumentException If the price is negative.
+	 */
+	public PriceTable withImagePrice(ModelType model, ImageSize size, ImageQuality quality, double price) {
+		if (price < 0) throw new IllegalArgumentException("Prices must not be negative");
+		Map<ImageKey, Double> copy = new HashMap<>(imagePrices);
+		copy.put(imageKey(model, size, quality), price);
+		return new PriceTable(prices, copy, audioPrices);
+	}
+
+	/**
+	 * Returns a copy of this table with the price of an audio model replaced.
+	 *
+	 * @param model The audio model.
+	 * @param price The new price in dollars per minute of audio.
+	 * @return The new table.
+	 * @throws IllegalArgumentException If the price is negative.
+	 */
+	public PriceTable withAudioPrice(ModelType model, double price) {
+		if (price < 0) throw new IllegalArgumentException("Prices must not be negative");
+		EnumMap<ModelType, Double> copy = new EnumMap<>(audioPrices);
+		copy.put(model, price);
+		return new PriceTable(prices, imagePrices, copy);
+	}
+
+	/**
+	 * Returns the price of a model.
+	 *
+	 * @param model The model.
+	 * @return The price, or {@code null} if the model has none.
+	 */
+	public Price getPrice(ModelType model) {
+		return prices.get(model);
+	}
+
+	/**
+	 * Returns the price of an image.
+	 *
+	 * @param model   The image model.
+	 * @param size    The image size.
+	 * @param quality The image quality, {@code null} for the model's default (standard) quality.
+	 * @return The price in dollars per image, or {@code null} if the image has none.
+	 */
+	public Double getImagePrice(ModelType model, ImageSize size, ImageQuality quality) {
+		return imagePrices.get(imageKey(model, size, quality));
+	}
+
+	/**
+	 * Computes the cost of generated images.
+	 *
+	 * @param model   The image model.
+	 * @param size    The image size.
+	 * @param quality The image quality, {@code null} for the model's default (standard) quality.
+	 * @param images  The number of images.
+	 * @return The cost in nano-dollars.
+	 */
+	public long imageCostNanos(ModelType model, ImageSize size, ImageQuality quality, int images) {
+		Double price = getImagePrice(model, size, quality);
+		return price == null ? 0 : Math.round(price * images * 1e9);
+	}
+
+	/**
+	 * Returns the price of an audio model.
+	 *
+	 * @param model The audio model.
+	 * @return The price in dollars per minute of audio, or {@code null} if the model has none.
+	 */
+	public Double getAudioPrice(ModelType model) {
+		return audioPrices.get(model);
+	}
+
+	/**
+	 * Computes the cost of transcribed audio.
+	 *
+	 * @param model   The audio model.
+	 * @param seconds The duration of the audio.
+	 * @return The cost in nano-dollars.
+	 */
+	public long audioCostNanos(ModelType model, double seconds) {
+		Double price = audioPrices.get(model);
+		return price == null ? 0 : Math.round(price * seconds / 60 * 1e9);
+	}
+
+	/**
+	 * Computes the cost of a call.
+	 *
+	 * @param model            The model of the call.
+	 * @param promptTokens     The number of prompt tokens, including cached ones.
+	 * @param cachedTokens     The number of cached prompt tokens.
+	 * @param completionTokens The number of completion tokens.
+	 * @return The cost in nano-dollars.
+	 */
+	public long costNanos(ModelType model, long promptTokens, long cachedTokens, long completionTokens) {
+		Price price = prices.get(model);
+		if (price == null) return 0;
+		// Dollars per million tokens equal micro-dollars per token.
+		double micros = (promptTokens - cachedTokens) * price.input()
+				+ cachedTokens * price.cachedInput()
+				+ completionTokens * price.output();
+		return Math.round(micros * 1000);
+	}
+
+	private static ImageKey imageKey(ModelType model, ImageSize size, ImageQuality quality) {
+		return new ImageKey(model, size, quality != null ? quality : ImageQuality.STANDARD);
+	}
+}
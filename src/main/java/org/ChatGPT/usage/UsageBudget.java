@@ -0,0 +1,188 @@
+package org.ChatGPT.usage;
+
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.BudgetExceededException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A spending limit over a rolling time window, e.g. $50 per hour for the {@code "nightly-batch"} tag.
+ * <p>
+ *     The window is divided into buckets, spend older than the window drops out bucket by bucket. Once spend in the window
+ *     reaches {@code throttleRatio} of the limit, new requests are delayed, increasingly up to {@code maxDelay} as spend
+ *     approaches the limit. At the limit, new requests are rejected with {@link BudgetExceededException} until enough
+ *     spend leaves the window. A budget limits the calls matching its model and tag; unset filters match every call.
+ * </p>
+ * <p>
+ *     Costs are only known once a response arrives, so calls already in flight when the limit is reached may overshoot it.
+ *     Throttling keeps that overshoot small for runaway batches.
+ * </p>
+ *
+ * @see UsageTracker#addBudget(UsageBudget)
+ */
+public class UsageBudget {
+
+	private static final int BUCKETS = 60;
+
+	private final String name;
+
+	private final long limitNanos;
+
+	private final long bucketNanos;
+
+	private final AtomicLongArray spent = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * The window epoch each bucket currently counts.
+	 */
+	private final AtomicLongArray epochs = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Guards the reset of each bucket together with the additions to it.
+	 */
+	private final Object[] locks = new Object[BUCKETS];
+
+	private volatile ModelType model;
+
+	private volatile String tag;
+
+	private volatile double throttleRatio = 0.8;
+
+	private volatile Duration maxDelay = Duration.ofSeconds(2);
+
+	/**
+	 * Constructs a budget.
+	 *
+	 * @param name   The name of the budget, reported when it rejects a request.
+	 * @param limit  The limit in US dollars.
+	 * @param window The rolling window the limit applies to, e.g. an hour or 30 days.
+	 * @throws IllegalArgumentException If the limit or the window isn't positive.
+	 */
+	public UsageBudget(String name, double limit, Duration window) {
+		if (limit <= 0) throw new IllegalArgumentException("Budget limit must be greater than 0");
+		if (window.isZero() || window.isNegative()) throw new IllegalArgumentException("Budget window must be greater than 0");
+		this.name = name;
+		this.limitNanos = Math.round(limit * 1e9);
+		this.bucketNanos = Math.max(1, window.toNanos() / BUCKETS);
+		for (int i = 0; i < BUCKETS; i++) {
+			epochs.set(i, Long.MIN_VALUE);
+			locks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Limits the budget to calls of one model.
+	 *
+	 * @param model The model.
+	 * @return This budget for chaining.
+	 */
+	public UsageBudget setModel(ModelType model) {
+		this.model = model;
+		return this;
+	}
+
+	/**
+	 * Limits the budget to calls with one tag.
+	 *
+	 * @param tag The tag.
+	 * @return This budget for chaining.
+	 * @see org.ChatGPT.builders.TextRequestBuilder#setTag(String)
+	 */
+	public UsageBudget setTag(String tag) {
+		this.tag = tag;
+		return this;
+	}
+
+	/**
+	 * Configures throttling. By default requests are throttled from 80% of the limit, with delays of up to 2 seconds.
+	 *
+	 * @param throttleRatio The fraction of the limit from which requests are delayed, 1 disables throttling.
+	 * @param maxDelay      The delay just below the limit.
+	 * @return This budget for chaining.
+	 * @throws IllegalArgumentException If the ratio is not in (0, 1] or the delay is negative.
+	 */
+	public UsageBudget setThrottle(double throttleRatio, Duration maxDelay) {
+		if (throttleRatio <= 0 || throttleRatio > 1) throw new IllegalArgumentException("Throttle ratio must be in (0, 1]");
+		if (maxDelay.isNegative()) throw new IllegalArgumentException("Max delay must not be negative");
+		this.throttleRatio = throttleRatio;
+		this.maxDelay = maxDelay;
+		return this;
+	}
+
+	/**
+	 * Returns the name of the budget.
+	 *
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the limit of the budget.
+	 *
+	 * @return The limit in US dollars.
+	 */
+	public double getLimit() {
+		return limitNanos / 1e9;
+	}
+
+	/**
+	 * Returns the spend within the current window.
+	 *
+	 * @return The spend in US dollars.
+	 */
+	public double getSpent() {
+		return spentNanos(System.nanoTime()) / 1e9;
+	}
+
+	boolean appliesTo(ModelType model, String tag) {
+		ModelType budgetModel = this.model;
+		String budgetTag = this.tag;
+		return (budgetModel == null || budgetModel == model) && (budgetTag == null || budgetTag.equals(tag));
+	}
+
+	/**
+	 * Returns how long a new request has to wait.
+	 *
+	 * @return The delay in nanoseconds, 0 below the throttle threshold.
+	 * @throws BudgetExceededException If the limit is reached.
+	 */
+	long admit() {
+		long spentNanos = spentNanos(System.nanoTime());
+		if (spentNanos >= limitNanos)
+			throw new BudgetExceededException(String.format("Budget '%s' exceeded: spent $%.4f of $%.4f", name, spentNanos / 1e9, limitNanos / 1e9));
+		double ratio = (double) spentNanos / limitNanos;
+		double throttleFrom = throttleRatio;
+		if (ratio < throttleFrom || throttleFrom >= 1) return 0;
+		return (long) (maxDelay.toNanos() * (ratio - throttleFrom) / (1 - throttleFrom));
+	}
+
+	/**
+	 * Adds the cost of a completed call to the current bucket. Resetting a bucket left from an earlier window and adding
+	 * to it happen under the bucket's lock, so a concurrent reset can't discard the cost.
+	 */
+	void record(long costNanos) {
+		if (costNanos == 0) return;
+		long epoch = System.nanoTime() / bucketNanos;
+		int bucket = (int) Math.floorMod(epoch, (long) BUCKETS);
+		synchronized (locks[bucket]) {
+			if (epochs.get(bucket) != epoch) {
+				spent.set(bucket, 0);
+				epochs.set(bucket, epoch);
+			}
+			spent.addAndGet(bucket, costNanos);
+		}
+	}
+
+	private long spentNanos(long now) {
+		long epoch = now / bucketNanos;
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			long bucketEpoch = epochs.get(i);
+			if (bucketEpoch != Long.MIN_VALUE && epoch - bucketEpoch < BUCKETS) total += spent.get(i);
+		}
+		return total;
+	}
+}
@@ -0,0 +1,272 @@
+package org.ChatGPT.usage;
+
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.enums.ImageQuality;
+import org.ChatGPT.enums.ImageSize;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.BudgetExceededException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates token usage and cost per model, API key and tag.
+ * <p>
+ *     Once set with {@link org.ChatGPT.ChatGPTClient#setUsageTracker(UsageTracker)}, every completed call is recorded:
+ *     prompt, cached, completion and reasoning tokens, and their cost from the {@link PriceTable}. Counters are
+ *     {@link LongAdder}s, so recording from many threads doesn't contend. Usage is reported per API key under a short
+ *     hash of the key, never the key itself.
+ * </p>
+ * <p>
+ *     Budgets added with {@link #addBudget(UsageBudget)} are checked before every call, and throttle or reject it as
+ *     their limit approaches.
+ * </p>
+ */
+public class UsageTracker {
+
+	/**
+	 * Aggregated usage of one model, API key and tag.
+	 *
+	 * @param model            The model.
+	 * @param apiKeyId         The hash identifying the API key.
+	 * @param tag              The tag, or {@code null} for untagged calls.
+	 * @param requests         The number of calls.
+	 * @param promptTokens     The number of prompt tokens, including cached ones.
+	 * @param cachedTokens     The number of cached prompt tokens.
+	 * @param completionTokens The number of completion tokens, including reasoning ones.
+	 * @param reasoningTokens  The number of reasoning tokens.
+	 * @param costNanos        The cost in nano-dollars.
+	 */
+	public record Usage(ModelType model, String apiKeyId, String tag, long requests, long promptTokens, long cachedTokens,
+						long completionTokens, long reasoningTokens, long costNanos) {
+
+		/**
+		 * Returns the cost.
+		 *
+		 * @return The cost in US dollars.
+		 */
+		public double getCost() {
+			return costNanos / 1e9;
+		}
+	}
+
+	private record Key(ModelType model, String apiKeyId, String tag) {
+	}
+
+	private static final class Counters {
+		final LongAdder requests = new LongAdder();
+		final LongAdder promptTokens = new LongAdder();
+		final LongAdder cachedTokens = new LongAdder();
+		final LongAdder completionTokens = new LongAdder();
+		final LongAdder reasoningTokens = new LongAdder();
+		final LongAdder costNanos = new LongAdder();
+	}
+
+	private final ConcurrentHashMap<Key, Counters> counters = new ConcurrentHashMap<>();
+
+	private final ConcurrentHashMap<String, String> apiKeyIds = new ConcurrentHashMap<>();
+
+	private final List<UsageBudget> budgets = new CopyOnWriteArrayList<>();
+
+	private volatile PriceTable priceTable;
+
+	/**
+	 * Constructs a tracker with the default {@link PriceTable}.
+	 */
+	public UsageTracker() {
+		this(PriceTable.defaults());
+	}
+
+	/**
+	 * Constructs a tracker.
+	 *
+	 * @param priceTable The prices costs are computed with.
+	 */
+	public UsageTracker(PriceTable priceTable) {
+		this.priceTable = priceTable;
+	}
+
+	/**
+	 * Replaces the price table. Costs already recorded are not recomputed.
+	 *
+	 * @param priceTable The new prices.
+	 */
+	public void setPriceTable(PriceTable priceTable) {
+		this.priceTable = priceTable;
+	}
+
+	/**
+	 * Returns the price table costs are computed with.
+	 *
+	 * @return The price table.
+	 */
+	public PriceTable getPriceTable() {
+		return priceTable;
+	}
+
+	/**
+	 * Adds a budget that is enforced from now on.
+	 *
+	 * @param budget The budget.
+	 * @return This tracker for chaining.
+	 */
+	public UsageTracker addBudget(UsageBudget budget) {
+		budgets.add(budget);
+		return this;
+	}
+
+	/**
+	 * Returns the budgets enforced by this tracker.
+	 *
+	 * @return A copy of the list of budgets.
+	 */
+	public List<UsageBudget> getBudgets() {
+		return List.copyOf(budgets);
+	}
+
+	/**
+	 * Checks the budgets before a call.
+	 *
+	 * @param model The model of the call.
+	 * @param tag   The tag of the call, or {@code null}.
+	 * @return The delay in nanoseconds the call should wait, the longest among the matching budgets.
+	 * @throws BudgetExceededException If a matching budget is exhausted.
+	 */
+	public long admit(ModelType model, String tag) {
+		long delay = 0;
+		for (UsageBudget budget : budgets) {
+			if (budget.appliesTo(model, tag)) delay = Math.max(delay, budget.admit());
+		}
+		return delay;
+	}
+
+	/**
+	 * Records the usage of a completed call.
+	 *
+	 * @param model    The model of the call.
+	 * @param apiKey   The API key of the call.
+	 * @param tag      The tag of the call, or {@code null}.
+	 * @param response The response, its {@code usage} object is read.
+	 */
+	public void record(ModelType model, String apiKey, String tag, ChatGPTResponse response) {
+		record(model, apiKey, tag,
+				response.getTokenCount("prompt_tokens"),
+				response.getTokenCount("prompt_tokens_details", "cached_tokens"),
+				response.getTokenCount("completion_tokens"),
+				response.getTokenCount("completion_tokens_details", "reasoning_tokens"));
+	}
+
+	/**
+	 * Records the usage of a completed call.
+	 *
+	 * @param model            The model of the call.
+	 * @param apiKey           The API key of the call.
+	 * @param tag              The tag of the call, or {@code null}.
+	 * @param promptTokens     The number of prompt tokens, including cached ones.
+	 * @param cachedTokens     The number of cached prompt tokens.
+	 * @param completionTokens The number of completion tokens, including reasoning ones.
+	 * @param reasoningTokens  The number of reasoning tokens.
+	 */
+	public void record(ModelType model, String apiKey, String tag, long promptTokens, long cachedTokens, long completionTokens, long reasoningTokens) {
+		add(model, apiKey, tag, promptTokens, cachedTokens, completionTokens, reasoningTokens,
+				priceTable.costNanos(model, promptTokens, cachedTokens, completionTokens));
+	}
+
+	/**
+	 * Records the cost of a completed image generation call, which is billed per image rather than per token.
+	 *
+	 * @param model   The image model.
+	 * @param apiKey  The API key of the call.
+	 * @param tag     The tag of the call, or {@code null}.
+	 * @param size    The size of the images.
+	 * @param quality The quality of the images, or {@code null} for the model's default.
+	 * @param images  The number of images generated.
+	 */
+	public void recordImages(ModelType model, String apiKey, String tag, ImageSize size, ImageQuality quality, int images) {
+		add(model, apiKey, tag, 0, 0, 0, 0, priceTable.imageCostNanos(model, size, quality, images));
+	}
+
+	/**
+	 * Records the cost of a completed transcription call, which is billed per minute of audio rather than per token.
+	 *
+	 * @param model   The audio model.
+	 * @param apiKey  The API key of the call.
+	 * @param tag     The tag of the call, or {@code null}.
+	 * @param seconds The duration of the audio.
+	 */
+	public void recordAudio(ModelType model, String apiKey, String tag, double seconds) {
+		add(model, apiKey, tag, 0, 0, 0, 0, priceTable.audioCostNanos(model, seconds));
+	}
+
+	private void add(ModelType model, String apiKey, String tag, long promptTokens, long cachedTokens, long completionTokens,
+					 long reasoningTokens, long cost) {
+		Counters c = counters.computeIfAbsent(new Key(model, apiKeyId(apiKey), tag), key -> new Counters());
+		c.requests.increment();
+		c.promptTokens.add(promptTokens);
+		c.cachedTokens.add(cachedTokens);
+		c.completionTokens.add(completionTokens);
+		c.reasoningTokens.add(reasoningTokens);
+		c.costNanos.add(cost);
+		for (UsageBudget budget : budgets) {
+			if (budget.appliesTo(model, tag)) budget.record(cost);
+		}
+	}
+
+	/**
+	 * Returns the usage recorded so far, one entry per model, API key and tag.
+	 *
+	 * @return The usage.
+	 */
+	public List<Usage> snapshot() {
+		return counters.entrySet().stream()
+				.map(e -> {
+					Key key = e.getKey();
+					Counters c = e.getValue();
+					return new Usage(key.model(), key.apiKeyId(), key.tag(), c.requests.sum(), c.promptTokens.sum(), c.cachedTokens.sum(),
+							c.completionTokens.sum(), c.reasoningTokens.sum(), c.costNanos.sum());
+				})
+				.toList();
+	}
+
+	/**
+	 * Returns the total cost recorded so far.
+	 *
+	 * @return The cost in US dollars.
+	 */
+	public double getTotalCost() {
+		long total = 0;
+		for (Counters c : counters.values()) total += c.costNanos.sum();
+		return total / 1e9;
+	}
+
+	/**
+	 * Clears the recorded usage. Budgets keep their spend.
+	 */
+	public void reset() {
+		counters.clear();
+	}
+
+	/**
+	 * Returns the identifier usage of an API key is recorded under: the first 8 bytes of its SHA-256 hash, in hex.
+	 *
+	 * @param apiKey The API key.
+	 * @return The identifier.
+	 */
+	public String apiKeyId(String apiKey) {
+		if (apiKey == null) return null;
+		return apiKeyIds.computeIfAbsent(apiKey, key -> {
+			try {
+				byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+				return HexFormat.of().formatHex(hash, 0, 8);
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+}
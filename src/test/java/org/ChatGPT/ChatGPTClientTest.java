@@ -0,0 +1,148 @@
+package org.ChatGPT;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.ChatGPT.builders.ImageRequestBuilder;
+import org.ChatGPT.builders.TextRequestBuilder;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.HttpStatusException;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.journal.ResponseJournal;
+import org.ChatGPT.requests.ImageRequest;
+import org.ChatGPT.requests.TextRequest;
+import org.ChatGPT.routing.Endpoint;
+import org.ChatGPT.routing.EndpointRouter;
+import org.ChatGPT.usage.UsageTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChatGPTClientTest {
+
+	private static final String COMPLETION = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion\",\"model\":\"gpt-4o\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"from good\"},\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":3,\"completion_tokens\":2,\"total_tokens\":5}}";
+
+	private final ChatGPTClient client = ChatGPTClient.getInstance();
+
+	private final AtomicInteger badCalls = new AtomicInteger();
+
+	private final AtomicInteger goodCalls = new AtomicInteger();
+
+	private volatile int badStatus;
+
+	private HttpServer server;
+
+	private Endpoint bad;
+
+	private Endpoint good;
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/bad/v1/chat/completions", exchange -> {
+			badCalls.incrementAndGet();
+			exchange.getRequestBody().readAllBytes();
+			respond(exchange, badStatus, "{\"error\":{\"message\":\"rejected\"}}");
+		});
+		server.createContext("/good/v1/chat/completions", exchange -> {
+			goodCalls.incrementAndGet();
+			exchange.getRequestBody().readAllBytes();
+			respond(exchange, 200, COMPLETION);
+		});
+		server.start();
+		String base = "http://localhost:" + server.getAddress().getPort();
+		bad = Endpoint.openAi("bad", URI.create(base + "/bad/v1")).setApiKey("sk-wrong");
+		good = Endpoint.openAi("good", URI.create(base + "/good/v1"));
+		client.setEndpointRouter(new EndpointRouter(List.of(bad, good)));
+	}
+
+	@AfterEach
+	public void stopServer() {
+		client.setEndpointRouter(null);
+		server.stop(0);
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * Returns a request whose conversation is routed to the bad endpoint first.
+	 */
+	private TextRequest requestRoutedToBad() {
+		EndpointRouter router = new EndpointRouter(List.of(bad, good));
+		for (int i = 0; ; i++) {
+			String key = "conversation-" + i;
+			if (router.route(ModelType.GPT4o, key).get(0) == bad) {
+				return new TextRequestBuilder().setModel(ModelType.GPT4o).setUserContent("Hi").setConversationKey(key).build();
+			}
+		}
+	}
+
+	@Test
+	public void sendRequestToTextEndPoint_failsOverFromEndpointRejectingItsKey() {
+		badStatus = 401;
+		TextRequest request = requestRoutedToBad();
+		ChatGPTResponse response = client.sendRequestToTextEndPoint("sk-test", request);
+		Assertions.assertEquals("from good", response.getContentAsString());
+		Assertions.assertEquals(1, badCalls.get());
+		Assertions.assertEquals(1, goodCalls.get());
+		Assertions.assertFalse(bad.isHealthy());
+		Assertions.assertTrue(bad.getErrorRate() > 0);
+
+		// in cooldown, the endpoint is tried last
+		client.sendRequestToTextEndPoint("sk-test", request);
+		Assertions.assertEquals(1, badCalls.get());
+		Assertions.assertEquals(2, goodCalls.get());
+	}
+
+	@Test
+	public void sendRequestToTextEndPoint_passesRejectedRequestWithoutFailover() {
+		badStatus = 400;
+		HttpStatusException e = Assertions.assertThrows(HttpStatusException.class,
+				() -> client.sendRequestToTextEndPoint("sk-test", requestRoutedToBad()));
+		Assertions.assertEquals(400, e.getStatusCode());
+		Assertions.assertEquals(0, goodCalls.get());
+		Assertions.assertTrue(bad.isHealthy());
+	}
+
+	@Test
+	public void sendRequestToTextEndPoint_returnsResponseTheJournalRejects(@TempDir Path directory) throws IOException {
+		client.setEndpointRouter(new EndpointRouter(List.of(good)));
+		UsageTracker tracker = new UsageTracker();
+		client.setUsageTracker(tracker);
+		ResponseJournal journal = new ResponseJournal(directory);
+		journal.close();
+		client.setResponseJournal(journal);
+		try {
+			ChatGPTResponse response = client.sendRequestToTextEndPoint("sk-test",
+					new TextRequestBuilder().setModel(ModelType.GPT4o).setUserContent("Hi").build());
+			Assertions.assertEquals("from good", response.getContentAsString());
+			Assertions.assertEquals(1, tracker.snapshot().size());
+		} finally {
+			client.setResponseJournal(null);
+			client.setUsageTracker(null);
+		}
+	}
+
+	@Test
+	public void sendRequestToImageEndPoint_rejectsBase64ImagesWithoutSink() {
+		ImageRequest request = new ImageRequestBuilder().setPrompt("a lighthouse at dusk").build();
+		// thrown before the request is sent, so no image is generated or billed
+		Assertions.assertThrows(RequestException.class, () -> client.sendRequestToImageEndPoint("sk-test", request, null));
+	}
+}
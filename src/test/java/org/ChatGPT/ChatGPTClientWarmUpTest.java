@@ -0,0 +1,145 @@
+package org.ChatGPT;
+
+import com.sun.net.httpserver.HttpServer;
+import org.ChatGPT.routing.Endpoint;
+import org.ChatGPT.routing.EndpointRouter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The client is a singleton, so the test that checks it starts cold runs first.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class ChatGPTClientWarmUpTest {
+
+	private final ChatGPTClient client = ChatGPTClient.getInstance();
+
+	private final AtomicInteger pings = new AtomicInteger();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private volatile String authorization;
+
+	private HttpServer server;
+
+	private ExecutorService handlers;
+
+	@BeforeEach
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/v1/models", exchange -> {
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			authorization = exchange.getRequestHeaders().getFirst("Authorization");
+			pings.incrementAndGet();
+			byte[] body = "{\"object\":\"list\",\"data\":[]}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		handlers = Executors.newCachedThreadPool();
+		server.setExecutor(handlers);
+		server.start();
+	}
+
+	@AfterEach
+	public void stopServer() {
+		client.stopKeepAlive();
+		client.setEndpointRouter(null);
+		client.setDefaultTimeout(null);
+		release.countDown();
+		server.stop(0);
+		handlers.shutdownNow();
+	}
+
+	private void routeTo(int port) {
+		URI base = URI.create("http://localhost:" + port + "/v1");
+		client.setEndpointRouter(new EndpointRouter(List.of(Endpoint.openAi("local", base))));
+	}
+
+	@Test
+	@Order(1)
+	public void warmUp_becomesWarmOnlyOnceEveryPingIsAnswered() throws Exception {
+		Assertions.assertFalse(client.isWarm());
+		routeTo(server.getAddress().getPort());
+
+		CompletableFuture<Void> warmUp = client.warmUp("sk-test", 3);
+		Thread.sleep(100);
+		Assertions.assertFalse(warmUp.isDone());
+		Assertions.assertFalse(client.isWarm());
+
+		release.countDown();
+		warmUp.get(30, TimeUnit.SECONDS);
+		Assertions.assertTrue(client.isWarm());
+		Assertions.assertEquals(3, pings.get());
+		Assertions.assertEquals("Bearer sk-test", authorization);
+
+		// an unreachable endpoint makes the next warm-up fail and the client cold again
+		int closedPort;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			closedPort = socket.getLocalPort();
+		}
+		routeTo(closedPort);
+		CompletableFuture<Void> failed = client.warmUp("sk-test", 1);
+		Assertions.assertThrows(Exception.class, () -> failed.get(30, TimeUnit.SECONDS));
+		Assertions.assertFalse(client.isWarm());
+	}
+
+	@Test
+	@Order(2)
+	public void keepAlive_pingsWhileIdleUntilStopped() throws Exception {
+		release.countDown();
+		routeTo(server.getAddress().getPort());
+
+		client.startKeepAlive("sk-test", Duration.ofMillis(50));
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (pings.get() < 2 && System.nanoTime() < deadline) Thread.sleep(10);
+		Assertions.assertTrue(pings.get() >= 2, "pings " + pings.get());
+		Assertions.assertTrue(client.isWarm());
+
+		client.stopKeepAlive();
+		Thread.sleep(100);
+		int stopped = pings.get();
+		Thread.sleep(300);
+		Assertions.assertEquals(stopped, pings.get());
+	}
+
+	@Test
+	@Order(3)
+	public void warmUp_failsWhenPingsTimeOut() {
+		routeTo(server.getAddress().getPort());
+		client.setDefaultTimeout(Duration.ofMillis(200));
+
+		// the server holds every ping until the test ends
+		CompletableFuture<Void> warmUp = client.warmUp("sk-test", 1);
+		ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> warmUp.get(5, TimeUnit.SECONDS));
+		Assertions.assertInstanceOf(HttpTimeoutException.class, e.getCause());
+		Assertions.assertFalse(client.isWarm());
+	}
+}
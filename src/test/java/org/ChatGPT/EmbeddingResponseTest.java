@@ -0,0 +1,73 @@
+package org.ChatGPT;
+
+import org.ChatGPT.builders.EmbeddingRequestBuilder;
+import org.ChatGPT.enums.EncodingFormat;
+import org.ChatGPT.requests.EmbeddingRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+public class EmbeddingResponseTest {
+
+	private final String floatResponseText = "{\"object\":\"list\",\"data\":[{\"object\":\"embedding\",\"index\":1,\"embedding\":[0.5,-1.25]},{\"object\":\"embedding\",\"embedding\":[0.25,2.0],\"index\":0}],\"model\":\"text-embedding-3-small\",\"usage\":{\"prompt_tokens\":8,\"total_tokens\":8}}";
+
+	private InputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private String base64(float... values) {
+		ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		for (float value : values) buffer.putFloat(value);
+		return Base64.getEncoder().encodeToString(buffer.array());
+	}
+
+	@Test
+	public void read_ordersVectorsByIndex() {
+		EmbeddingResponse response = EmbeddingResponse.read(stream(floatResponseText), 2, EncodingFormat.FLOAT, false);
+		Assertions.assertArrayEquals(new float[]{0.25f, 2.0f}, response.getEmbedding(0));
+		Assertions.assertArrayEquals(new float[]{0.5f, -1.25f}, response.getEmbedding(1));
+		Assertions.assertEquals(2, response.getDimensions());
+		Assertions.assertEquals(8, response.getPromptTokens());
+		Assertions.assertEquals("text-embedding-3-small", response.getModel());
+	}
+
+	@Test
+	public void read_decodesBase64IntoDirectBuffers() {
+		String text = "{\"data\":[{\"index\":0,\"embedding\":\"" + base64(1.5f, -3f, 0.125f) + "\"}],\"usage\":{\"prompt_tokens\":2,\"total_tokens\":2}}";
+		EmbeddingResponse response = EmbeddingResponse.read(stream(text), 1, EncodingFormat.BASE64, true);
+		Assertions.assertTrue(response.getEmbeddingBuffer(0).isDirect());
+		Assertions.assertArrayEquals(new float[]{1.5f, -3f, 0.125f}, response.getEmbedding(0));
+	}
+
+	@Test
+	public void merge_keepsBatchOrderAndSumsUsage() {
+		EmbeddingResponse first = EmbeddingResponse.read(stream(floatResponseText), 2, EncodingFormat.FLOAT, false);
+		String text = "{\"data\":[{\"index\":0,\"embedding\":[9.0,9.0]}],\"usage\":{\"prompt_tokens\":3,\"total_tokens\":3}}";
+		EmbeddingResponse second = EmbeddingResponse.read(stream(text), 1, EncodingFormat.FLOAT, false);
+		EmbeddingResponse merged = EmbeddingResponse.merge(List.of(first, second));
+		Assertions.assertEquals(3, merged.size());
+		Assertions.assertArrayEquals(new float[]{0.5f, -1.25f}, merged.getEmbedding(1));
+		Assertions.assertArrayEquals(new float[]{9f, 9f}, merged.getEmbedding(2));
+		Assertions.assertEquals(11, merged.getTotalTokens());
+	}
+
+	@Test
+	public void getBatches_splitsByInputCountAndLength() {
+		EmbeddingRequest request = new EmbeddingRequestBuilder()
+				.addInputs(List.of("aaaa", "bb", "cc", "dd", "eeeeeeeeee"))
+				.setMaxInputsPerBatch(3)
+				.setMaxCharactersPerBatch(8)
+				.build();
+		List<EmbeddingRequest> batches = request.getBatches();
+		Assertions.assertEquals(List.of("aaaa", "bb", "cc"), batches.get(0).getInputs());
+		Assertions.assertEquals(List.of("dd"), batches.get(1).getInputs());
+		Assertions.assertEquals(List.of("eeeeeeeeee"), batches.get(2).getInputs());
+	}
+}
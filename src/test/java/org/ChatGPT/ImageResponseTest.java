@@ -0,0 +1,83 @@
+package org.ChatGPT;
+
+import org.ChatGPT.exceptions.ResponseException;
+import org.ChatGPT.interfaces.ImageSink;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+public class ImageResponseTest {
+
+	private static byte[] image(int size, long seed) {
+		byte[] bytes = new byte[size];
+		new Random(seed).nextBytes(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Returns at most 7 bytes per read, so values cross buffer boundaries.
+	 */
+	private static InputStream trickle(String body) {
+		return new FilterInputStream(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))) {
+			@Override
+			public int read(byte[] b, int off, int len) throws java.io.IOException {
+				return super.read(b, off, Math.min(len, 7));
+			}
+		};
+	}
+
+	@Test
+	public void read_decodesImagesIntoSink() throws Exception {
+		byte[] first = image(200_001, 1);
+		byte[] second = image(70_000, 2);
+		String escaped = Base64.getEncoder().encodeToString(second).replace("/", "\\/");
+		String body = "{\"created\": 1700000000, \"data\": [" +
+				"{\"revised_prompt\": \"A \\\"cat\\\" b64_json\", \"b64_json\": \"" + Base64.getEncoder().encodeToString(first) + "\"}, " +
+				"{\"b64_json\" : \"" + escaped + "\"}]}";
+		Path directory = Files.createTempDirectory("images");
+
+		ImageResponse response = ImageResponse.read(trickle(body), ImageSink.toDirectory(directory, "img"));
+
+		Assertions.assertEquals(2, response.size());
+		Assertions.assertEquals(1700000000L, response.getCreated());
+		Assertions.assertEquals("A \"cat\" b64_json", response.getRevisedPrompt(0));
+		Assertions.assertNull(response.getRevisedPrompt(1));
+		Assertions.assertEquals(first.length, response.getBytesWritten(0));
+		Assertions.assertArrayEquals(first, Files.readAllBytes(directory.resolve("img-0.png")));
+		Assertions.assertArrayEquals(second, Files.readAllBytes(directory.resolve("img-1.png")));
+		Assertions.assertTrue(response.getFullResponse().length() < 200);
+	}
+
+	@Test
+	public void read_writesToCallerChannel() {
+		byte[] bytes = image(1000, 3);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		String body = "{\"created\":1,\"data\":[{\"b64_json\":\"" + Base64.getEncoder().encodeToString(bytes) + "\"}]}";
+		ImageResponse.read(trickle(body), ImageSink.toChannel(Channels.newChannel(out)));
+		Assertions.assertArrayEquals(bytes, out.toByteArray());
+	}
+
+	@Test
+	public void read_keepsUrls() {
+		String body = "{\"created\":1,\"data\":[{\"url\":\"https://example.com/a.png\"}]}";
+		ImageResponse response = ImageResponse.read(trickle(body), null);
+		Assertions.assertEquals("https://example.com/a.png", response.getUrl(0));
+		Assertions.assertEquals(0, response.getBytesWritten(0));
+	}
+
+	@Test
+	public void read_rejectsTruncatedBody() {
+		String body = "{\"created\":1,\"data\":[{\"b64_json\":\"AAAA";
+		Assertions.assertThrows(ResponseException.class, () -> ImageResponse.read(trickle(body), index -> Channels.newChannel(new ByteArrayOutputStream())));
+	}
+}
@@ -0,0 +1,136 @@
+package org.ChatGPT;
+
+import org.ChatGPT.exceptions.ChatGptGenerationException;
+import org.ChatGPT.exceptions.DeadlineExceededException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class RequestContextTest {
+
+	private static final class ClosingStream extends ByteArrayInputStream {
+
+		private final AtomicBoolean closed = new AtomicBoolean();
+
+		private ClosingStream() {
+			super(new byte[0]);
+		}
+
+		@Override
+		public void close() throws IOException {
+			closed.set(true);
+			super.close();
+		}
+	}
+
+	@Test
+	public void deadline_cancelsTrackedExchangeAndReportsDeadlineExceeded() throws Exception {
+		try (RequestContext context = new RequestContext(Duration.ofMillis(50))) {
+			CompletableFuture<String> exchange = new CompletableFuture<>();
+			context.track(exchange);
+			Assertions.assertFalse(context.isExpired());
+
+			Exception e = Assertions.assertThrows(Exception.class, () -> exchange.get(5, TimeUnit.SECONDS));
+			Assertions.assertInstanceOf(CancellationException.class, e);
+			Assertions.assertTrue(context.isExpired());
+			Assertions.assertThrows(DeadlineExceededException.class, context::check);
+			Assertions.assertInstanceOf(DeadlineExceededException.class, context.failure(e));
+		}
+	}
+
+	@Test
+	public void cancel_closesTrackedStream() {
+		try (RequestContext context = new RequestContext(null)) {
+			ClosingStream stream = new ClosingStream();
+			context.track(stream);
+			context.cancel();
+
+			Assertions.assertTrue(stream.closed.get());
+			Assertions.assertThrows(CancellationException.class, context::check);
+			RuntimeException failure = context.failure(new IOException("stream closed"));
+			Assertions.assertInstanceOf(CancellationException.class, failure);
+			Assertions.assertInstanceOf(IOException.class, failure.getCause());
+
+			ClosingStream late = new ClosingStream();
+			context.track(late);
+			Assertions.assertTrue(late.closed.get());
+		}
+	}
+
+	@Test
+	public void tracking_untracksStreamOnceRead() {
+		try (RequestContext context = new RequestContext(null)) {
+			ClosingStream stream = new ClosingStream();
+			Assertions.assertEquals(-1, context.<Integer>tracking(in -> {
+				try {
+					return in.read();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}).apply(stream));
+			context.cancel();
+			Assertions.assertFalse(stream.closed.get());
+		}
+	}
+
+	@Test
+	public void pause_throwsIfDelayOutlastsDeadline() {
+		try (RequestContext context = new RequestContext(Duration.ofMillis(100))) {
+			long start = System.nanoTime();
+			Assertions.assertThrows(DeadlineExceededException.class, () -> context.pause(Duration.ofSeconds(1).toNanos()));
+			Assertions.assertTrue(System.nanoTime() - start < Duration.ofMillis(100).toNanos(), "pause should fail without waiting");
+			context.pause(Duration.ofMillis(10).toNanos());
+		}
+	}
+
+	@Test
+	public void pause_endsEarlyWhenCancelled() throws Exception {
+		try (RequestContext context = new RequestContext(null)) {
+			CompletableFuture<Throwable> paused = CompletableFuture.supplyAsync(() -> {
+				try {
+					context.pause(Duration.ofSeconds(30).toNanos());
+					return null;
+				} catch (RuntimeException e) {
+					return e;
+				}
+			});
+			Thread.sleep(50);
+			context.cancel();
+			Assertions.assertInstanceOf(CancellationException.class, paused.get(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void failure_mapsCauses() {
+		try (RequestContext context = new RequestContext(null)) {
+			ChatGptGenerationException generation = new ChatGptGenerationException("Error Details: {}");
+			Assertions.assertSame(generation, context.failure(generation));
+
+			IOException io = new IOException("reset");
+			RuntimeException unwrapped = context.failure(new UncheckedIOException(io));
+			Assertions.assertInstanceOf(ChatGptGenerationException.class, unwrapped);
+			Assertions.assertSame(io, unwrapped.getCause());
+
+			Assertions.assertInstanceOf(DeadlineExceededException.class, context.failure(new HttpTimeoutException("timed out")));
+		}
+	}
+
+	@Test
+	public void close_stopsDeadlineTimer() throws Exception {
+		CompletableFuture<String> exchange = new CompletableFuture<>();
+		try (RequestContext context = new RequestContext(Duration.ofMillis(50))) {
+			context.track(exchange);
+		}
+		Thread.sleep(150);
+		Assertions.assertFalse(exchange.isCancelled());
+	}
+}
@@ -0,0 +1,93 @@
+package org.ChatGPT.cache;
+
+import com.google.gson.JsonParser;
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.builders.TextRequestBuilder;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.requests.TextRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+public class SemanticCacheTest {
+
+	private final TextRequest request = new TextRequestBuilder().setUserContent("How do I reset my password?").build();
+
+	private ChatGPTResponse response(String content) {
+		return new ChatGPTResponse(JsonParser.parseString("{\"id\":\"chatcmpl-1\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"}}]}").getAsJsonObject());
+	}
+
+	private float[] randomVector(Random random, int dimensions) {
+		float[] vector = new float[dimensions];
+		for (int i = 0; i < dimensions; i++) vector[i] = (float) random.nextGaussian();
+		return vector;
+	}
+
+	@Test
+	public void search_findsExactNeighbour() {
+		Random random = new Random(42);
+		HnswIndex index = new HnswIndex(32, 2000, 16, 100);
+		float[][] vectors = new float[2000][];
+		for (int i = 0; i < vectors.length; i++) {
+			vectors[i] = randomVector(random, 32);
+			index.add(vectors[i]);
+		}
+		int found = 0;
+		for (int i = 0; i < vectors.length; i += 10) {
+			List<HnswIndex.Neighbour> result = index.search(vectors[i], 1, 64);
+			if (result.get(0).node() == i) found++;
+		}
+		Assertions.assertTrue(found >= 190, "recall too low: " + found + "/200");
+	}
+
+	@Test
+	public void lookup_returnsResponseAboveThresholdOnly() {
+		SemanticCache cache = new SemanticCache(10, 0.9);
+		cache.put(request, new float[]{1f, 0f, 0f}, response("cached"));
+		Assertions.assertEquals("\"cached\"", cache.lookup(request, new float[]{0.95f, 0.1f, 0f}).orElseThrow().getContent());
+		Assertions.assertTrue(cache.lookup(request, new float[]{0f, 1f, 0f}).isEmpty());
+		Assertions.assertEquals(1, cache.getHits());
+		Assertions.assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void lookup_ignoresResponsesOfDifferentModel() {
+		SemanticCache cache = new SemanticCache(10, 0.9);
+		cache.put(request, new float[]{1f, 0f}, response("cached"));
+		TextRequest other = new TextRequestBuilder().setUserContent("How do I reset my password?").setModel(ModelType.GPT4o).build();
+		Assertions.assertTrue(cache.lookup(other, new float[]{1f, 0f}).isEmpty());
+	}
+
+	@Test
+	public void lookup_ignoresResponsesOfDifferentTemperature() {
+		SemanticCache cache = new SemanticCache(10, 0.9);
+		TextRequest creative = new TextRequestBuilder().setUserContent("How do I reset my password?").setTemperature(1.5).build();
+		cache.put(creative, new float[]{1f, 0f}, response("cached"));
+		TextRequest precise = new TextRequestBuilder().setUserContent("How do I reset my password?").setTemperature(0.1).build();
+		Assertions.assertTrue(cache.lookup(precise, new float[]{1f, 0f}).isEmpty());
+		Assertions.assertTrue(cache.lookup(creative, new float[]{1f, 0f}).isPresent());
+	}
+
+	@Test
+	public void put_evictsWhenFull() {
+		Random random = new Random(7);
+		SemanticCache cache = new SemanticCache(50, 0.99);
+		for (int i = 0; i < 500; i++) cache.put(request, randomVector(random, 16), response("r" + i));
+		Assertions.assertEquals(50, cache.size());
+	}
+
+	@Test
+	public void load_restoresSnapshot(@TempDir Path directory) throws Exception {
+		SemanticCache cache = new SemanticCache(10, 0.9);
+		cache.put(request, new float[]{0f, 1f, 0f}, response("persisted"));
+		Path file = directory.resolve("cache.bin");
+		cache.snapshot(file);
+		SemanticCache restored = SemanticCache.load(file);
+		Assertions.assertEquals(1, restored.size());
+		Assertions.assertEquals("\"persisted\"", restored.lookup(request, new float[]{0f, 1f, 0.05f}).orElseThrow().getContent());
+	}
+}
@@ -0,0 +1,104 @@
+package org.ChatGPT.cascade;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.builders.TextRequestBuilder;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.RequestException;
+import org.ChatGPT.requests.TextRequest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class CascadeExecutorTest {
+
+	private final TextRequest prompt = new TextRequestBuilder().setModel(ModelType.GPT4o).setUserContent("Summarize").build();
+
+	private static ChatGPTResponse response(String content, String finishReason) {
+		JsonObject message = new JsonObject();
+		message.addProperty("role", "assistant");
+		message.addProperty("content", content);
+		JsonObject choice = new JsonObject();
+		choice.add("message", message);
+		choice.addProperty("finish_reason", finishReason);
+		JsonObject body = JsonParser.parseString("{\"choices\":[]}").getAsJsonObject();
+		body.getAsJsonArray("choices").add(choice);
+		return new ChatGPTResponse(body);
+	}
+
+	@Test
+	public void execute_returnsFirstAcceptedTier() {
+		CascadeExecutor cascade = new CascadeExecutor(AcceptanceCheck.minLength(5), ModelType.GPT4omini, ModelType.GPT4o, ModelType.o1);
+		Map<ModelType, ChatGPTResponse> answers = Map.of(
+				ModelType.GPT4omini, response("no", "stop"),
+				ModelType.GPT4o, response("a longer answer", "stop"));
+		List<ModelType> sent = new ArrayList<>();
+
+		ChatGPTResponse res = cascade.execute(prompt, request -> {
+			sent.add(request.getModelType());
+			return answers.get(request.getModelType());
+		});
+
+		Assertions.assertEquals("a longer answer", res.getContentAsString());
+		Assertions.assertEquals(List.of(ModelType.GPT4omini, ModelType.GPT4o), sent);
+		List<CascadeExecutor.TierStats> stats = cascade.getStats();
+		Assertions.assertEquals(0, stats.get(0).getHitRate());
+		Assertions.assertEquals(1, stats.get(1).getHitRate());
+		Assertions.assertEquals(1, stats.get(1).answered());
+		Assertions.assertEquals(0, stats.get(2).attempts());
+	}
+
+	@Test
+	public void execute_returnsLastTierEvenIfRejected() {
+		CascadeExecutor cascade = new CascadeExecutor(AcceptanceCheck.validJson(), ModelType.GPT4omini, ModelType.GPT4o);
+		ChatGPTResponse res = cascade.execute(prompt, request -> response("not json", "stop"));
+
+		Assertions.assertEquals("not json", res.getContentAsString());
+		CascadeExecutor.TierStats last = cascade.getStats().get(1);
+		Assertions.assertEquals(1, last.attempts());
+		Assertions.assertEquals(0, last.accepts());
+		Assertions.assertEquals(1, last.answered());
+
+		cascade.reset();
+		Assertions.assertEquals(0, cascade.getStats().get(0).attempts());
+	}
+
+	@Test
+	public void checks_inspectContentAndFinishReason() {
+		AcceptanceCheck check = AcceptanceCheck.finishReason("stop").and(AcceptanceCheck.validJson());
+		Assertions.assertTrue(check.accept(response("{\"a\":1}", "stop")));
+		Assertions.assertFalse(check.accept(response("{\"a\":1}", "length")));
+		Assertions.assertFalse(check.accept(response("plain text", "stop")));
+		Assertions.assertFalse(AcceptanceCheck.minLength(3).accept(response("  a  ", "stop")));
+	}
+
+	@Test
+	public void execute_rejectsPredictionUnsupportedByATier() {
+		TextRequest predicted = new TextRequestBuilder().setUserContent("Fix the typo").setPrediction("class A {}").build();
+		CascadeExecutor cascade = new CascadeExecutor(response -> false, ModelType.GPT4omini, ModelType.o1);
+		List<ModelType> sent = new ArrayList<>();
+
+		Assertions.assertThrows(RequestException.class, () -> cascade.execute(predicted, request -> {
+			sent.add(request.getModelType());
+			return response("ok", "stop");
+		}));
+		Assertions.assertTrue(sent.isEmpty());
+
+		CascadeExecutor supported = new CascadeExecutor(response -> false, ModelType.GPT4omini, ModelType.GPT4o);
+		supported.execute(predicted, request -> {
+			Assertions.assertEquals("class A {}", request.getPrediction());
+			return response("ok", "stop");
+		});
+	}
+
+	@Test
+	public void constructor_rejectsNonChatModels() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CascadeExecutor(response -> true));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CascadeExecutor(response -> true, ModelType.GPT4omini, ModelType.Dalle3));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> new CascadeExecutor(response -> true, ModelType.GPT4o, ModelType.GPT4o));
+	}
+}
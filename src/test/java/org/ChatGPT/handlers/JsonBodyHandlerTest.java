@@ -0,0 +1,42 @@
+package org.ChatGPT.handlers;
+
+import com.google.gson.JsonObject;
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.exceptions.ResponseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class JsonBodyHandlerTest {
+
+	private final String responseText = "{\"id\":\"chatcmpl-AzkGLeWZqZHLOinIx34q6ueEOAHN7\",\"object\":\"chat.completion\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"Привет, Test!\",\"refusal\":null},\"finish_reason\":\"stop\"}]}";
+
+	private InputStream stream(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void parse_returnsSameJsonAsInput() {
+		JsonObject result = JsonBodyHandler.parse(stream(responseText));
+		Assertions.assertEquals(responseText, result.toString());
+	}
+
+	@Test
+	public void parse_decodesMultiByteContent() {
+		ChatGPTResponse response = new ChatGPTResponse(JsonBodyHandler.parse(stream(responseText)));
+		Assertions.assertEquals("\"Привет, Test!\"", response.getContent());
+	}
+
+	@Test
+	public void parse_throwsOnBlankBody() {
+		Assertions.assertThrows(ResponseException.class, () -> JsonBodyHandler.parse(stream("  \n")));
+	}
+
+	@Test
+	public void parse_throwsOnInvalidJson() {
+		Assertions.assertThrows(ResponseException.class, () -> JsonBodyHandler.parse(stream("{\"id\":")));
+	}
+}
@@ -0,0 +1,98 @@
+package org.ChatGPT.handlers;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+
+public class MultipartBodyPublisherTest {
+
+	/**
+	 * Requests one buffer at a time, from within onNext, and collects the body.
+	 */
+	private static class Collector implements Flow.Subscriber<ByteBuffer> {
+		final ByteArrayOutputStream body = new ByteArrayOutputStream();
+		final List<Integer> sizes = new ArrayList<>();
+		Flow.Subscription subscription;
+		boolean complete;
+		Throwable error;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(ByteBuffer item) {
+			sizes.add(item.remaining());
+			byte[] bytes = new byte[item.remaining()];
+			item.get(bytes);
+			body.writeBytes(bytes);
+			subscription.request(1);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			complete = true;
+		}
+	}
+
+	@Test
+	public void subscribe_streamsFileInChunks(@TempDir Path directory) throws Exception {
+		byte[] audio = new byte[3 * MultipartBodyPublisher.CHUNK_SIZE + 17];
+		new Random(1).nextBytes(audio);
+		Path file = directory.resolve("audio.mp3");
+		Files.write(file, audio);
+
+		MultipartBodyPublisher publisher = new MultipartBodyPublisher.Builder()
+				.addField("model", "whisper-1")
+				.addFile("file", file, "audio/mpeg")
+				.build();
+		String boundary = publisher.getContentType().substring(publisher.getContentType().indexOf("boundary=") + 9);
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+			Collector collector = new Collector();
+			publisher.subscribe(collector);
+			Assertions.assertTrue(collector.complete);
+			Assertions.assertNull(collector.error);
+			Assertions.assertTrue(collector.sizes.stream().allMatch(size -> size <= MultipartBodyPublisher.CHUNK_SIZE));
+
+			ByteArrayOutputStream expected = new ByteArrayOutputStream();
+			expected.writeBytes(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"model\"\r\n\r\nwhisper-1\r\n"
+					+ "--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"" + file.getFileName()
+					+ "\"\r\nContent-Type: audio/mpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+			expected.writeBytes(audio);
+			expected.writeBytes(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+			Assertions.assertArrayEquals(expected.toByteArray(), collector.body.toByteArray());
+			Assertions.assertEquals(expected.size(), publisher.contentLength());
+		}
+	}
+
+	@Test
+	public void subscribe_reportsNonPositiveRequest() {
+		MultipartBodyPublisher publisher = new MultipartBodyPublisher.Builder().addField("a", "b").build();
+		Collector collector = new Collector() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(0);
+			}
+		};
+		publisher.subscribe(collector);
+		Assertions.assertInstanceOf(IllegalArgumentException.class, collector.error);
+	}
+}
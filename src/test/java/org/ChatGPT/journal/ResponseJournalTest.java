@@ -0,0 +1,134 @@
+package org.ChatGPT.journal;
+
+import org.ChatGPT.ChatGPTResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+public class ResponseJournalTest {
+
+	private static byte[] body(String id, String content) {
+		return ("{\"id\":\"" + id + "\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"}}]}")
+				.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String content(ChatGPTResponse response) {
+		return response.getContentAsString();
+	}
+
+	private static List<Path> segments(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+		}
+	}
+
+	private static void appendAll(ResponseJournal journal, int from, int to) {
+		List<CompletableFuture<Void>> written = new ArrayList<>();
+		for (int i = from; i < to; i++) written.add(journal.append("chatcmpl-" + i, body("chatcmpl-" + i, "answer " + i)));
+		CompletableFuture.allOf(written.toArray(CompletableFuture[]::new)).join();
+	}
+
+	@Test
+	public void append_rollsSegmentsAndSurvivesReopen(@TempDir Path directory) throws IOException {
+		try (ResponseJournal journal = new ResponseJournal(directory, 512, 4)) {
+			appendAll(journal, 0, 40);
+			Assertions.assertEquals("answer 7", content(journal.lookup("chatcmpl-7").orElseThrow()));
+		}
+		Assertions.assertTrue(segments(directory).size() > 1, "segments " + segments(directory));
+
+		try (ResponseJournal journal = new ResponseJournal(directory, 512, 4)) {
+			Assertions.assertEquals(40, journal.size());
+			for (int i = 0; i < 40; i++) {
+				Assertions.assertEquals("answer " + i, content(journal.lookup("chatcmpl-" + i).orElseThrow()));
+			}
+			Assertions.assertTrue(journal.lookup("chatcmpl-missing").isEmpty());
+
+			List<String> replayed = new ArrayList<>();
+			journal.replay((id, response) -> replayed.add(id));
+			Assertions.assertEquals(40, replayed.size());
+			for (int i = 0; i < 40; i++) Assertions.assertEquals("chatcmpl-" + i, replayed.get(i));
+		}
+	}
+
+	@Test
+	public void open_truncatesTornTailRecord(@TempDir Path directory) throws IOException {
+		try (ResponseJournal journal = new ResponseJournal(directory)) {
+			appendAll(journal, 0, 3);
+		}
+		Path segment = segments(directory).get(0);
+		long size = Files.size(segment);
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.truncate(size - 10);
+		}
+
+		long recovered;
+		try (ResponseJournal journal = new ResponseJournal(directory)) {
+			Assertions.assertEquals(2, journal.size());
+			Assertions.assertTrue(journal.lookup("chatcmpl-2").isEmpty());
+			Assertions.assertEquals("answer 1", content(journal.lookup("chatcmpl-1").orElseThrow()));
+			recovered = Files.size(segment);
+			Assertions.assertTrue(recovered < size - 10);
+			appendAll(journal, 3, 4);
+		}
+
+		try (ResponseJournal journal = new ResponseJournal(directory)) {
+			Assertions.assertEquals(3, journal.size());
+			Assertions.assertEquals("answer 3", content(journal.lookup("chatcmpl-3").orElseThrow()));
+		}
+	}
+
+	@Test
+	public void compaction_keepsOnlyLiveRecords(@TempDir Path directory) throws IOException {
+		byte[] stale = body("chatcmpl-a", "stale");
+		byte[] kept = body("chatcmpl-b", "kept");
+		long recordBytes = 2 * Integer.BYTES + "chatcmpl-a".length() + stale.length;
+		try (ResponseJournal journal = new ResponseJournal(directory, recordBytes + 2 * Integer.BYTES + "chatcmpl-b".length() + kept.length, 1)) {
+			journal.append("chatcmpl-a", stale).join();
+			journal.append("chatcmpl-b", kept).join();
+			// rolls the first segment, which then holds one superseded and one live record
+			journal.append("chatcmpl-a", body("chatcmpl-a", "fresh")).join();
+		}
+
+		Path first = segments(directory).get(0);
+		Assertions.assertEquals(2 * Integer.BYTES + "chatcmpl-b".length() + kept.length, Files.size(first));
+		Assertions.assertFalse(Files.exists(first.resolveSibling(first.getFileName() + ".compact")));
+
+		try (ResponseJournal journal = new ResponseJournal(directory)) {
+			Map<String, String> replayed = new LinkedHashMap<>();
+			journal.replay((id, response) -> replayed.put(id, content(response)));
+			Assertions.assertEquals(Map.of("chatcmpl-a", "fresh", "chatcmpl-b", "kept"), replayed);
+			Assertions.assertEquals(List.of("chatcmpl-b", "chatcmpl-a"), List.copyOf(replayed.keySet()));
+		}
+	}
+
+	@Test
+	public void retention_deletesOldestSegments(@TempDir Path directory) throws IOException {
+		try (ResponseJournal journal = new ResponseJournal(directory, 512, 4, 2048)) {
+			appendAll(journal, 0, 100);
+			Assertions.assertEquals("answer 99", content(journal.lookup("chatcmpl-99").orElseThrow()));
+			Assertions.assertTrue(journal.lookup("chatcmpl-0").isEmpty());
+			Assertions.assertTrue(journal.size() < 100);
+		}
+		long total = 0;
+		for (Path segment : segments(directory)) total += Files.size(segment);
+		Assertions.assertTrue(total <= 2048 + 512, "journal bytes " + total);
+
+		try (ResponseJournal journal = new ResponseJournal(directory, 512, 4, 1024)) {
+			Assertions.assertTrue(journal.sizeInBytes() <= 1024 + 512);
+			Assertions.assertTrue(journal.lookup("chatcmpl-99").isPresent());
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package org.ChatGPT.routing;
+
+import org.ChatGPT.enums.ModelType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class EndpointRouterTest {
+
+	private final Endpoint east = Endpoint.openAi("east", URI.create("https://east.example.com/v1/"));
+	private final Endpoint west = Endpoint.openAi("west", URI.create("https://west.example.com/v1"));
+	private final Endpoint azure = Endpoint.azure("azure", URI.create("https://res.openai.azure.com"), "2024-10-21")
+			.mapModel(ModelType.GPT4omini, "mini-deployment");
+
+	@Test
+	public void endpoint_buildsUrisAndModelNames() {
+		Assertions.assertEquals(URI.create("https://east.example.com/v1/chat/completions"), east.getChatCompletionsUri(ModelType.GPT4o));
+		Assertions.assertEquals("gpt-4o", east.getModelName(ModelType.GPT4o));
+		Assertions.assertEquals(URI.create("https://res.openai.azure.com/openai/deployments/mini-deployment/chat/completions?api-version=2024-10-21"),
+				azure.getChatCompletionsUri(ModelType.GPT4omini));
+		Assertions.assertTrue(azure.supports(ModelType.GPT4omini));
+		Assertions.assertFalse(azure.supports(ModelType.GPT4o));
+	}
+
+	@Test
+	public void route_skipsEndpointsNotServingTheModel() {
+		EndpointRouter router = new EndpointRouter(List.of(east, azure));
+		Assertions.assertEquals(List.of(east), router.route(ModelType.GPT4o, null));
+		Assertions.assertEquals(2, router.route(ModelType.GPT4omini, null).size());
+	}
+
+	@Test
+	public void route_keepsConversationOnOneEndpoint() {
+		EndpointRouter router = new EndpointRouter(List.of(east, west, azure));
+		Set<String> chosen = new HashSet<>();
+		for (int i = 0; i < 64; i++) {
+			String key = "conversation-" + i;
+			Endpoint first = router.route(ModelType.GPT4omini, key).get(0);
+			for (int repeat = 0; repeat < 5; repeat++) Assertions.assertSame(first, router.route(ModelType.GPT4omini, key).get(0));
+			chosen.add(first.getName());
+		}
+		Assertions.assertEquals(3, chosen.size());
+	}
+
+	@Test
+	public void route_prefersFasterEndpoint() {
+		EndpointRouter router = new EndpointRouter(List.of(east, west));
+		router.record(east, Duration.ofMillis(900).toNanos(), true);
+		router.record(west, Duration.ofMillis(200).toNanos(), true);
+		Assertions.assertEquals(List.of(west, east), router.route(ModelType.GPT4o, null));
+	}
+
+	@Test
+	public void record_marksFailingEndpointUnhealthyAndMovesItsConversations() {
+		EndpointRouter router = new EndpointRouter(List.of(east, west)).setHealthPolicy(2, 1.0, Duration.ofMinutes(1));
+		String key = "conversation";
+		Endpoint sticky = router.route(ModelType.GPT4o, key).get(0);
+		Endpoint other = sticky == east ? west : east;
+
+		router.record(sticky, 1_000_000, false);
+		Assertions.assertTrue(sticky.isHealthy());
+		router.record(sticky, 1_000_000, false);
+		Assertions.assertFalse(sticky.isHealthy());
+		Assertions.assertEquals(List.of(other, sticky), router.route(ModelType.GPT4o, key));
+		Assertions.assertTrue(sticky.getErrorRate() > 0);
+	}
+
+	@Test
+	public void record_restoresEndpointAfterCooldown() {
+		EndpointRouter router = new EndpointRouter(List.of(east, west)).setHealthPolicy(1, 1.0, Duration.ZERO);
+		router.record(east, 1_000_000, false);
+		Assertions.assertTrue(east.isHealthy());
+		router.record(east, 1_000_000, true);
+		Assertions.assertEquals(Duration.ofMillis(1), east.getLatency());
+	}
+}
@@ -0,0 +1,83 @@
+package org.ChatGPT.streaming;
+
+import com.google.gson.JsonElement;
+import org.ChatGPT.exceptions.ResponseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class IncrementalJsonParserTest {
+
+	private final String document = "{\"title\": \"List \\\"A\\\"\", \"items\": [{\"name\":\"a\",\"qty\":1}, {\"name\":\"b]\",\"qty\":2}], \"total\": 3}";
+
+	public static class Item {
+		String name;
+		int qty;
+	}
+
+	private void feedByChars(IncrementalJsonParser parser, String text) {
+		for (int i = 0; i < text.length(); i++) parser.accept(String.valueOf(text.charAt(i)));
+	}
+
+	@Test
+	public void accept_emitsArrayElementsBeforeDocumentEnds() {
+		List<Item> items = new ArrayList<>();
+		IncrementalJsonParser parser = IncrementalJsonParser.forArrayElements("items", Item.class, items::add);
+		int firstItemEnd = document.indexOf('}') + 1;
+		parser.accept(document.substring(0, firstItemEnd));
+		Assertions.assertEquals(1, items.size());
+		Assertions.assertEquals("a", items.get(0).name);
+		parser.accept(document.substring(firstItemEnd));
+		Assertions.assertEquals(2, items.size());
+		Assertions.assertEquals("b]", items.get(1).name);
+		Assertions.assertEquals(2, items.get(1).qty);
+	}
+
+	@Test
+	public void forArrayElements_parsesOnlyTheElements() {
+		List<Item> items = new ArrayList<>();
+		IncrementalJsonParser parser = IncrementalJsonParser.forArrayElements("items", Item.class, items::add);
+		// the other field is not valid JSON, so parsing it, or the document around it, would fail
+		feedByChars(parser, "{\"items\": [{\"name\":\"a\",\"qty\":1}, {\"name\":\"b\",\"qty\":2}], \"other\": [1 2]}");
+		parser.finish();
+		Assertions.assertEquals(2, items.size());
+		Assertions.assertEquals("b", items.get(1).name);
+	}
+
+	@Test
+	public void accept_reportsPathsUpToMaxDepth() {
+		List<String> paths = new ArrayList<>();
+		feedByChars(new IncrementalJsonParser(2, (path, value) -> paths.add(path)), document);
+		Assertions.assertEquals(List.of("$.title", "$.items[0]", "$.items[1]", "$.items", "$.total", "$"), paths);
+	}
+
+	@Test
+	public void forFields_emitsFieldsWithUnescapedValues() {
+		List<String> fields = new ArrayList<>();
+		List<JsonElement> values = new ArrayList<>();
+		IncrementalJsonParser parser = IncrementalJsonParser.forFields((name, value) -> {
+			fields.add(name);
+			values.add(value);
+		});
+		feedByChars(parser, document);
+		Assertions.assertEquals(List.of("title", "items", "total"), fields);
+		Assertions.assertEquals("List \"A\"", values.get(0).getAsString());
+		Assertions.assertEquals(3, values.get(2).getAsInt());
+	}
+
+	@Test
+	public void finish_completesTrailingScalarAndRejectsIncompleteDocument() {
+		List<JsonElement> values = new ArrayList<>();
+		IncrementalJsonParser scalar = new IncrementalJsonParser(0, (path, value) -> values.add(value));
+		scalar.accept("4");
+		scalar.accept("2");
+		scalar.finish();
+		Assertions.assertEquals(42, values.get(0).getAsInt());
+
+		IncrementalJsonParser incomplete = new IncrementalJsonParser(1, (path, value) -> { });
+		incomplete.accept("{\"items\": [1, 2");
+		Assertions.assertThrows(ResponseException.class, incomplete::finish);
+	}
+}
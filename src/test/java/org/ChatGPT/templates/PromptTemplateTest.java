@@ -0,0 +1,69 @@
+package org.ChatGPT.templates;
+
+import com.google.gson.JsonParser;
+import org.ChatGPT.builders.TextRequestBuilder;
+import org.ChatGPT.enums.ModelType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class PromptTemplateTest {
+
+	private final PromptTemplate template = PromptTemplate.compile(new TextRequestBuilder()
+			.setModel(ModelType.GPT4omini)
+			.setSystemContent("You translate to {{language}}.")
+			.setUserContent("Translate to {{language}}: {{text}}"));
+
+	private String expected(String language, String text) {
+		return new TextRequestBuilder()
+				.setModel(ModelType.GPT4omini)
+				.setSystemContent("You translate to " + language + ".")
+				.setUserContent("Translate to " + language + ": " + text)
+				.build()
+				.getJson();
+	}
+
+	@Test
+	public void compile_collectsDistinctVariablesInOrder() {
+		Assertions.assertEquals(List.of("language", "text"), template.getVariables());
+	}
+
+	@Test
+	public void render_matchesBuiltRequest() {
+		String text = "Quote \" backslash \\ newline \n tab \t bell \u0007 <tag> é € 😀";
+		byte[] body = template.render("French", text);
+		Assertions.assertEquals(
+				JsonParser.parseString(expected("French", text)),
+				JsonParser.parseString(new String(body, StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void render_withNamedValues() {
+		byte[] body = template.render(Map.of("text", "hello", "language", "German"));
+		Assertions.assertEquals(
+				JsonParser.parseString(expected("German", "hello")),
+				JsonParser.parseString(new String(body, StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	public void renderTo_writesAtBufferPosition() {
+		ByteBuffer buffer = ByteBuffer.allocate(1024);
+		buffer.put((byte) 'x');
+		int length = template.renderTo(buffer, "Spanish", "hi");
+		Assertions.assertEquals(length + 1, buffer.position());
+		Assertions.assertEquals(expected("Spanish", "hi").length(), length);
+		Assertions.assertThrows(BufferOverflowException.class, () -> template.renderTo(ByteBuffer.allocate(8), "Spanish", "hi"));
+	}
+
+	@Test
+	public void render_rejectsWrongValues() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> template.render("French"));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> template.render("French", null));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("language", "French")));
+	}
+}
@@ -0,0 +1,52 @@
+package org.ChatGPT.usage;
+
+import com.google.gson.JsonParser;
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.enums.ModelType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+public class PredictionMetricsTest {
+
+	private final ChatGPTResponse predicted = new ChatGPTResponse(JsonParser.parseString("""
+			{"id":"chatcmpl-1","usage":{"prompt_tokens":900,"completion_tokens":400,"total_tokens":1300,
+			"completion_tokens_details":{"accepted_prediction_tokens":300,"rejected_prediction_tokens":100}}}
+			""").getAsJsonObject());
+
+	@Test
+	public void record_separatesPredictedCallsFromBaseline() {
+		PredictionMetrics metrics = new PredictionMetrics();
+		metrics.record(ModelType.GPT4o, true, predicted, Duration.ofMillis(800).toNanos());
+		metrics.record(ModelType.GPT4o, true, predicted, Duration.ofMillis(400).toNanos());
+		metrics.record(ModelType.GPT4o, false, 400, 0, 0, Duration.ofMillis(4000).toNanos());
+
+		Assertions.assertEquals(300, predicted.getAcceptedPredictionTokenCount());
+		Assertions.assertEquals(100, predicted.getRejectedPredictionTokenCount());
+
+		PredictionMetrics.Stats withPrediction = metrics.getStats(ModelType.GPT4o, true);
+		Assertions.assertEquals(2, withPrediction.requests());
+		Assertions.assertEquals(600, withPrediction.acceptedTokens());
+		Assertions.assertEquals(200, withPrediction.rejectedTokens());
+		Assertions.assertEquals(0.75, withPrediction.getAcceptanceRatio(), 1e-12);
+		Assertions.assertEquals(Duration.ofMillis(1200).dividedBy(800), withPrediction.getLatencyPerToken());
+
+		PredictionMetrics.Stats baseline = metrics.getStats(ModelType.GPT4o, false);
+		Assertions.assertEquals(0, baseline.getAcceptanceRatio());
+		Assertions.assertEquals(Duration.ofMillis(10), baseline.getLatencyPerToken());
+		Assertions.assertEquals(2, metrics.snapshot().size());
+	}
+
+	@Test
+	public void getStats_isZeroForUnrecordedModel() {
+		PredictionMetrics metrics = new PredictionMetrics();
+		PredictionMetrics.Stats stats = metrics.getStats(ModelType.GPT4omini, true);
+		Assertions.assertEquals(0, stats.requests());
+		Assertions.assertEquals(Duration.ZERO, stats.getLatencyPerToken());
+
+		metrics.record(ModelType.GPT4omini, true, predicted, 1);
+		metrics.reset();
+		Assertions.assertTrue(metrics.snapshot().isEmpty());
+	}
+}
@@ -0,0 +1,116 @@
+package org.ChatGPT.usage;
+
+import com.google.gson.JsonParser;
+import org.ChatGPT.ChatGPTResponse;
+import org.ChatGPT.enums.ImageQuality;
+import org.ChatGPT.enums.ImageSize;
+import org.ChatGPT.enums.ModelType;
+import org.ChatGPT.exceptions.BudgetExceededException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+public class UsageTrackerTest {
+
+	private final ChatGPTResponse response = new ChatGPTResponse(JsonParser.parseString("""
+			{"id":"chatcmpl-1","usage":{"prompt_tokens":1000,"completion_tokens":500,"total_tokens":1500,
+			"prompt_tokens_details":{"cached_tokens":400},"completion_tokens_details":{"reasoning_tokens":100}}}
+			""").getAsJsonObject());
+
+	@Test
+	public void record_aggregatesPerModelKeyAndTag() {
+		UsageTracker tracker = new UsageTracker();
+		tracker.record(ModelType.GPT4o, "sk-a", "batch", response);
+		tracker.record(ModelType.GPT4o, "sk-a", "batch", response);
+		tracker.record(ModelType.GPT4o, "sk-b", null, response);
+
+		List<UsageTracker.Usage> usage = tracker.snapshot();
+		Assertions.assertEquals(2, usage.size());
+		UsageTracker.Usage batch = usage.stream().filter(u -> "batch".equals(u.tag())).findFirst().orElseThrow();
+		Assertions.assertEquals(tracker.apiKeyId("sk-a"), batch.apiKeyId());
+		Assertions.assertEquals(2, batch.requests());
+		Assertions.assertEquals(2000, batch.promptTokens());
+		Assertions.assertEquals(800, batch.cachedTokens());
+		Assertions.assertEquals(1000, batch.completionTokens());
+		Assertions.assertEquals(200, batch.reasoningTokens());
+		// 600 uncached * $2.50/M + 400 cached * $1.25/M + 500 completion * $10/M = $0.0070 per call
+		Assertions.assertEquals(0.014, batch.getCost(), 1e-12);
+		Assertions.assertEquals(0.021, tracker.getTotalCost(), 1e-12);
+	}
+
+	@Test
+	public void record_usesPriceTableOverrides() {
+		UsageTracker tracker = new UsageTracker(PriceTable.defaults().withPrice(ModelType.GPT4o, new PriceTable.Price(1, 1, 1)));
+		tracker.record(ModelType.GPT4o, "sk-a", null, response);
+		Assertions.assertEquals(0.0015, tracker.getTotalCost(), 1e-12);
+	}
+
+	@Test
+	public void recordImages_chargesPerImage() {
+		UsageTracker tracker = new UsageTracker();
+		tracker.recordImages(ModelType.Dalle3, "sk-a", null, ImageSize.S1792x1024, ImageQuality.HD, 1);
+		tracker.recordImages(ModelType.Dalle2, "sk-a", null, ImageSize.S512x512, null, 3);
+		Assertions.assertEquals(0.12 + 3 * 0.018, tracker.getTotalCost(), 1e-12);
+
+		UsageTracker custom = new UsageTracker(PriceTable.defaults().withImagePrice(ModelType.Dalle3, ImageSize.S1024x1024, null, 0.01));
+		custom.recordImages(ModelType.Dalle3, "sk-a", null, ImageSize.S1024x1024, ImageQuality.STANDARD, 1);
+		Assertions.assertEquals(0.01, custom.getTotalCost(), 1e-12);
+	}
+
+	@Test
+	public void recordAudio_chargesPerMinute() {
+		UsageTracker tracker = new UsageTracker();
+		tracker.recordAudio(ModelType.Whisper1, "sk-a", null, 90);
+		Assertions.assertEquals(0.009, tracker.getTotalCost(), 1e-12);
+		Assertions.assertEquals(1, tracker.snapshot().get(0).requests());
+	}
+
+	@Test
+	public void admit_throttlesThenRejects() {
+		UsageTracker tracker = new UsageTracker().addBudget(
+				new UsageBudget("batch", 0.01, Duration.ofHours(1)).setTag("batch").setThrottle(0.5, Duration.ofSeconds(1)));
+		Assertions.assertEquals(0, tracker.admit(ModelType.GPT4o, "batch"));
+
+		tracker.record(ModelType.GPT4o, "sk-a", "batch", response);
+		long delay = tracker.admit(ModelType.GPT4o, "batch");
+		Assertions.assertTrue(delay > 0 && delay < Duration.ofSeconds(1).toNanos(), "delay " + delay);
+		Assertions.assertEquals(0, tracker.admit(ModelType.GPT4o, "other"));
+
+		tracker.record(ModelType.GPT4o, "sk-a", "batch", response);
+		Assertions.assertThrows(BudgetExceededException.class, () -> tracker.admit(ModelType.GPT4o, "batch"));
+		Assertions.assertEquals(0, tracker.admit(ModelType.GPT4omini, "other"));
+	}
+
+	@Test
+	public void budget_forgetsSpendOutsideWindow() throws InterruptedException {
+		UsageBudget budget = new UsageBudget("short", 0.01, Duration.ofMillis(120));
+		UsageTracker tracker = new UsageTracker().addBudget(budget);
+		tracker.record(ModelType.GPT4o, "sk-a", null, response);
+		tracker.record(ModelType.GPT4o, "sk-a", null, response);
+		Assertions.assertThrows(BudgetExceededException.class, () -> tracker.admit(ModelType.GPT4o, null));
+		Thread.sleep(200);
+		Assertions.assertEquals(0, budget.getSpent());
+		Assertions.assertEquals(0, tracker.admit(ModelType.GPT4o, null));
+	}
+
+	@Test
+	public void budget_countsConcurrentSpendAcrossBucketResets() throws InterruptedException {
+		// 50 ms buckets: the threads cross bucket boundaries, each starting with a reset, well within the window
+		UsageBudget budget = new UsageBudget("concurrent", 1000, Duration.ofSeconds(3));
+		Thread[] threads = new Thread[8];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 200; i++) {
+					budget.record(1_000);
+					LockSupport.parkNanos(1_000_000);
+				}
+			});
+		}
+		for (Thread thread : threads) thread.start();
+		for (Thread thread : threads) thread.join();
+		Assertions.assertEquals(8 * 200 * 1_000 / 1e9, budget.getSpent(), 1e-12);
+	}
+}